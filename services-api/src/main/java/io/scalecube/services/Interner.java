@@ -0,0 +1,33 @@
+package io.scalecube.services;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Pool of canonical instances of immutable values, such that equal values may share one instance.
+ * Values are held weakly, so that value is dropped from the pool once nothing else refers to it.
+ *
+ * @param <T> type of value, must be immutable and have proper equals/hashCode
+ */
+final class Interner<T> {
+
+  private final Map<T, WeakReference<T>> pool = new WeakHashMap<>();
+
+  /**
+   * Returns canonical instance equal to given value, given value becomes canonical one if there is
+   * none yet.
+   *
+   * @param value value
+   * @return canonical instance
+   */
+  synchronized T intern(T value) {
+    WeakReference<T> reference = pool.get(value);
+    T result = reference != null ? reference.get() : null;
+    if (result == null) {
+      pool.put(value, new WeakReference<>(value));
+      result = value;
+    }
+    return result;
+  }
+}
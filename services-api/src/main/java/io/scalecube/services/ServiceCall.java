@@ -4,11 +4,13 @@
 import io.scalecube.services.api.ServiceMessage;
 import io.scalecube.services.exceptions.DefaultErrorMapper;
 import io.scalecube.services.exceptions.ServiceClientErrorMapper;
+import io.scalecube.services.exceptions.ServiceRejectedException;
 import io.scalecube.services.exceptions.ServiceUnavailableException;
 import io.scalecube.services.methods.MethodInfo;
 import io.scalecube.services.methods.ServiceMethodInvoker;
 import io.scalecube.services.methods.ServiceMethodRegistry;
 import io.scalecube.services.registry.api.ServiceRegistry;
+import io.scalecube.services.routing.LoadAwareRouter;
 import io.scalecube.services.routing.Router;
 import io.scalecube.services.routing.Routers;
 import io.scalecube.services.transport.api.ClientTransport;
@@ -33,6 +35,9 @@ public class ServiceCall {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ServiceCall.class);
 
+  // rejected requests weren't processed, so they are routed again, likely to another endpoint
+  private static final int MAX_REROUTES = 2;
+
   private ClientTransport transport;
   private ServiceMethodRegistry methodRegistry;
   private ServiceRegistry serviceRegistry;
@@ -190,10 +195,13 @@ public Mono<ServiceMessage> requestOne(ServiceMessage request, Type responseType
             return Mono.fromCallable(() -> serviceLookup(request))
                 .flatMap(
                     serviceReference ->
-                        transport
-                            .create(serviceReference)
-                            .requestResponse(request, responseType)
-                            .map(this::throwIfError));
+                        reportLoad(
+                            serviceReference,
+                            transport
+                                .create(serviceReference)
+                                .requestResponse(request, responseType)))
+                .retry(MAX_REROUTES, ServiceRejectedException.class::isInstance)
+                .map(this::throwIfError);
           }
         });
   }
@@ -231,8 +239,9 @@ public Flux<ServiceMessage> requestMany(ServiceMessage request, Type responseTyp
                     serviceReference ->
                         transport
                             .create(serviceReference)
-                            .requestStream(request, responseType)
-                            .map(this::throwIfError));
+                            .requestStream(request, responseType))
+                .retry(MAX_REROUTES, ServiceRejectedException.class::isInstance)
+                .map(this::throwIfError);
           }
         });
   }
@@ -353,6 +362,22 @@ private ServiceReference serviceLookup(ServiceMessage request) {
         .orElseThrow(() -> noReachableMemberException(request));
   }
 
+  private Mono<ServiceMessage> reportLoad(
+      ServiceReference serviceReference, Mono<ServiceMessage> response) {
+    if (!(router instanceof LoadAwareRouter)) {
+      return response;
+    }
+    LoadAwareRouter router = (LoadAwareRouter) this.router;
+    return Mono.defer(
+        () -> {
+          long start = System.nanoTime();
+          router.onRequestStart(serviceReference);
+          return response.doFinally(
+              signal ->
+                  router.onRequestFinish(serviceReference, System.nanoTime() - start, signal));
+        });
+  }
+
   private ServiceMessage toServiceMessage(MethodInfo methodInfo, Object request) {
     if (request instanceof ServiceMessage) {
       return ServiceMessage.from((ServiceMessage) request)
@@ -2,8 +2,10 @@
 
 import io.scalecube.net.Address;
 import io.scalecube.services.api.Qualifier;
+import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
@@ -11,13 +13,25 @@
 /**
  * Service reference. This is merge of service method information together with service registration
  * and with service endpoint.
+ *
+ * <p>Qualifiers, tags and content types are interned, so that references of endpoints which run the
+ * same services share them instead of holding a copy per endpoint. Tags of service method and
+ * registration are interned apart from tags of service endpoint, which are usually unique per node
+ * (e.g. tags of server transport), and references of one endpoint share its tags.
  */
 public class ServiceReference {
 
+  private static final Interner<String> STRINGS = new Interner<>();
+  private static final Interner<Set<String>> CONTENT_TYPES = new Interner<>();
+  private static final Interner<Map<String, String>> TAGS = new Interner<>();
+
   private final String qualifier;
+  private final String oldQualifier;
   private final String endpointId;
   private final String namespace;
   private final Set<String> contentTypes;
+  private final Map<String, String> methodTags;
+  private final Map<String, String> endpointTags;
   private final Map<String, String> tags;
   private final String action;
   private final Address address;
@@ -35,11 +49,18 @@ public ServiceReference(
       ServiceRegistration serviceRegistration,
       ServiceEndpoint serviceEndpoint) {
     this.endpointId = serviceEndpoint.id();
-    this.namespace = serviceRegistration.namespace();
-    this.contentTypes = Collections.unmodifiableSet(serviceEndpoint.contentTypes());
-    this.tags = mergeTags(serviceMethodDefinition, serviceRegistration, serviceEndpoint);
-    this.action = serviceMethodDefinition.action();
-    this.qualifier = Qualifier.asString(namespace, action);
+    this.namespace = STRINGS.intern(serviceRegistration.namespace());
+    this.contentTypes =
+        CONTENT_TYPES.intern(
+            Collections.unmodifiableSet(new HashSet<>(serviceEndpoint.contentTypes())));
+    this.methodTags =
+        TAGS.intern(
+            Collections.unmodifiableMap(mergeTags(serviceMethodDefinition, serviceRegistration)));
+    this.endpointTags = serviceEndpoint.tags();
+    this.tags = mergedTags(methodTags, endpointTags);
+    this.action = STRINGS.intern(serviceMethodDefinition.action());
+    this.qualifier = STRINGS.intern(Qualifier.asString(namespace, action));
+    this.oldQualifier = STRINGS.intern(Qualifier.DELIMITER + qualifier);
     this.address = serviceEndpoint.address();
     this.isSecured = serviceMethodDefinition.isSecured();
   }
@@ -49,7 +70,7 @@ public String qualifier() {
   }
 
   public String oldQualifier() {
-    return Qualifier.DELIMITER + qualifier();
+    return oldQualifier;
   }
 
   public String endpointId() {
@@ -64,10 +85,34 @@ public Set<String> contentTypes() {
     return contentTypes;
   }
 
+  /**
+   * Returns tags of service method, service registration and service endpoint, in order of
+   * precedence.
+   *
+   * @return unmodifiable tags
+   */
   public Map<String, String> tags() {
     return tags;
   }
 
+  /**
+   * Returns tags of service method and service registration, in order of precedence.
+   *
+   * @return unmodifiable tags
+   */
+  public Map<String, String> methodTags() {
+    return methodTags;
+  }
+
+  /**
+   * Returns tags of service endpoint.
+   *
+   * @return unmodifiable tags
+   */
+  public Map<String, String> endpointTags() {
+    return endpointTags;
+  }
+
   public String action() {
     return action;
   }
@@ -80,17 +125,56 @@ public boolean isSecured() {
     return isSecured;
   }
 
-  private Map<String, String> mergeTags(
-      ServiceMethodDefinition serviceMethodDefinition,
-      ServiceRegistration serviceRegistration,
-      ServiceEndpoint serviceEndpoint) {
+  private static Map<String, String> mergeTags(
+      ServiceMethodDefinition serviceMethodDefinition, ServiceRegistration serviceRegistration) {
     Map<String, String> tags = new HashMap<>();
-    tags.putAll(serviceEndpoint.tags());
     tags.putAll(serviceRegistration.tags());
     tags.putAll(serviceMethodDefinition.tags());
     return tags;
   }
 
+  private static Map<String, String> mergedTags(
+      Map<String, String> methodTags, Map<String, String> endpointTags) {
+    if (endpointTags.isEmpty()) {
+      return methodTags;
+    }
+    if (methodTags.isEmpty()) {
+      return endpointTags;
+    }
+    return new MergedTags(methodTags, endpointTags);
+  }
+
+  /** Read-only view of method tags over endpoint tags, so that neither is copied per reference. */
+  private static final class MergedTags extends AbstractMap<String, String> {
+
+    private final Map<String, String> methodTags;
+    private final Map<String, String> endpointTags;
+
+    private MergedTags(Map<String, String> methodTags, Map<String, String> endpointTags) {
+      this.methodTags = methodTags;
+      this.endpointTags = endpointTags;
+    }
+
+    @Override
+    public String get(Object key) {
+      String value = methodTags.get(key);
+      // values are nullable
+      return value != null || methodTags.containsKey(key) ? value : endpointTags.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return methodTags.containsKey(key) || endpointTags.containsKey(key);
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+      Map<String, String> tags = new HashMap<>(endpointTags);
+      tags.putAll(methodTags);
+      return Collections.unmodifiableMap(tags).entrySet();
+    }
+  }
+
   @Override
   public String toString() {
     return new StringJoiner(", ", ServiceReference.class.getSimpleName() + "[", "]")
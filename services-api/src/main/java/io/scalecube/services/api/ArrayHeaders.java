@@ -0,0 +1,147 @@
+package io.scalecube.services.api;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable headers of {@link ServiceMessage}. Own entries are kept in a flat {@code [k0, v0, k1,
+ * v1, ...]} array and looked up by linear scan, which beats hashing for the typical handful of
+ * headers. Optionally it overlays a {@code base} map, which is a map of some other origin (e.g.
+ * lazily decoded inbound headers), so that derived messages carry only overrides and don't force
+ * decoding of the whole base.
+ */
+final class ArrayHeaders extends AbstractMap<String, String> {
+
+  static final String[] NO_ENTRIES = new String[0];
+
+  static final ArrayHeaders EMPTY = new ArrayHeaders(Collections.emptyMap(), NO_ENTRIES, 0);
+
+  private final Map<String, String> base;
+  private final String[] entries;
+  private final int count;
+  private final int size;
+
+  /**
+   * Constructor.
+   *
+   * @param base immutable base map, must not be {@link ArrayHeaders}
+   * @param entries own entries, might be longer than {@code count * 2}, must not be modified
+   *     afterwards
+   * @param count number of own entries
+   */
+  ArrayHeaders(Map<String, String> base, String[] entries, int count) {
+    this.base = base;
+    this.entries = entries;
+    this.count = count;
+    int size = count + base.size();
+    if (!base.isEmpty()) {
+      for (int i = 0; i < count; i++) {
+        if (base.containsKey(entries[i << 1])) {
+          size--;
+        }
+      }
+    }
+    this.size = size;
+  }
+
+  Map<String, String> base() {
+    return base;
+  }
+
+  String[] entries() {
+    return entries;
+  }
+
+  int count() {
+    return count;
+  }
+
+  static int indexOf(String[] entries, int count, Object key) {
+    for (int i = 0, n = count << 1; i < n; i += 2) {
+      String k = entries[i];
+      if (k == key || k.equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(entries, count, key) >= 0 || base.containsKey(key);
+  }
+
+  @Override
+  public String get(Object key) {
+    int index = indexOf(entries, count, key);
+    return index >= 0 ? entries[index + 1] : base.get(key);
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    return new AbstractSet<Entry<String, String>>() {
+      @Override
+      public Iterator<Entry<String, String>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private class EntryIterator implements Iterator<Entry<String, String>> {
+
+    private int index;
+    private final Iterator<Entry<String, String>> baseIterator = base.entrySet().iterator();
+    private Entry<String, String> next;
+
+    @Override
+    public boolean hasNext() {
+      if (next != null) {
+        return true;
+      }
+      if (index < count) {
+        int i = index++ << 1;
+        next = new SimpleImmutableEntry<>(entries[i], entries[i + 1]);
+        return true;
+      }
+      while (baseIterator.hasNext()) {
+        Entry<String, String> entry = baseIterator.next();
+        if (indexOf(entries, count, entry.getKey()) < 0) {
+          next = entry;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Entry<String, String> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Entry<String, String> entry = Objects.requireNonNull(next);
+      next = null;
+      return entry;
+    }
+  }
+}
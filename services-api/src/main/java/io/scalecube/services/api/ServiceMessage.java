@@ -4,7 +4,6 @@
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.StringJoiner;
 
 public final class ServiceMessage {
@@ -41,17 +40,39 @@ public final class ServiceMessage {
 
   private ServiceMessage(Builder builder) {
     this.data = builder.data;
-    this.headers = Collections.unmodifiableMap(new HashMap<>(builder.headers));
+    this.headers = builder.buildHeaders();
+  }
+
+  private ServiceMessage(Map<String, String> headers, Object data) {
+    this.data = data;
+    this.headers = headers;
   }
 
   /**
-   * Instantiates new message with the same data and headers as at given message.
+   * Instantiates new message over given headers without copying them. Intended for transports
+   * which decode inbound headers into their own (possibly lazy) map, so that only headers which
+   * are actually read get materialized.
+   *
+   * @param headers decoded headers; not null, must not be modified afterwards
+   * @param data data; optional
+   * @return a new message which is a view over given headers
+   */
+  public static ServiceMessage wrap(Map<String, String> headers, Object data) {
+    Objects.requireNonNull(headers, "headers");
+    return new ServiceMessage(Collections.unmodifiableMap(headers), data);
+  }
+
+  /**
+   * Instantiates new message with the same data and headers as at given message. Headers are not
+   * copied, new message shares them with given one and keeps only headers set on the builder.
    *
    * @param message the message to be copied
    * @return a new message, with the same data and headers
    */
   public static Builder from(ServiceMessage message) {
-    return ServiceMessage.builder().data(message.data()).headers(message.headers());
+    Builder builder = ServiceMessage.builder().data(message.data());
+    builder.inherit(message.headers);
+    return builder;
   }
 
   /**
@@ -126,7 +147,8 @@ public String dataFormat() {
    * @return data format of the data or default one
    */
   public String dataFormatOrDefault() {
-    return Optional.ofNullable(dataFormat()).orElse(DEFAULT_DATA_FORMAT);
+    String dataFormat = dataFormat();
+    return dataFormat != null ? dataFormat : DEFAULT_DATA_FORMAT;
   }
 
   /**
@@ -197,11 +219,113 @@ public String toString() {
 
   public static class Builder {
 
-    private final Map<String, String> headers = new HashMap<>(2);
+    // headers are copy-on-write: base and entries may be shared with the message these were
+    // inherited from, or with the message previously built by this builder
+    private Map<String, String> base = Collections.emptyMap();
+    private String[] entries = ArrayHeaders.NO_ENTRIES;
+    private int count;
+    private boolean shared;
+    private ArrayHeaders inherited;
     private Object data;
 
     private Builder() {}
 
+    private void inherit(Map<String, String> headers) {
+      if (headers instanceof ArrayHeaders) {
+        ArrayHeaders arrayHeaders = (ArrayHeaders) headers;
+        base = arrayHeaders.base();
+        entries = arrayHeaders.entries();
+        count = arrayHeaders.count();
+        shared = true;
+        inherited = arrayHeaders;
+      } else if (!headers.isEmpty()) {
+        base = headers;
+      }
+    }
+
+    private String get(String key) {
+      int index = ArrayHeaders.indexOf(entries, count, key);
+      return index >= 0 ? entries[index + 1] : base.get(key);
+    }
+
+    private void put(String key, String value) {
+      int index = ArrayHeaders.indexOf(entries, count, key);
+      if (index >= 0 && Objects.equals(entries[index + 1], value)) {
+        return;
+      }
+      if (index < 0
+          && !base.isEmpty()
+          && base.containsKey(key)
+          && Objects.equals(base.get(key), value)) {
+        return;
+      }
+      boolean grow = index < 0 && count << 1 == entries.length;
+      if (shared || grow) {
+        String[] copy = new String[grow ? Math.max(8, entries.length << 1) : entries.length];
+        System.arraycopy(entries, 0, copy, 0, count << 1);
+        entries = copy;
+        shared = false;
+      }
+      if (index >= 0) {
+        entries[index + 1] = value;
+      } else {
+        entries[count << 1] = key;
+        entries[(count << 1) + 1] = value;
+        count++;
+      }
+      inherited = null;
+    }
+
+    private void remove(String key) {
+      if (!base.isEmpty() && base.containsKey(key)) {
+        // base can't hide its entries, so they are moved to own entries, without the removed one
+        Map<String, String> base = this.base;
+        String[] copy = new String[(count + base.size()) << 1];
+        System.arraycopy(entries, 0, copy, 0, count << 1);
+        int n = count;
+        for (Map.Entry<String, String> entry : base.entrySet()) {
+          if (ArrayHeaders.indexOf(copy, n, entry.getKey()) < 0) {
+            copy[n << 1] = entry.getKey();
+            copy[(n << 1) + 1] = entry.getValue();
+            n++;
+          }
+        }
+        this.base = Collections.emptyMap();
+        entries = copy;
+        count = n;
+        shared = false;
+        inherited = null;
+      }
+      int index = ArrayHeaders.indexOf(entries, count, key);
+      if (index < 0) {
+        return;
+      }
+      int length = count << 1;
+      String[] target = shared ? new String[entries.length] : entries;
+      if (target != entries) {
+        System.arraycopy(entries, 0, target, 0, index);
+      }
+      System.arraycopy(entries, index + 2, target, index, length - index - 2);
+      target[length - 2] = null;
+      target[length - 1] = null;
+      entries = target;
+      shared = false;
+      count--;
+      inherited = null;
+    }
+
+    private Map<String, String> buildHeaders() {
+      if (inherited != null) {
+        return inherited;
+      }
+      if (count == 0 && base.isEmpty()) {
+        return ArrayHeaders.EMPTY;
+      }
+      shared = true;
+      inherited = new ArrayHeaders(base, entries, count);
+      return inherited;
+    }
+
     /**
      * Setter for {@code data}.
      *
@@ -223,7 +347,7 @@ public Builder data(Object data) {
     @Deprecated
     public Builder dataType(Class<?> dataType) {
       Objects.requireNonNull(dataType, "dataType");
-      headers.put(HEADER_DATA_TYPE, dataType.getName());
+      put(HEADER_DATA_TYPE, dataType.getName());
       return this;
     }
 
@@ -234,7 +358,7 @@ public Builder dataType(Class<?> dataType) {
      * @return this builder
      */
     public Builder dataFormat(String dataFormat) {
-      headers.put(HEADER_DATA_FORMAT, dataFormat);
+      put(HEADER_DATA_FORMAT, dataFormat);
       return this;
     }
 
@@ -249,19 +373,12 @@ public Builder dataFormatIfAbsent(String dataFormat) {
       if (dataFormat == null) {
         return this;
       }
-      headers.putIfAbsent(HEADER_DATA_FORMAT, dataFormat);
+      if (get(HEADER_DATA_FORMAT) == null) {
+        put(HEADER_DATA_FORMAT, dataFormat);
+      }
       return this;
     }
 
-    /**
-     * Returns {@code headers}.
-     *
-     * @return headers
-     */
-    private Map<String, String> headers() {
-      return headers;
-    }
-
     /**
      * Setter for {@code headers}.
      *
@@ -283,7 +400,7 @@ public Builder headers(Map<String, String> headers) {
     public Builder header(String key, String value) {
       Objects.requireNonNull(key, "header name");
       Objects.requireNonNull(value, "header value");
-      headers.put(key, value);
+      put(key, value);
       return this;
     }
 
@@ -297,7 +414,20 @@ public Builder header(String key, String value) {
     public Builder header(String key, Object value) {
       Objects.requireNonNull(key, "header name");
       Objects.requireNonNull(value, "header value");
-      headers.put(key, value.toString());
+      put(key, value.toString());
+      return this;
+    }
+
+    /**
+     * Removes header by given name. Removing a header of wrapped headers (see {@link
+     * ServiceMessage#wrap(Map, Object)}) copies them, other headers stay shared until the builder
+     * modifies them.
+     *
+     * @param key header name; not null
+     * @return this builder
+     */
+    public Builder removeHeader(String key) {
+      remove(Objects.requireNonNull(key, "header name"));
       return this;
     }
 
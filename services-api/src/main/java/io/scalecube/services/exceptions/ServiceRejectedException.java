@@ -0,0 +1,20 @@
+package io.scalecube.services.exceptions;
+
+/**
+ * Request was rejected before reaching service, e.g. because service endpoint is saturated. Such
+ * request wasn't processed, so it's safe to route it to another service endpoint.
+ */
+public class ServiceRejectedException extends ServiceUnavailableException {
+
+  public ServiceRejectedException(String message) {
+    super(message);
+  }
+
+  public ServiceRejectedException(int errorCode, String message) {
+    super(errorCode, message);
+  }
+
+  public ServiceRejectedException(Throwable cause) {
+    super(cause);
+  }
+}
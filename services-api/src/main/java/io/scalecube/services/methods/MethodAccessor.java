@@ -0,0 +1,19 @@
+package io.scalecube.services.methods;
+
+/**
+ * Strongly-typed call site of a service method, bound to the service instance. Created once per
+ * service method (see {@link MethodAccessors#create(java.lang.reflect.Method, Object)}) and used
+ * instead of {@link java.lang.reflect.Method#invoke(Object, Object...)} on every request.
+ */
+@FunctionalInterface
+public interface MethodAccessor {
+
+  /**
+   * Invokes service method.
+   *
+   * @param request request object, ignored for service methods without parameters
+   * @return result of service method invocation
+   * @throws Throwable exception thrown by service method, as is
+   */
+  Object invoke(Object request) throws Throwable;
+}
@@ -0,0 +1,133 @@
+package io.scalecube.services.methods;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+
+public final class MethodAccessors {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodAccessors.class);
+
+  private static final Lookup LOOKUP = MethodHandles.lookup();
+
+  private static final MethodType ACCESSOR_SAM_TYPE =
+      MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SUPPLIER_SAM_TYPE = MethodType.methodType(Object.class);
+
+  private MethodAccessors() {
+    // Do not instantiate
+  }
+
+  /**
+   * Creates {@link MethodAccessor} for given service method bound to given service instance.
+   *
+   * <p>Service methods with reference parameter type and non-void return type are compiled with
+   * {@link LambdaMetafactory} into a dedicated class, so invocation is a plain interface call the
+   * JIT can inline. All other methods (or methods which declaring class is not accessible) are
+   * invoked through bound {@link MethodHandle}. Either way no arguments array is allocated.
+   *
+   * @param method service method (with at maximum single parameter)
+   * @param service service instance
+   * @return method accessor
+   */
+  public static MethodAccessor create(Method method, Object service) {
+    Objects.requireNonNull(method, "method");
+    Objects.requireNonNull(service, "service");
+
+    if (method.getParameterCount() > 1) {
+      throw new IllegalArgumentException(
+          "Service method can accept at maximum single parameter: " + method);
+    }
+
+    MethodHandle methodHandle = unreflect(method);
+
+    if (isLambdaCompatible(method)) {
+      try {
+        return compile(method, methodHandle, service);
+      } catch (Throwable ex) {
+        LOGGER.debug(
+            "Failed to compile method accessor for {}, using method handle, cause: {}",
+            method,
+            ex.toString());
+      }
+    }
+
+    return bind(method, methodHandle, service);
+  }
+
+  private static boolean isLambdaCompatible(Method method) {
+    if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())
+        || method.getReturnType().isPrimitive()) {
+      return false;
+    }
+    for (Class<?> parameterType : method.getParameterTypes()) {
+      if (parameterType.isPrimitive()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static MethodAccessor compile(Method method, MethodHandle methodHandle, Object service)
+      throws Throwable {
+    Class<?> declaringClass = method.getDeclaringClass();
+
+    if (method.getParameterCount() == 0) {
+      CallSite callSite =
+          LambdaMetafactory.metafactory(
+              LOOKUP,
+              "get",
+              MethodType.methodType(Supplier.class, declaringClass),
+              SUPPLIER_SAM_TYPE,
+              methodHandle,
+              MethodType.methodType(method.getReturnType()));
+      //noinspection unchecked
+      Supplier<Object> supplier = (Supplier<Object>) callSite.getTarget().invoke(service);
+      return request -> supplier.get();
+    }
+
+    CallSite callSite =
+        LambdaMetafactory.metafactory(
+            LOOKUP,
+            "invoke",
+            MethodType.methodType(MethodAccessor.class, declaringClass),
+            ACCESSOR_SAM_TYPE,
+            methodHandle,
+            MethodType.methodType(method.getReturnType(), method.getParameterTypes()[0]));
+    return (MethodAccessor) callSite.getTarget().invoke(service);
+  }
+
+  private static MethodAccessor bind(Method method, MethodHandle methodHandle, Object service) {
+    MethodHandle boundHandle = methodHandle.bindTo(service);
+    if (method.getParameterCount() == 0) {
+      boundHandle = MethodHandles.dropArguments(boundHandle, 0, Object.class);
+    }
+    // void return type is adapted to null, primitives are boxed/unboxed
+    MethodHandle invoker = boundHandle.asType(ACCESSOR_SAM_TYPE);
+    return request -> (Object) invoker.invokeExact(request);
+  }
+
+  private static MethodHandle unreflect(Method method) {
+    try {
+      return LOOKUP.unreflect(method);
+    } catch (IllegalAccessException ex) {
+      method.setAccessible(true);
+      try {
+        return LOOKUP.unreflect(method);
+      } catch (IllegalAccessException e) {
+        LOGGER.error("Failed to access service method: {}, cause: {}", method, e.toString());
+        throw Exceptions.propagate(e);
+      }
+    }
+  }
+}
@@ -11,7 +11,6 @@
 import io.scalecube.services.exceptions.ServiceProviderErrorMapper;
 import io.scalecube.services.exceptions.UnauthorizedException;
 import io.scalecube.services.transport.api.ServiceMessageDataDecoder;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Objects;
 import java.util.Optional;
@@ -28,6 +27,7 @@ public final class ServiceMethodInvoker {
   private static final Logger LOGGER = LoggerFactory.getLogger(ServiceMethodInvoker.class);
 
   private final Method method;
+  private final MethodAccessor methodAccessor;
   private final Object service;
   private final MethodInfo methodInfo;
   private final ServiceProviderErrorMapper errorMapper;
@@ -56,6 +56,7 @@ public ServiceMethodInvoker(
       PrincipalMapper<Object, Object> principalMapper) {
     this.method = Objects.requireNonNull(method, "method");
     this.service = Objects.requireNonNull(service, "service");
+    this.methodAccessor = MethodAccessors.create(method, service);
     this.methodInfo = Objects.requireNonNull(methodInfo, "methodInfo");
     this.errorMapper = Objects.requireNonNull(errorMapper, "errorMapper");
     this.dataDecoder = Objects.requireNonNull(dataDecoder, "dataDecoder");
@@ -130,31 +131,16 @@ private Publisher<?> invoke(Object request) {
     Publisher<?> result = null;
     Throwable throwable = null;
     try {
-      if (methodInfo.parameterCount() == 0) {
-        result = (Publisher<?>) method.invoke(service);
-      } else {
-        Object[] arguments = prepareArguments(request);
-        result = (Publisher<?>) method.invoke(service, arguments);
-      }
+      result = (Publisher<?>) methodAccessor.invoke(request);
       if (result == null) {
         result = Mono.empty();
       }
-    } catch (InvocationTargetException ex) {
-      throwable = Optional.ofNullable(ex.getCause()).orElse(ex);
     } catch (Throwable ex) {
       throwable = ex;
     }
     return throwable != null ? Mono.error(throwable) : result;
   }
 
-  private Object[] prepareArguments(Object request) {
-    Object[] arguments = new Object[methodInfo.parameterCount()];
-    if (methodInfo.requestType() != Void.TYPE) {
-      arguments[0] = request;
-    }
-    return arguments;
-  }
-
   private Mono<Object> authenticate(ServiceMessage message, Context context) {
     if (!methodInfo.isSecured()) {
       return Mono.just(NULL_AUTH_CONTEXT);
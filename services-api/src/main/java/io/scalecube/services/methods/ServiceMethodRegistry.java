@@ -1,7 +1,9 @@
 package io.scalecube.services.methods;
 
 import io.scalecube.services.ServiceInfo;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public interface ServiceMethodRegistry {
 
@@ -9,6 +11,28 @@ public interface ServiceMethodRegistry {
 
   ServiceMethodInvoker getInvoker(String qualifier);
 
+  /**
+   * Returns method invoker by method id (see {@link #methodIds()}).
+   *
+   * @param methodId method id
+   * @return method invoker or null if there's no such method
+   */
+  default ServiceMethodInvoker getInvoker(int methodId) {
+    return null;
+  }
+
+  /**
+   * Returns table of method ids by qualifiers of registered service methods. Method ids are
+   * assigned sequentially at registration time starting from {@code 0} and never reused, hence
+   * previously obtained table stays valid. Registry which doesn't assign method ids returns empty
+   * table, and its methods are then invoked by qualifier.
+   *
+   * @return method ids by qualifiers
+   */
+  default Map<String, Integer> methodIds() {
+    return Collections.emptyMap();
+  }
+
   List<ServiceMethodInvoker> listInvokers();
 
   List<ServiceInfo> listServices();
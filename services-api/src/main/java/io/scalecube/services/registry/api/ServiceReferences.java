@@ -0,0 +1,70 @@
+package io.scalecube.services.registry.api;
+
+import io.scalecube.services.ServiceReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of service references which serve given qualifier and content type. Service
+ * registry replaces snapshot with a new one, of greater version, whenever its service references
+ * change, so that routers may cache anything derived from snapshot as long as its version is the
+ * same.
+ */
+public final class ServiceReferences {
+
+  public static final ServiceReferences EMPTY = new ServiceReferences(0, Collections.emptyList());
+
+  private final long version;
+  private final ServiceReference[] serviceReferences;
+  private final List<ServiceReference> list;
+
+  /**
+   * Constructor.
+   *
+   * @param version version of snapshot
+   * @param serviceReferences service references
+   */
+  public ServiceReferences(long version, Collection<ServiceReference> serviceReferences) {
+    this.version = version;
+    this.serviceReferences = serviceReferences.toArray(new ServiceReference[0]);
+    this.list = Collections.unmodifiableList(Arrays.asList(this.serviceReferences));
+  }
+
+  public long version() {
+    return version;
+  }
+
+  public int size() {
+    return serviceReferences.length;
+  }
+
+  public boolean isEmpty() {
+    return serviceReferences.length == 0;
+  }
+
+  /**
+   * Returns service reference at given index.
+   *
+   * @param index index
+   * @return service reference
+   */
+  public ServiceReference get(int index) {
+    return serviceReferences[index];
+  }
+
+  /**
+   * Returns unmodifiable list view of this snapshot.
+   *
+   * @return service references
+   */
+  public List<ServiceReference> asList() {
+    return list;
+  }
+
+  @Override
+  public String toString() {
+    return "ServiceReferences{version=" + version + ", size=" + serviceReferences.length + '}';
+  }
+}
@@ -17,6 +17,18 @@ public interface ServiceRegistry {
 
   List<ServiceReference> lookupService(ServiceMessage request);
 
+  /**
+   * Returns snapshot of service references which serve given request. Snapshot keeps the same
+   * version (and may be the same instance) until registry changes, default implementation makes a
+   * new one of version {@code 0} on every call.
+   *
+   * @param request service request
+   * @return service references snapshot
+   */
+  default ServiceReferences lookupServiceReferences(ServiceMessage request) {
+    return new ServiceReferences(0, lookupService(request));
+  }
+
   boolean registerService(ServiceEndpoint serviceEndpoint);
 
   ServiceEndpoint unregisterService(String endpointId);
@@ -0,0 +1,31 @@
+package io.scalecube.services.routing;
+
+import io.scalecube.services.ServiceReference;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Router which routes by load of service endpoints. Service call reports to it start and finish of
+ * every remote request-response call it routed, so that router can keep track of in-flight
+ * requests and latency of every service endpoint.
+ */
+public interface LoadAwareRouter extends Router {
+
+  /**
+   * Called when request is sent to service reference.
+   *
+   * @param serviceReference service reference request was routed to
+   */
+  void onRequestStart(ServiceReference serviceReference);
+
+  /**
+   * Called when request, previously reported to {@link #onRequestStart(ServiceReference)},
+   * finishes.
+   *
+   * @param serviceReference service reference request was routed to
+   * @param latencyNanos time since request was sent, in nanoseconds
+   * @param signal how request finished: {@link SignalType#ON_COMPLETE} if response was received
+   *     (error response included), {@link SignalType#ON_ERROR} if request failed, or {@link
+   *     SignalType#CANCEL} if caller cancelled it
+   */
+  void onRequestFinish(ServiceReference serviceReference, long latencyNanos, SignalType signal);
+}
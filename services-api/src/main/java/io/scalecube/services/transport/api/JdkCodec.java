@@ -2,6 +2,7 @@
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -72,29 +73,42 @@ public Map<String, String> decode(InputStream stream) throws IOException {
     Map<String, String> headers = new HashMap<>(size);
     for (int i = 0; i < size; i++) {
       int nameLength = readInt(stream);
-      byte[] nameBytes = new byte[nameLength];
-      stream.read(nameBytes);
-      String name = new String(nameBytes, UTF_8);
+      String name = new String(readFully(stream, nameLength), UTF_8);
       int valueLength = readInt(stream);
-      byte[] valueBytes = new byte[valueLength];
-      stream.read(valueBytes);
-      String value = new String(valueBytes, UTF_8);
+      String value = new String(readFully(stream, valueLength), UTF_8);
       headers.put(name, value);
     }
     return headers;
   }
 
   private void writeInt(OutputStream stream, int number) throws IOException {
-    for (int i = Integer.BYTES - 1; i >= 0; i--) {
-      stream.write(number >>> i * Byte.SIZE);
-    }
+    stream.write(
+        new byte[] {
+          (byte) (number >>> 24), (byte) (number >>> 16), (byte) (number >>> 8), (byte) number
+        });
+  }
+
+  private int readInt(InputStream stream) throws IOException {
+    byte[] bytes = readFully(stream, Integer.BYTES);
+    return (bytes[0] & 0xFF) << 24
+        | (bytes[1] & 0xFF) << 16
+        | (bytes[2] & 0xFF) << 8
+        | (bytes[3] & 0xFF);
   }
 
-  private Integer readInt(InputStream stream) throws IOException {
-    int r = 0;
-    for (int i = Integer.BYTES - 1; i >= 0; i--) {
-      r = r | ((stream.read() & 0xFF) << i * Byte.SIZE);
+  private byte[] readFully(InputStream stream, int length) throws IOException {
+    if (length < 0) {
+      throw new IOException("Negative length: " + length);
+    }
+    byte[] bytes = new byte[length];
+    int offset = 0;
+    while (offset < length) {
+      int n = stream.read(bytes, offset, length - offset);
+      if (n < 0) {
+        throw new EOFException("Expected " + length + " bytes, got " + offset);
+      }
+      offset += n;
     }
-    return r;
+    return bytes;
   }
 }
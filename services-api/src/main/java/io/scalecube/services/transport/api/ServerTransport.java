@@ -1,6 +1,8 @@
 package io.scalecube.services.transport.api;
 
 import io.scalecube.net.Address;
+import java.util.Collections;
+import java.util.Map;
 import reactor.core.publisher.Mono;
 
 public interface ServerTransport {
@@ -12,6 +14,16 @@ public interface ServerTransport {
    */
   Address address();
 
+  /**
+   * Returns tags which are advertised in service endpoint along with {@link #address()}, e.g.
+   * alternative ways to reach this server transport.
+   *
+   * @return tags
+   */
+  default Map<String, String> tags() {
+    return Collections.emptyMap();
+  }
+
   /**
    * Starts a server transport.
    *
@@ -0,0 +1,126 @@
+package io.scalecube.services.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ServiceMessageTest {
+
+  @Test
+  void testBuilderHeaders() {
+    ServiceMessage message =
+        ServiceMessage.builder()
+            .qualifier("greeting/hello")
+            .dataFormat("application/json")
+            .header("userId", 42)
+            .header("userId", "43")
+            .build();
+
+    Map<String, String> expected = new HashMap<>();
+    expected.put(ServiceMessage.HEADER_QUALIFIER, "greeting/hello");
+    expected.put(ServiceMessage.HEADER_DATA_FORMAT, "application/json");
+    expected.put("userId", "43");
+
+    assertEquals(expected, message.headers());
+    assertEquals(expected.hashCode(), message.headers().hashCode());
+    assertEquals("43", message.header("userId"));
+    assertNull(message.header("unknown"));
+    assertThrows(UnsupportedOperationException.class, () -> message.headers().put("a", "b"));
+  }
+
+  @Test
+  void testFromSharesHeadersWhenNotModified() {
+    ServiceMessage message = ServiceMessage.builder().qualifier("greeting/hello").build();
+    ServiceMessage copy = ServiceMessage.from(message).data("data").build();
+
+    assertSame(message.headers(), copy.headers());
+    assertEquals("data", copy.data());
+  }
+
+  @Test
+  void testFromDoesNotAffectOrigin() {
+    ServiceMessage message =
+        ServiceMessage.builder().qualifier("greeting/hello").header("userId", "42").build();
+    ServiceMessage copy =
+        ServiceMessage.from(message).qualifier("greeting/bye").header("role", "admin").build();
+
+    assertEquals("greeting/hello", message.qualifier());
+    assertEquals(2, message.headers().size());
+    assertEquals("greeting/bye", copy.qualifier());
+    assertEquals("42", copy.header("userId"));
+    assertEquals("admin", copy.header("role"));
+    assertEquals(3, copy.headers().size());
+  }
+
+  @Test
+  void testOverlayOverWrappedHeaders() {
+    Map<String, String> headers = new HashMap<>();
+    headers.put(ServiceMessage.HEADER_QUALIFIER, "greeting/hello");
+    headers.put("userId", "42");
+    ServiceMessage message = ServiceMessage.wrap(headers, null);
+
+    ServiceMessage copy =
+        ServiceMessage.from(message)
+            .qualifier("greeting/bye")
+            .dataFormatIfAbsent("application/json")
+            .build();
+
+    Map<String, String> expected = new HashMap<>(headers);
+    expected.put(ServiceMessage.HEADER_QUALIFIER, "greeting/bye");
+    expected.put(ServiceMessage.HEADER_DATA_FORMAT, "application/json");
+
+    assertEquals(expected, copy.headers());
+    assertEquals(3, copy.headers().size());
+    assertTrue(copy.headers().entrySet().containsAll(expected.entrySet()));
+    assertEquals("greeting/hello", message.qualifier());
+  }
+
+  @Test
+  void testBuilderReuse() {
+    ServiceMessage.Builder builder = ServiceMessage.builder().qualifier("greeting/hello");
+    ServiceMessage first = builder.build();
+    ServiceMessage second = builder.header("userId", "42").build();
+
+    assertEquals(1, first.headers().size());
+    assertNull(first.header("userId"));
+    assertEquals(2, second.headers().size());
+  }
+
+  @Test
+  void testRemoveHeader() {
+    ServiceMessage message =
+        ServiceMessage.builder().qualifier("greeting/hello").header("userId", "42").build();
+    ServiceMessage copy =
+        ServiceMessage.from(message).removeHeader(ServiceMessage.HEADER_QUALIFIER).build();
+
+    assertNull(copy.qualifier());
+    assertEquals("42", copy.header("userId"));
+    assertEquals(1, copy.headers().size());
+    assertEquals("greeting/hello", message.qualifier());
+    assertEquals(2, message.headers().size());
+  }
+
+  @Test
+  void testRemoveHeaderOfWrappedHeaders() {
+    Map<String, String> headers = new HashMap<>();
+    headers.put(ServiceMessage.HEADER_QUALIFIER, "greeting/hello");
+    headers.put("userId", "42");
+    ServiceMessage message = ServiceMessage.wrap(headers, null);
+
+    ServiceMessage copy =
+        ServiceMessage.from(message)
+            .header("userId", "43")
+            .removeHeader(ServiceMessage.HEADER_QUALIFIER)
+            .build();
+
+    assertEquals(Collections.singletonMap("userId", "43"), copy.headers());
+    assertEquals(2, message.headers().size());
+  }
+}
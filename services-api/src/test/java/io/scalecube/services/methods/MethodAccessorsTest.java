@@ -0,0 +1,100 @@
+package io.scalecube.services.methods;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Method;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class MethodAccessorsTest {
+
+  private final StubService stubService = new StubServiceImpl();
+
+  @Test
+  @DisplayName("Accessor of method without parameters ignores request")
+  void testNoParameters() throws Throwable {
+    Method method = StubService.class.getMethod("returnNull");
+    MethodAccessor accessor = MethodAccessors.create(method, stubService);
+
+    assertNull(accessor.invoke("ignored"));
+  }
+
+  @Test
+  @DisplayName("Accessor of method with parameter passes request as is")
+  void testSingleParameter() throws Throwable {
+    Method method = EchoService.class.getMethod("echo", Flux.class);
+    Flux<String> request = Flux.just("hello");
+
+    MethodAccessor accessor = MethodAccessors.create(method, new EchoServiceImpl());
+
+    assertSame(request, accessor.invoke(request));
+  }
+
+  @Test
+  @DisplayName("Accessor rethrows exception of service method without wrapping")
+  void testExceptionIsNotWrapped() throws Throwable {
+    Method method = StubService.class.getMethod("throwException");
+    MethodAccessor accessor = MethodAccessors.create(method, stubService);
+
+    assertThrows(RuntimeException.class, () -> accessor.invoke(null));
+  }
+
+  @Test
+  @DisplayName("Accessor of void and primitive methods of non-public class")
+  void testNonPublicClass() throws Throwable {
+    HiddenService service = new HiddenService();
+
+    MethodAccessor fireAndForget =
+        MethodAccessors.create(HiddenService.class.getDeclaredMethod("fire", int.class), service);
+    assertNull(fireAndForget.invoke(42));
+    assertEquals(42, service.last);
+
+    MethodAccessor requestResponse =
+        MethodAccessors.create(HiddenService.class.getDeclaredMethod("mono"), service);
+    assertEquals("42", ((Mono<?>) requestResponse.invoke(null)).block());
+  }
+
+  @Test
+  @DisplayName("Accessor can't be created for method with several parameters")
+  void testSeveralParameters() throws Exception {
+    Method method = HiddenService.class.getDeclaredMethod("twoParams", String.class, String.class);
+
+    assertThrows(
+        IllegalArgumentException.class, () -> MethodAccessors.create(method, new HiddenService()));
+  }
+
+  public interface EchoService {
+
+    Flux<String> echo(Flux<String> request);
+  }
+
+  public static class EchoServiceImpl implements EchoService {
+
+    @Override
+    public Flux<String> echo(Flux<String> request) {
+      return request;
+    }
+  }
+
+  private static class HiddenService {
+
+    private int last;
+
+    void fire(int value) {
+      last = value;
+    }
+
+    Mono<String> mono() {
+      return Mono.just(String.valueOf(last));
+    }
+
+    Mono<String> twoParams(String s1, String s2) {
+      return Mono.just(s1 + s2);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package io.scalecube.services.transport.api;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.exceptions.MessageCodecException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable headers map decoded by {@link BinaryHeadersCodec}. Only entry offsets are resolved
+ * upfront, strings are materialized on first access, so headers nobody reads cost no allocation.
+ */
+final class BinaryHeaders extends AbstractMap<String, String> {
+
+  // per entry: token (or -(nameOffset + 1) for literal name), name length, value offset, value
+  // length
+  private static final int STRIDE = 4;
+
+  private final byte[] bytes;
+  private final int[] offsets;
+  private final String[] names;
+  private final String[] values;
+
+  private BinaryHeaders(byte[] bytes, int[] offsets) {
+    this.bytes = bytes;
+    this.offsets = offsets;
+    int size = offsets.length / STRIDE;
+    this.names = new String[size];
+    this.values = new String[size];
+  }
+
+  static BinaryHeaders parse(byte[] bytes) {
+    ByteBuf buffer = Unpooled.wrappedBuffer(bytes);
+    try {
+      int size = VarIntUtil.readVarInt(buffer);
+      if (size < 0 || size > buffer.readableBytes()) {
+        throw new MessageCodecException("Malformed headers count: " + size, null);
+      }
+      int[] offsets = new int[size * STRIDE];
+      for (int i = 0, o = 0; i < size; i++, o += STRIDE) {
+        int token = buffer.readUnsignedByte();
+        if (token == BinaryHeadersCodec.LITERAL_NAME) {
+          int length = readLength(buffer);
+          offsets[o] = -(buffer.readerIndex() + 1);
+          offsets[o + 1] = length;
+          buffer.skipBytes(length);
+        } else if (token < BinaryHeadersCodec.DICTIONARY.length) {
+          offsets[o] = token;
+        } else {
+          throw new MessageCodecException("Unknown header token: " + token, null);
+        }
+        int length = readLength(buffer);
+        offsets[o + 2] = buffer.readerIndex();
+        offsets[o + 3] = length;
+        buffer.skipBytes(length);
+      }
+      return new BinaryHeaders(bytes, offsets);
+    } catch (MessageCodecException ex) {
+      throw ex;
+    } catch (Exception ex) {
+      throw new MessageCodecException("Failed to decode headers", ex);
+    }
+  }
+
+  private static int readLength(ByteBuf buffer) {
+    int length = VarIntUtil.readVarInt(buffer);
+    if (length < 0 || length > buffer.readableBytes()) {
+      throw new MessageCodecException("Malformed header length: " + length, null);
+    }
+    return length;
+  }
+
+  @Override
+  public int size() {
+    return names.length;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public String get(Object key) {
+    int index = indexOf(key);
+    return index >= 0 ? value(index) : null;
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    return new AbstractSet<Entry<String, String>>() {
+      @Override
+      public Iterator<Entry<String, String>> iterator() {
+        return new Iterator<Entry<String, String>>() {
+          private int index;
+
+          @Override
+          public boolean hasNext() {
+            return index < names.length;
+          }
+
+          @Override
+          public Entry<String, String> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            int i = index++;
+            return new SimpleImmutableEntry<>(name(i), value(i));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return names.length;
+      }
+    };
+  }
+
+  private int indexOf(Object key) {
+    if (!(key instanceof String)) {
+      return -1;
+    }
+    for (int i = 0; i < names.length; i++) {
+      if (key.equals(name(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private String name(int index) {
+    String name = names[index];
+    if (name == null) {
+      int o = index * STRIDE;
+      int token = offsets[o];
+      name =
+          token >= 0
+              ? BinaryHeadersCodec.DICTIONARY[token]
+              : new String(bytes, -token - 1, offsets[o + 1], UTF_8);
+      names[index] = name;
+    }
+    return name;
+  }
+
+  private String value(int index) {
+    String value = values[index];
+    if (value == null) {
+      int o = index * STRIDE;
+      value = new String(bytes, offsets[o + 2], offsets[o + 3], UTF_8);
+      values[index] = value;
+    }
+    return value;
+  }
+}
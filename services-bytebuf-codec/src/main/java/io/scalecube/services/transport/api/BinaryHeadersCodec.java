@@ -0,0 +1,120 @@
+package io.scalecube.services.transport.api;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.exceptions.MessageCodecException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Compact binary headers codec. Layout:
+ *
+ * <pre>
+ * headers := count:varint (name value){count}
+ * name    := token:byte                  ; well-known header, see {@link #DICTIONARY}
+ *          | 0x00 length:varint utf8     ; any other header
+ * value   := length:varint utf8
+ * </pre>
+ *
+ * <p>Dictionary is append-only, tokens of existing entries must never change. Decoded headers
+ * keep raw bytes and materialize strings on first access.
+ */
+public final class BinaryHeadersCodec implements ByteBufHeadersCodec {
+
+  public static final String CONTENT_TYPE = "application/x-scalecube-headers";
+
+  /** Well-known header names, index in this array is the token of the header. */
+  static final String[] DICTIONARY = {
+    null, // 0 stands for literal header name
+    ServiceMessage.HEADER_QUALIFIER,
+    ServiceMessage.HEADER_DATA_FORMAT,
+    ServiceMessage.HEADER_DATA_TYPE,
+    ServiceMessage.HEADER_ERROR_TYPE
+  };
+
+  static final int LITERAL_NAME = 0;
+
+  @Override
+  public String contentType() {
+    return CONTENT_TYPE;
+  }
+
+  @Override
+  public void encode(ByteBuf buffer, Map<String, String> headers) {
+    VarIntUtil.writeVarInt(buffer, headers.size());
+    for (Entry<String, String> header : headers.entrySet()) {
+      String name = header.getKey();
+      int token = token(name);
+      buffer.writeByte(token);
+      if (token == LITERAL_NAME) {
+        writeString(buffer, name);
+      }
+      writeString(buffer, header.getValue());
+    }
+  }
+
+  @Override
+  public Map<String, String> decode(ByteBuf buffer) {
+    if (!buffer.isReadable()) {
+      return Collections.emptyMap();
+    }
+    return BinaryHeaders.parse(ByteBufUtil.getBytes(buffer));
+  }
+
+  @Override
+  public void encode(OutputStream stream, Map<String, String> headers) throws IOException {
+    if (headers.isEmpty()) {
+      return;
+    }
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      encode(buffer, headers);
+      buffer.readBytes(stream, buffer.readableBytes());
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Override
+  public Map<String, String> decode(InputStream stream) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(stream.available(), 32));
+    byte[] chunk = new byte[256];
+    int n;
+    while ((n = stream.read(chunk)) != -1) {
+      bytes.write(chunk, 0, n);
+    }
+    return bytes.size() == 0 ? Collections.emptyMap() : BinaryHeaders.parse(bytes.toByteArray());
+  }
+
+  private static int token(String name) {
+    switch (name) {
+      case ServiceMessage.HEADER_QUALIFIER:
+        return 1;
+      case ServiceMessage.HEADER_DATA_FORMAT:
+        return 2;
+      case ServiceMessage.HEADER_DATA_TYPE:
+        return 3;
+      case ServiceMessage.HEADER_ERROR_TYPE:
+        return 4;
+      default:
+        return LITERAL_NAME;
+    }
+  }
+
+  private static void writeString(ByteBuf buffer, String value) {
+    if (value == null) {
+      throw new MessageCodecException("Header value must not be null", null);
+    }
+    VarIntUtil.writeVarInt(buffer, ByteBufUtil.utf8Bytes(value));
+    buffer.writeCharSequence(value, UTF_8);
+  }
+}
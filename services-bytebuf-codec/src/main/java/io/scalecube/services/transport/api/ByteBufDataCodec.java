@@ -0,0 +1,43 @@
+package io.scalecube.services.transport.api;
+
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Extension of {@link DataCodec} which works with {@link ByteBuf} directly, {@link
+ * ServiceMessageCodec} prefers it over stream based methods of {@link DataCodec}. This way codec
+ * knows size of the payload and may access heap or direct memory of the buffer without stream
+ * adapters in between.
+ */
+public interface ByteBufDataCodec extends DataCodec {
+
+  /**
+   * Encodes value into given buffer.
+   *
+   * @param buffer target buffer
+   * @param value value
+   * @throws IOException when encoding fails
+   */
+  void encode(ByteBuf buffer, Object value) throws IOException;
+
+  /**
+   * Decodes value out of readable bytes of given buffer. Buffer is not released.
+   *
+   * @param buffer source buffer
+   * @param type type of the value
+   * @return value
+   * @throws IOException when decoding fails
+   */
+  Object decode(ByteBuf buffer, Type type) throws IOException;
+
+  /**
+   * Returns expected size of encoded value, used to allocate buffer of sufficient capacity upfront.
+   *
+   * @param value value
+   * @return expected size in bytes, or {@code 0} if unknown
+   */
+  default int encodedSizeHint(Object value) {
+    return 0;
+  }
+}
@@ -0,0 +1,28 @@
+package io.scalecube.services.transport.api;
+
+import io.netty.buffer.ByteBuf;
+import java.util.Map;
+
+/**
+ * Extension of {@link HeadersCodec} which works with {@link ByteBuf} directly, {@link
+ * ServiceMessageCodec} prefers it over stream based methods of {@link HeadersCodec}.
+ */
+public interface ByteBufHeadersCodec extends HeadersCodec {
+
+  /**
+   * Encodes headers into given buffer.
+   *
+   * @param buffer target buffer
+   * @param headers headers
+   */
+  void encode(ByteBuf buffer, Map<String, String> headers);
+
+  /**
+   * Decodes headers out of readable bytes of given buffer. Buffer is not released, returned
+   * headers don't refer to it.
+   *
+   * @param buffer source buffer
+   * @return headers
+   */
+  Map<String, String> decode(ByteBuf buffer);
+}
@@ -0,0 +1,120 @@
+package io.scalecube.services.transport.api;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Predicts capacity of encode buffers out of recently encoded sizes, in the spirit of netty's
+ * {@code AdaptiveRecvByteBufAllocator}. Predictions are kept per data format and qualifier, since
+ * payload sizes of one method are usually alike while sizes across methods vary a lot. Prediction
+ * jumps up right away when encoded size didn't fit, and goes down one step at a time only after two
+ * consecutive smaller sizes.
+ *
+ * <p>Predictions are heuristics, so they are updated without synchronization.
+ */
+public final class EncodeSizePredictor {
+
+  static final int INITIAL_SIZE = 256;
+
+  /** Max number of tracked qualifiers per data format, the rest share one prediction. */
+  static final int MAX_PREDICTIONS = 1024;
+
+  // sizes grow by half and by power of two in turns: 64, 96, 128, 192, 256, 384, ... 4M, 6M
+  private static final int[] SIZE_TABLE;
+
+  static {
+    int count = 0;
+    for (int size = 64; size <= 4 << 20; size <<= 1) {
+      count += 2;
+    }
+    SIZE_TABLE = new int[count];
+    int i = 0;
+    for (int size = 64; size <= 4 << 20; size <<= 1) {
+      SIZE_TABLE[i++] = size;
+      SIZE_TABLE[i++] = size + (size >> 1);
+    }
+  }
+
+  private final ConcurrentMap<String, ConcurrentMap<String, Prediction>> predictions =
+      new ConcurrentHashMap<>();
+  private final Prediction sharedPrediction = new Prediction();
+
+  /**
+   * Returns prediction for given data format and qualifier.
+   *
+   * @param dataFormat data format
+   * @param qualifier qualifier, optional
+   * @return prediction
+   */
+  public Prediction prediction(String dataFormat, String qualifier) {
+    if (qualifier == null) {
+      return sharedPrediction;
+    }
+    ConcurrentMap<String, Prediction> byQualifier = predictions.get(dataFormat);
+    if (byQualifier == null) {
+      byQualifier = predictions.computeIfAbsent(dataFormat, k -> new ConcurrentHashMap<>());
+    }
+    Prediction prediction = byQualifier.get(qualifier);
+    if (prediction == null) {
+      if (byQualifier.size() >= MAX_PREDICTIONS) {
+        return sharedPrediction;
+      }
+      prediction = byQualifier.computeIfAbsent(qualifier, k -> new Prediction());
+    }
+    return prediction;
+  }
+
+  static int indexOf(int size) {
+    int low = 0;
+    int high = SIZE_TABLE.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (SIZE_TABLE[mid] < size) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Predicted size of encode buffer, fed back with actually encoded sizes. */
+  public static final class Prediction {
+
+    private int index = indexOf(INITIAL_SIZE);
+    private boolean decreaseNow;
+
+    Prediction() {}
+
+    /**
+     * Returns predicted size.
+     *
+     * @return predicted size in bytes
+     */
+    public int size() {
+      return SIZE_TABLE[index];
+    }
+
+    /**
+     * Records actually encoded size.
+     *
+     * @param actualSize encoded size in bytes
+     */
+    public void record(int actualSize) {
+      int index = this.index;
+      if (actualSize > SIZE_TABLE[index]) {
+        this.index = indexOf(actualSize);
+        decreaseNow = false;
+      } else if (index > 0 && actualSize <= SIZE_TABLE[index - 1]) {
+        if (decreaseNow) {
+          this.index = index - 1;
+          decreaseNow = false;
+        } else {
+          decreaseNow = true;
+        }
+      } else {
+        decreaseNow = false;
+      }
+    }
+  }
+}
@@ -27,7 +27,12 @@ public final class ServiceMessageCodec {
   private static final Logger LOGGER = LoggerFactory.getLogger(ServiceMessageCodec.class);
 
   private final HeadersCodec headersCodec;
+  private final ByteBufHeadersCodec byteBufHeadersCodec;
   private final Map<String, DataCodec> dataCodecs;
+  private final ByteBufAllocator allocator;
+  private final EncodeSizePredictor dataSizePredictor = new EncodeSizePredictor();
+  private final EncodeSizePredictor.Prediction headersSizePrediction =
+      new EncodeSizePredictor.Prediction();
 
   /**
    * Message codec with default Headers/Data Codecs.
@@ -53,7 +58,29 @@ public ServiceMessageCodec() {
    *     DataCodec#INSTANCES} will be used.
    */
   public ServiceMessageCodec(HeadersCodec headersCodec, Collection<DataCodec> dataCodecs) {
+    this(headersCodec, dataCodecs, null);
+  }
+
+  /**
+   * Constructor. Creates instance out of {@link HeadersCodec} instance, {@link DataCodec}
+   * collection and allocator of encode buffers.
+   *
+   * @param headersCodec codec for service message headers; optional, if not set then {@link
+   *     JdkCodec} will be used.
+   * @param dataCodecs codecs for service message data; optional, if not set then {@link
+   *     DataCodec#INSTANCES} will be used.
+   * @param allocator allocator of encode buffers; optional, if not set then {@link
+   *     ByteBufAllocator#DEFAULT} will be used.
+   * @see #ServiceMessageCodec(HeadersCodec, Collection)
+   */
+  public ServiceMessageCodec(
+      HeadersCodec headersCodec, Collection<DataCodec> dataCodecs, ByteBufAllocator allocator) {
+    this.allocator = allocator == null ? ByteBufAllocator.DEFAULT : allocator;
     this.headersCodec = headersCodec == null ? HeadersCodec.DEFAULT_INSTANCE : headersCodec;
+    this.byteBufHeadersCodec =
+        this.headersCodec instanceof ByteBufHeadersCodec
+            ? (ByteBufHeadersCodec) this.headersCodec
+            : null;
     Map<String, DataCodec> defaultCodecs = DataCodec.INSTANCES;
     if (dataCodecs == null) {
       this.dataCodecs = defaultCodecs;
@@ -71,6 +98,15 @@ public ServiceMessageCodec(HeadersCodec headersCodec, Collection<DataCodec> data
     }
   }
 
+  /**
+   * Returns allocator of encode buffers.
+   *
+   * @return allocator
+   */
+  public ByteBufAllocator allocator() {
+    return allocator;
+  }
+
   /**
    * Encode a message, transform it to T.
    *
@@ -89,10 +125,21 @@ public <T> T encodeAndTransform(
     if (message.hasData(ByteBuf.class)) {
       dataBuffer = message.data();
     } else if (message.hasData()) {
-      dataBuffer = ByteBufAllocator.DEFAULT.buffer();
       try {
-        DataCodec dataCodec = getDataCodec(message.dataFormatOrDefault());
-        dataCodec.encode(new ByteBufOutputStream(dataBuffer), message.data());
+        String dataFormat = message.dataFormatOrDefault();
+        DataCodec dataCodec = getDataCodec(dataFormat);
+        EncodeSizePredictor.Prediction prediction =
+            dataSizePredictor.prediction(dataFormat, message.qualifier());
+        if (dataCodec instanceof ByteBufDataCodec) {
+          ByteBufDataCodec byteBufDataCodec = (ByteBufDataCodec) dataCodec;
+          int sizeHint = byteBufDataCodec.encodedSizeHint(message.data());
+          dataBuffer = allocator.buffer(sizeHint > 0 ? sizeHint : prediction.size());
+          byteBufDataCodec.encode(dataBuffer, message.data());
+        } else {
+          dataBuffer = allocator.buffer(prediction.size());
+          dataCodec.encode(new ByteBufOutputStream(dataBuffer), message.data());
+        }
+        prediction.record(dataBuffer.readableBytes());
       } catch (Throwable ex) {
         ReferenceCountUtil.safestRelease(dataBuffer);
         LOGGER.error(
@@ -102,9 +149,13 @@ public <T> T encodeAndTransform(
     }
 
     if (!message.headers().isEmpty()) {
-      headersBuffer = ByteBufAllocator.DEFAULT.buffer();
+      headersBuffer = allocator.buffer(headersSizePrediction.size());
       try {
-        headersCodec.encode(new ByteBufOutputStream(headersBuffer), message.headers());
+        if (byteBufHeadersCodec != null) {
+          byteBufHeadersCodec.encode(headersBuffer, message.headers());
+        } else {
+          headersCodec.encode(new ByteBufOutputStream(headersBuffer), message.headers());
+        }
       } catch (Throwable ex) {
         ReferenceCountUtil.safestRelease(headersBuffer);
         ReferenceCountUtil.safestRelease(dataBuffer); // release data buf as well
@@ -112,13 +163,17 @@ public <T> T encodeAndTransform(
             "Failed to encode service message headers on: {}, cause: {}", message, ex.toString());
         throw new MessageCodecException("Failed to encode service message headers", ex);
       }
+      headersSizePrediction.record(headersBuffer.readableBytes());
     }
 
     return transformer.apply(dataBuffer, headersBuffer);
   }
 
   /**
-   * Decode buffers.
+   * Decode buffers. Headers are not copied into builder, resulting message is a view over decoded
+   * headers, and if headers codec is {@link ByteBufHeadersCodec} they are decoded lazily, on
+   * access. Takes ownership of both buffers: headers buffer is released, data buffer is either
+   * released or handed over to resulting message.
    *
    * @param dataBuffer the buffer of the data (payload)
    * @param headersBuffer the buffer of the headers
@@ -127,21 +182,34 @@ public <T> T encodeAndTransform(
    */
   public ServiceMessage decode(ByteBuf dataBuffer, ByteBuf headersBuffer)
       throws MessageCodecException {
-    ServiceMessage.Builder builder = ServiceMessage.builder();
+    Map<String, String> headers = Collections.emptyMap();
 
-    if (dataBuffer.isReadable()) {
-      builder.data(dataBuffer);
-    }
-    if (headersBuffer.isReadable()) {
+    if (headersBuffer.isReadable() && byteBufHeadersCodec != null) {
+      try {
+        headers = byteBufHeadersCodec.decode(headersBuffer);
+      } catch (Throwable ex) {
+        ReferenceCountUtil.safestRelease(dataBuffer); // release data buf as well
+        throw new MessageCodecException("Failed to decode service message headers", ex);
+      } finally {
+        ReferenceCountUtil.safestRelease(headersBuffer);
+      }
+    } else if (headersBuffer.isReadable()) {
       try (ByteBufInputStream stream = new ByteBufInputStream(headersBuffer, true)) {
-        builder.headers(headersCodec.decode(stream));
+        headers = headersCodec.decode(stream);
       } catch (Throwable ex) {
         ReferenceCountUtil.safestRelease(dataBuffer); // release data buf as well
         throw new MessageCodecException("Failed to decode service message headers", ex);
       }
+    } else {
+      ReferenceCountUtil.safestRelease(headersBuffer);
     }
 
-    return builder.build();
+    if (!dataBuffer.isReadable()) {
+      // empty buffer might still be a retained slice of inbound frame
+      ReferenceCountUtil.safestRelease(dataBuffer);
+      return ServiceMessage.wrap(headers, null);
+    }
+    return ServiceMessage.wrap(headers, dataBuffer);
   }
 
   /**
@@ -165,11 +233,19 @@ public static ServiceMessage decodeData(ServiceMessage message, Type dataType)
     Type targetType = message.isError() ? ErrorData.class : dataType;
 
     ByteBuf dataBuffer = message.data();
-    try (ByteBufInputStream inputStream = new ByteBufInputStream(dataBuffer, true)) {
+    try {
       DataCodec dataCodec = DataCodec.getInstance(message.dataFormatOrDefault());
-      data = dataCodec.decode(inputStream, targetType);
+      if (dataCodec instanceof ByteBufDataCodec) {
+        data = ((ByteBufDataCodec) dataCodec).decode(dataBuffer, targetType);
+      } else {
+        try (ByteBufInputStream inputStream = new ByteBufInputStream(dataBuffer)) {
+          data = dataCodec.decode(inputStream, targetType);
+        }
+      }
     } catch (Throwable ex) {
       throw new MessageCodecException("Failed to decode service message data", ex);
+    } finally {
+      ReferenceCountUtil.safestRelease(dataBuffer);
     }
 
     return ServiceMessage.from(message).data(data).build();
@@ -0,0 +1,73 @@
+package io.scalecube.services.transport.api;
+
+import io.netty.buffer.ByteBuf;
+import io.scalecube.services.exceptions.MessageCodecException;
+
+/** Unsigned LEB128 (protobuf style) encoding of non-negative ints over {@link ByteBuf}. */
+public final class VarIntUtil {
+
+  /** Max number of bytes taken by encoded int. */
+  public static final int MAX_VAR_INT_SIZE = 5;
+
+  private VarIntUtil() {
+    // Do not instantiate
+  }
+
+  /**
+   * Writes given value as varint.
+   *
+   * @param buffer target buffer
+   * @param value value (not negative)
+   */
+  public static void writeVarInt(ByteBuf buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer.writeByte(value);
+  }
+
+  /**
+   * Reads varint from given buffer.
+   *
+   * @param buffer source buffer
+   * @return decoded value
+   * @throws MessageCodecException if buffer doesn't contain well-formed varint
+   */
+  public static int readVarInt(ByteBuf buffer) throws MessageCodecException {
+    int result = 0;
+    for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+      if (!buffer.isReadable()) {
+        throw new MessageCodecException("Truncated varint", null);
+      }
+      byte b = buffer.readByte();
+      result |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return result;
+      }
+    }
+    throw new MessageCodecException("Malformed varint", null);
+  }
+
+  /**
+   * Returns number of bytes given value takes being encoded as varint.
+   *
+   * @param value value
+   * @return encoded size
+   */
+  public static int varIntSize(int value) {
+    if ((value & (0xFFFFFFFF << 7)) == 0) {
+      return 1;
+    }
+    if ((value & (0xFFFFFFFF << 14)) == 0) {
+      return 2;
+    }
+    if ((value & (0xFFFFFFFF << 21)) == 0) {
+      return 3;
+    }
+    if ((value & (0xFFFFFFFF << 28)) == 0) {
+      return 4;
+    }
+    return MAX_VAR_INT_SIZE;
+  }
+}
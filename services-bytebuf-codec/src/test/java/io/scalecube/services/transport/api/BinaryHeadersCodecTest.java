@@ -0,0 +1,98 @@
+package io.scalecube.services.transport.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.exceptions.MessageCodecException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class BinaryHeadersCodecTest {
+
+  private final BinaryHeadersCodec codec = new BinaryHeadersCodec();
+
+  @ParameterizedTest
+  @MethodSource("provider")
+  void testByteBuf(Map<String, String> headers) {
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      codec.encode(buffer, headers);
+      assertEquals(headers, codec.decode(buffer));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provider")
+  void testStream(Map<String, String> headers) throws IOException {
+    try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+      codec.encode(os, headers);
+      try (ByteArrayInputStream is = new ByteArrayInputStream(os.toByteArray())) {
+        assertEquals(headers, codec.decode(is));
+      }
+    }
+  }
+
+  @Test
+  void testWellKnownHeadersAreTokenized() {
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      codec.encode(
+          buffer, Collections.singletonMap(ServiceMessage.HEADER_QUALIFIER, "greeting/hello"));
+      // count + token + value length + value
+      assertEquals(1 + 1 + 1 + "greeting/hello".length(), buffer.readableBytes());
+      Map<String, String> headers = codec.decode(buffer);
+      assertEquals("greeting/hello", headers.get(ServiceMessage.HEADER_QUALIFIER));
+      assertNull(headers.get(ServiceMessage.HEADER_DATA_FORMAT));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  void testTruncatedHeaders() {
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      codec.encode(buffer, Collections.singletonMap("header", "value"));
+      ByteBuf truncated = buffer.slice(0, buffer.readableBytes() - 1);
+      assertThrows(MessageCodecException.class, () -> codec.decode(truncated));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  static Stream<Map<String, String>> provider() {
+    Map<String, String> sampleMap = new HashMap<>();
+    sampleMap.put("header", "value");
+    sampleMap.put("test", "3");
+
+    Map<String, String> wellKnown = new HashMap<>();
+    wellKnown.put(ServiceMessage.HEADER_QUALIFIER, "v1/service/method");
+    wellKnown.put(ServiceMessage.HEADER_DATA_FORMAT, "application/json");
+    wellKnown.put(ServiceMessage.HEADER_DATA_TYPE, "java.lang.String");
+    wellKnown.put(ServiceMessage.HEADER_ERROR_TYPE, "500");
+    wellKnown.put("userId", "жук");
+
+    return Stream.of(
+        sampleMap,
+        wellKnown,
+        Collections.singletonMap("header", String.valueOf(Integer.MAX_VALUE)),
+        Collections.emptyMap(),
+        Collections.singletonMap("", ""),
+        Collections.singletonMap("header", ""),
+        Collections.singletonMap("", "value"));
+  }
+}
@@ -0,0 +1,58 @@
+package io.scalecube.services.transport.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.services.transport.api.EncodeSizePredictor.Prediction;
+import org.junit.jupiter.api.Test;
+
+class EncodeSizePredictorTest {
+
+  private final EncodeSizePredictor predictor = new EncodeSizePredictor();
+
+  @Test
+  void testInitialPrediction() {
+    assertEquals(
+        EncodeSizePredictor.INITIAL_SIZE, predictor.prediction("application/json", "q").size());
+  }
+
+  @Test
+  void testPredictionGrowsRightAway() {
+    Prediction prediction = predictor.prediction("application/json", "q");
+    prediction.record(40_000);
+    assertTrue(prediction.size() >= 40_000);
+    assertTrue(prediction.size() < 40_000 * 2);
+  }
+
+  @Test
+  void testPredictionShrinksAfterTwoSmallerSizes() {
+    Prediction prediction = predictor.prediction("application/json", "q");
+    prediction.record(40_000);
+    int size = prediction.size();
+
+    prediction.record(100);
+    assertEquals(size, prediction.size());
+    prediction.record(100);
+    assertTrue(prediction.size() < size);
+  }
+
+  @Test
+  void testPredictionPerQualifierAndDataFormat() {
+    Prediction prediction = predictor.prediction("application/json", "q1");
+    assertSame(prediction, predictor.prediction("application/json", "q1"));
+    assertNotSame(prediction, predictor.prediction("application/json", "q2"));
+    assertNotSame(prediction, predictor.prediction("application/protostuff", "q1"));
+  }
+
+  @Test
+  void testSharedPredictionOverLimit() {
+    for (int i = 0; i < EncodeSizePredictor.MAX_PREDICTIONS; i++) {
+      predictor.prediction("application/json", "q" + i);
+    }
+    assertSame(
+        predictor.prediction("application/json", "a"),
+        predictor.prediction("application/json", "b"));
+  }
+}
@@ -0,0 +1,115 @@
+package io.scalecube.services.transport.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.api.ServiceMessage;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ServiceMessageCodecTest {
+
+  static Stream<HeadersCodec> provider() {
+    return Stream.of(new JdkCodec(), new BinaryHeadersCodec());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provider")
+  void testDecodeWrapsHeaders(HeadersCodec headersCodec) {
+    ServiceMessageCodec codec = new ServiceMessageCodec(headersCodec, Collections.emptyList());
+    ByteBuf data = Unpooled.copiedBuffer(new byte[] {1, 2, 3});
+    ServiceMessage message =
+        ServiceMessage.builder()
+            .qualifier("greeting/hello")
+            .header("userId", "42")
+            .data(data)
+            .build();
+
+    ServiceMessage decoded = codec.encodeAndTransform(message, codec::decode);
+
+    try {
+      assertEquals("greeting/hello", decoded.qualifier());
+      assertEquals("42", decoded.header("userId"));
+      assertEquals(message.headers(), decoded.headers());
+      assertFalse(decoded.isError());
+      assertTrue(decoded.hasData(ByteBuf.class));
+      assertThrows(
+          UnsupportedOperationException.class, () -> decoded.headers().put("userId", "43"));
+    } finally {
+      data.release();
+    }
+  }
+
+  @Test
+  void testEncodePrefersByteBufDataCodec() {
+    ServiceMessageCodec codec =
+        new ServiceMessageCodec(null, Collections.singletonList(new StubByteBufDataCodec()));
+    ServiceMessage message =
+        ServiceMessage.builder()
+            .dataFormat(StubByteBufDataCodec.CONTENT_TYPE)
+            .data("hello")
+            .build();
+
+    ByteBuf dataBuffer =
+        codec.encodeAndTransform(
+            message,
+            (data, headers) -> {
+              headers.release();
+              return data;
+            });
+
+    try {
+      assertEquals("hello", dataBuffer.toString(StandardCharsets.UTF_8));
+      assertTrue(dataBuffer.capacity() >= StubByteBufDataCodec.SIZE_HINT);
+    } finally {
+      dataBuffer.release();
+    }
+  }
+
+  private static class StubByteBufDataCodec implements ByteBufDataCodec {
+
+    static final String CONTENT_TYPE = "application/stub";
+    static final int SIZE_HINT = 1024;
+
+    @Override
+    public String contentType() {
+      return CONTENT_TYPE;
+    }
+
+    @Override
+    public void encode(ByteBuf buffer, Object value) {
+      buffer.writeCharSequence((String) value, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Object decode(ByteBuf buffer, Type type) {
+      return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int encodedSizeHint(Object value) {
+      return SIZE_HINT;
+    }
+
+    @Override
+    public void encode(OutputStream stream, Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object decode(InputStream stream, Type type) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package io.scalecube.services.transport.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.exceptions.MessageCodecException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class VarIntUtilTest {
+
+  static IntStream provider() {
+    return IntStream.of(
+        0,
+        1,
+        (1 << 7) - 1,
+        1 << 7,
+        (1 << 14) - 1,
+        1 << 14,
+        (1 << 21) - 1,
+        1 << 21,
+        (1 << 28) - 1,
+        1 << 28,
+        Integer.MAX_VALUE,
+        -1);
+  }
+
+  @ParameterizedTest
+  @MethodSource("provider")
+  void testRoundTrip(int value) {
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      VarIntUtil.writeVarInt(buffer, value);
+      assertEquals(VarIntUtil.varIntSize(value), buffer.readableBytes());
+      assertEquals(value, VarIntUtil.readVarInt(buffer));
+      assertFalse(buffer.isReadable());
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  void testSizeBoundaries() {
+    assertEquals(1, VarIntUtil.varIntSize((1 << 7) - 1));
+    assertEquals(2, VarIntUtil.varIntSize(1 << 7));
+    assertEquals(2, VarIntUtil.varIntSize((1 << 14) - 1));
+    assertEquals(3, VarIntUtil.varIntSize(1 << 14));
+    assertEquals(4, VarIntUtil.varIntSize(1 << 21));
+    assertEquals(5, VarIntUtil.varIntSize(1 << 28));
+    assertEquals(VarIntUtil.MAX_VAR_INT_SIZE, VarIntUtil.varIntSize(-1));
+  }
+
+  @Test
+  void testTruncatedVarInt() {
+    ByteBuf buffer = Unpooled.wrappedBuffer(new byte[] {(byte) 0x80, (byte) 0x80});
+    try {
+      assertThrows(MessageCodecException.class, () -> VarIntUtil.readVarInt(buffer));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  void testMalformedVarInt() {
+    byte[] bytes = new byte[VarIntUtil.MAX_VAR_INT_SIZE + 1];
+    Arrays.fill(bytes, (byte) 0x80);
+    ByteBuf buffer = Unpooled.wrappedBuffer(bytes);
+    try {
+      assertThrows(MessageCodecException.class, () -> VarIntUtil.readVarInt(buffer));
+    } finally {
+      buffer.release();
+    }
+  }
+}
@@ -3,12 +3,22 @@
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import io.scalecube.services.transport.api.DataCodec;
-import io.scalecube.services.transport.api.HeadersCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.scalecube.services.exceptions.MessageCodecException;
+import io.scalecube.services.transport.api.ByteBufDataCodec;
+import io.scalecube.services.transport.api.ByteBufHeadersCodec;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -16,13 +26,21 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-public final class JacksonCodec implements DataCodec, HeadersCodec {
+public final class JacksonCodec implements ByteBufDataCodec, ByteBufHeadersCodec {
 
   public static final String CONTENT_TYPE = "application/json";
 
   private final ObjectMapper mapper;
 
+  // readers and writers are immutable and thread-safe, resolving them once per type skips type
+  // construction and root (de)serializer lookup on every message
+  private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
   public JacksonCodec() {
     this(initMapper());
   }
@@ -38,24 +56,136 @@ public String contentType() {
 
   @Override
   public void encode(OutputStream stream, Map<String, String> headers) throws IOException {
-    mapper.writeValue(stream, headers);
+    try (JsonGenerator generator = mapper.getFactory().createGenerator(stream)) {
+      generator.writeStartObject();
+      for (Entry<String, String> header : headers.entrySet()) {
+        generator.writeStringField(header.getKey(), header.getValue());
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  @Override
+  public void encode(ByteBuf buffer, Map<String, String> headers) {
+    try {
+      encode((OutputStream) new ByteBufOutputStream(buffer), headers);
+    } catch (IOException e) {
+      throw new MessageCodecException("Failed to encode headers", e);
+    }
   }
 
   @Override
   public void encode(OutputStream stream, Object value) throws IOException {
-    mapper.writeValue(stream, value);
+    writer(value).writeValue(stream, value);
+  }
+
+  @Override
+  public void encode(ByteBuf buffer, Object value) throws IOException {
+    // generator buffers output and flushes it in chunks, so stream adapter is cheap here
+    writer(value).writeValue((OutputStream) new ByteBufOutputStream(buffer), value);
   }
 
   @Override
   public Map<String, String> decode(InputStream stream) throws IOException {
-    return stream.available() == 0
-        ? Collections.emptyMap()
-        : mapper.readValue(stream, HashMap.class);
+    if (stream.available() == 0) {
+      return Collections.emptyMap();
+    }
+    try (JsonParser parser = mapper.getFactory().createParser(stream)) {
+      return readHeaders(parser);
+    }
+  }
+
+  @Override
+  public Map<String, String> decode(ByteBuf buffer) {
+    if (!buffer.isReadable()) {
+      return Collections.emptyMap();
+    }
+    try {
+      if (buffer.hasArray()) {
+        try (JsonParser parser =
+            mapper
+                .getFactory()
+                .createParser(
+                    buffer.array(),
+                    buffer.arrayOffset() + buffer.readerIndex(),
+                    buffer.readableBytes())) {
+          return readHeaders(parser);
+        }
+      }
+      try (InputStream stream = inputStream(buffer)) {
+        return decode(stream);
+      }
+    } catch (IOException e) {
+      throw new MessageCodecException("Failed to decode headers", e);
+    }
   }
 
   @Override
   public Object decode(InputStream stream, Type type) throws IOException {
-    return mapper.readValue(stream, mapper.getTypeFactory().constructType(type));
+    return reader(type).readValue(stream);
+  }
+
+  @Override
+  public Object decode(ByteBuf buffer, Type type) throws IOException {
+    ObjectReader reader = reader(type);
+    if (buffer.hasArray()) {
+      return reader.readValue(
+          buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), buffer.readableBytes());
+    }
+    try (InputStream stream = inputStream(buffer)) {
+      return reader.readValue(stream);
+    }
+  }
+
+  private ObjectReader reader(Type type) {
+    ObjectReader reader = readers.get(type);
+    if (reader == null) {
+      reader =
+          readers.computeIfAbsent(
+              type, t -> mapper.readerFor(mapper.getTypeFactory().constructType(t)));
+    }
+    return reader;
+  }
+
+  private ObjectWriter writer(Object value) {
+    Class<?> clazz = value.getClass();
+    ObjectWriter writer = writers.get(clazz);
+    if (writer == null) {
+      writer = writers.computeIfAbsent(clazz, mapper::writerFor);
+    }
+    return writer;
+  }
+
+  private static InputStream inputStream(ByteBuf buffer) {
+    if (buffer.nioBufferCount() == 1) {
+      return new ByteBufferBackedInputStream(
+          buffer.nioBuffer(buffer.readerIndex(), buffer.readableBytes()));
+    }
+    return new ByteBufInputStream(buffer.duplicate());
+  }
+
+  /**
+   * Reads flat json object of headers token by token, without building databind tree. Non-string
+   * scalar values are taken by their textual representation, as databind would do for {@code
+   * Map<String, String>}.
+   */
+  private static Map<String, String> readHeaders(JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new IOException("Expected headers json object, got: " + parser.currentToken());
+    }
+    Map<String, String> headers = new HashMap<>();
+    String name;
+    while ((name = parser.nextFieldName()) != null) {
+      JsonToken token = parser.nextToken();
+      if (token == JsonToken.VALUE_NULL) {
+        continue;
+      }
+      if (!token.isScalarValue()) {
+        throw new IOException("Expected scalar value of header '" + name + "', got: " + token);
+      }
+      headers.put(name, parser.getText());
+    }
+    return headers;
   }
 
   private static ObjectMapper initMapper() {
@@ -0,0 +1,214 @@
+package io.scalecube.services.transport.jackson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.exceptions.MessageCodecException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class JacksonCodecTest {
+
+  private static final Type LIST_OF_POJOS = new TypeReference<List<Pojo>>() {}.getType();
+  private static final Type LIST_OF_LONGS = new TypeReference<List<Long>>() {}.getType();
+
+  private final JacksonCodec codec = new JacksonCodec();
+
+  @ParameterizedTest
+  @EnumSource(BufferKind.class)
+  void testDataRoundTrip(BufferKind bufferKind) throws Exception {
+    Pojo pojo = new Pojo("joe", 42);
+
+    ByteBuf buffer = bufferKind.wrap(encode(pojo));
+    try {
+      assertEquals(pojo, codec.decode(buffer, Pojo.class));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(BufferKind.class)
+  void testGenericTypeRoundTrip(BufferKind bufferKind) throws Exception {
+    List<Pojo> pojos = Arrays.asList(new Pojo("joe", 42), new Pojo("ann", 43));
+    byte[] bytes = encode(pojos);
+
+    // decoded twice, second time by cached reader
+    for (int i = 0; i < 2; i++) {
+      ByteBuf buffer = bufferKind.wrap(bytes);
+      try {
+        assertEquals(pojos, codec.decode(buffer, LIST_OF_POJOS));
+      } finally {
+        buffer.release();
+      }
+    }
+  }
+
+  @Test
+  void testReadersAreCachedByFullType() throws Exception {
+    byte[] bytes = "[1,2]".getBytes(StandardCharsets.UTF_8);
+
+    // same raw type, different type arguments
+    ByteBuf longs = Unpooled.wrappedBuffer(bytes);
+    ByteBuf strings = Unpooled.wrappedBuffer(bytes);
+    try {
+      assertEquals(Arrays.asList(1L, 2L), codec.decode(longs, LIST_OF_LONGS));
+      assertEquals(
+          Arrays.asList("1", "2"),
+          codec.decode(strings, new TypeReference<List<String>>() {}.getType()));
+    } finally {
+      longs.release();
+      strings.release();
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(BufferKind.class)
+  void testHeadersRoundTrip(BufferKind bufferKind) {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("q", "v1/greetings/greeting");
+    headers.put("userId", "42");
+    headers.put("unicode", "gr\u00fc\u00dfe");
+
+    ByteBuf encoded = Unpooled.buffer();
+    ByteBuf buffer;
+    try {
+      codec.encode(encoded, headers);
+      buffer = bufferKind.wrap(ByteBufUtil.getBytes(encoded));
+    } finally {
+      encoded.release();
+    }
+    try {
+      assertEquals(headers, codec.decode(buffer));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(BufferKind.class)
+  void testHeadersWithNullAndNonStringValues(BufferKind bufferKind) {
+    String json = "{\"a\":null,\"b\":42,\"c\":true,\"d\":1.5,\"e\":\"text\"}";
+
+    Map<String, String> expected = new HashMap<>();
+    expected.put("b", "42");
+    expected.put("c", "true");
+    expected.put("d", "1.5");
+    expected.put("e", "text");
+
+    ByteBuf buffer = bufferKind.wrap(json.getBytes(StandardCharsets.UTF_8));
+    try {
+      assertEquals(expected, codec.decode(buffer));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  void testHeadersWithNestedValueAreRejected() {
+    ByteBuf buffer = Unpooled.copiedBuffer("{\"a\":{\"b\":\"c\"}}", StandardCharsets.UTF_8);
+    try {
+      assertThrows(MessageCodecException.class, () -> codec.decode(buffer));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  void testEmptyHeaders() {
+    assertTrue(codec.decode(Unpooled.EMPTY_BUFFER).isEmpty());
+
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      codec.encode(buffer, Collections.emptyMap());
+      assertTrue(codec.decode(buffer).isEmpty());
+    } finally {
+      buffer.release();
+    }
+  }
+
+  private byte[] encode(Object value) throws Exception {
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      codec.encode(buffer, value);
+      return ByteBufUtil.getBytes(buffer);
+    } finally {
+      buffer.release();
+    }
+  }
+
+  enum BufferKind {
+    HEAP {
+      @Override
+      ByteBuf wrap(byte[] bytes) {
+        // non-zero array offset and reader index
+        byte[] array = new byte[bytes.length + 8];
+        System.arraycopy(bytes, 0, array, 8, bytes.length);
+        return Unpooled.wrappedBuffer(array, 4, bytes.length + 4).skipBytes(4);
+      }
+    },
+    DIRECT {
+      @Override
+      ByteBuf wrap(byte[] bytes) {
+        return Unpooled.directBuffer(bytes.length).writeBytes(bytes);
+      }
+    },
+    COMPOSITE {
+      @Override
+      ByteBuf wrap(byte[] bytes) {
+        int half = bytes.length / 2;
+        CompositeByteBuf buffer = Unpooled.compositeBuffer();
+        buffer.addComponent(true, Unpooled.directBuffer(half).writeBytes(bytes, 0, half));
+        buffer.addComponent(true, Unpooled.wrappedBuffer(bytes, half, bytes.length - half));
+        return buffer;
+      }
+    };
+
+    abstract ByteBuf wrap(byte[] bytes);
+  }
+
+  static class Pojo {
+
+    private String name;
+    private int age;
+
+    Pojo() {}
+
+    Pojo(String name, int age) {
+      this.name = name;
+      this.age = age;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Pojo pojo = (Pojo) o;
+      return age == pojo.age && Objects.equals(name, pojo.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, age);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package io.scalecube.services.transport.local;
+
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.transport.api.ClientChannel;
+import java.lang.reflect.Type;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client channel which passes messages to local server transport as they are. Request and response
+ * data objects are shared between caller and callee, so {@code responseType} is not used.
+ */
+public class LocalClientChannel implements ClientChannel {
+
+  private final Mono<LocalConnection> connection;
+
+  LocalClientChannel(Mono<LocalConnection> connection) {
+    this.connection = connection;
+  }
+
+  @Override
+  public Mono<ServiceMessage> requestResponse(ServiceMessage message, Type responseType) {
+    return connection.flatMap(c -> c.server().requestResponse(message, c.authData()));
+  }
+
+  @Override
+  public Flux<ServiceMessage> requestStream(ServiceMessage message, Type responseType) {
+    return connection.flatMapMany(c -> c.server().requestStream(message, c.authData()));
+  }
+
+  @Override
+  public Flux<ServiceMessage> requestChannel(
+      Publisher<ServiceMessage> publisher, Type responseType) {
+    return connection.flatMapMany(c -> c.server().requestChannel(publisher, c.authData()));
+  }
+}
@@ -0,0 +1,117 @@
+package io.scalecube.services.transport.local;
+
+import io.scalecube.net.Address;
+import io.scalecube.services.ServiceReference;
+import io.scalecube.services.auth.CredentialsSupplier;
+import io.scalecube.services.exceptions.ServiceException;
+import io.scalecube.services.exceptions.UnauthorizedException;
+import io.scalecube.services.transport.api.ClientChannel;
+import io.scalecube.services.transport.api.ClientTransport;
+import io.scalecube.utils.MaskUtil;
+import java.net.ConnectException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+public class LocalClientTransport implements ClientTransport {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalClientTransport.class);
+
+  private final CredentialsSupplier credentialsSupplier;
+
+  // authenticated "connections", like network transports authenticate once per connection
+  private final ConcurrentMap<Address, Mono<LocalConnection>> connections =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Constructor for this transport.
+   *
+   * @param credentialsSupplier credentialsSupplier
+   */
+  public LocalClientTransport(CredentialsSupplier credentialsSupplier) {
+    this.credentialsSupplier = credentialsSupplier;
+  }
+
+  @Override
+  public ClientChannel create(ServiceReference serviceReference) {
+    return new LocalClientChannel(Mono.defer(() -> connection(serviceReference)));
+  }
+
+  private Mono<LocalConnection> connection(ServiceReference serviceReference) {
+    final Address address = serviceReference.address();
+    final LocalServerTransport server = LocalServerTransport.lookup(address);
+    if (server == null) {
+      connections.remove(address);
+      return Mono.error(new ConnectException("Connection refused: " + address));
+    }
+    Mono<LocalConnection> mono = connections.get(address);
+    if (mono == null) {
+      mono =
+          connections.computeIfAbsent(
+              address,
+              key ->
+                  getCredentials(serviceReference)
+                      .flatMap(server::authenticate)
+                      .map(authData -> new LocalConnection(server, authData))
+                      .switchIfEmpty(Mono.fromCallable(() -> new LocalConnection(server, null)))
+                      .cache()
+                      .doOnError(ex -> connections.remove(key)));
+    }
+    final Mono<LocalConnection> current = mono;
+    return mono.flatMap(
+        connection -> {
+          if (connection.server() == server) {
+            return Mono.just(connection);
+          }
+          // server at this address was restarted, authenticate again
+          connections.remove(address, current);
+          return connection(serviceReference);
+        });
+  }
+
+  private Mono<Map<String, String>> getCredentials(ServiceReference serviceReference) {
+    return Mono.defer(
+        () -> {
+          if (credentialsSupplier == null) {
+            return Mono.just(Collections.emptyMap());
+          }
+          return credentialsSupplier
+              .apply(serviceReference)
+              .switchIfEmpty(Mono.just(Collections.emptyMap()))
+              .doOnSuccess(
+                  creds ->
+                      LOGGER.debug(
+                          "[credentialsSupplier] Got credentials ({}) for service: {}",
+                          mask(creds),
+                          serviceReference))
+              .doOnError(
+                  ex ->
+                      LOGGER.error(
+                          "[credentialsSupplier] "
+                              + "Failed to get credentials for service: {}, cause: {}",
+                          serviceReference,
+                          ex.toString()))
+              .onErrorMap(this::toUnauthorizedException);
+        });
+  }
+
+  private static Map<String, String> mask(Map<String, String> creds) {
+    return creds.entrySet().stream()
+        .collect(Collectors.toMap(Entry::getKey, entry -> MaskUtil.mask(entry.getValue())));
+  }
+
+  private UnauthorizedException toUnauthorizedException(Throwable th) {
+    if (th instanceof ServiceException) {
+      ServiceException e = (ServiceException) th;
+      return new UnauthorizedException(e.errorCode(), e.getMessage());
+    } else {
+      return new UnauthorizedException(th);
+    }
+  }
+}
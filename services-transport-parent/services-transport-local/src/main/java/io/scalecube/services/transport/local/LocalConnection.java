@@ -0,0 +1,31 @@
+package io.scalecube.services.transport.local;
+
+import java.util.StringJoiner;
+
+/** Authenticated client side binding to local server transport. */
+final class LocalConnection {
+
+  private final LocalServerTransport server;
+  private final Object authData;
+
+  LocalConnection(LocalServerTransport server, Object authData) {
+    this.server = server;
+    this.authData = authData;
+  }
+
+  LocalServerTransport server() {
+    return server;
+  }
+
+  Object authData() {
+    return authData;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", LocalConnection.class.getSimpleName() + "[", "]")
+        .add("server=" + server.address())
+        .add("authenticated=" + (authData != null))
+        .toString();
+  }
+}
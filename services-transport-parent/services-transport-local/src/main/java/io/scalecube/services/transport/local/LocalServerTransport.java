@@ -0,0 +1,171 @@
+package io.scalecube.services.transport.local;
+
+import io.scalecube.net.Address;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.auth.Authenticator;
+import io.scalecube.services.exceptions.BadRequestException;
+import io.scalecube.services.exceptions.ServiceException;
+import io.scalecube.services.exceptions.ServiceUnavailableException;
+import io.scalecube.services.exceptions.UnauthorizedException;
+import io.scalecube.services.methods.ServiceMethodInvoker;
+import io.scalecube.services.methods.ServiceMethodRegistry;
+import io.scalecube.services.transport.api.ServerTransport;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+public class LocalServerTransport implements ServerTransport {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalServerTransport.class);
+
+  private static final String HOST = "127.0.0.1";
+
+  private static final int MAX_PORT = 65535;
+
+  // JVM-wide address table, ports are just unique keys here
+  private static final ConcurrentMap<Address, LocalServerTransport> SERVERS =
+      new ConcurrentHashMap<>();
+  private static final AtomicInteger PORT_COUNTER = new AtomicInteger();
+
+  private final Authenticator<Object> authenticator;
+  private final ServiceMethodRegistry methodRegistry;
+
+  private volatile Address address; // calculated
+
+  /**
+   * Constructor for this server transport.
+   *
+   * @param authenticator authenticator
+   * @param methodRegistry methodRegistry
+   */
+  public LocalServerTransport(
+      Authenticator<Object> authenticator, ServiceMethodRegistry methodRegistry) {
+    this.authenticator = authenticator;
+    this.methodRegistry = methodRegistry;
+  }
+
+  /**
+   * Returns server transport bound to given address.
+   *
+   * @param address address
+   * @return server transport, or {@code null} if nothing is bound to the address
+   */
+  static LocalServerTransport lookup(Address address) {
+    return SERVERS.get(address);
+  }
+
+  @Override
+  public Address address() {
+    return address;
+  }
+
+  @Override
+  public Mono<ServerTransport> bind() {
+    return Mono.fromCallable(
+        () -> {
+          for (int i = 0; i < MAX_PORT; i++) {
+            int port = PORT_COUNTER.getAndIncrement() % MAX_PORT + 1;
+            Address candidate = Address.create(HOST, port);
+            if (SERVERS.putIfAbsent(candidate, this) == null) {
+              address = candidate;
+              LOGGER.debug("[local][server][{}] Bound", candidate);
+              return this;
+            }
+          }
+          throw new IllegalStateException("No free local addresses left");
+        });
+  }
+
+  @Override
+  public Mono<Void> stop() {
+    return Mono.fromRunnable(
+        () -> {
+          Address address = this.address;
+          if (address != null && SERVERS.remove(address, this)) {
+            LOGGER.debug("[local][server][{}] Stopped", address);
+          }
+        });
+  }
+
+  /**
+   * Authenticates client by its credentials, the same way connection setup is authenticated by
+   * network transports.
+   *
+   * @param credentials credentials
+   * @return auth data, or empty if client is not authenticated
+   */
+  Mono<Object> authenticate(Map<String, String> credentials) {
+    if (authenticator == null || credentials.isEmpty()) {
+      return Mono.empty();
+    }
+    return authenticator
+        .apply(credentials)
+        .doOnSuccess(obj -> LOGGER.debug("[local][authenticate][{}] Authenticated", address))
+        .doOnError(
+            ex ->
+                LOGGER.error(
+                    "[local][authenticate][{}] Exception occurred: {}", address, ex.toString()))
+        .onErrorMap(LocalServerTransport::toUnauthorizedException);
+  }
+
+  Mono<ServiceMessage> requestResponse(ServiceMessage message, Object authData) {
+    return Mono.defer(() -> invoker(message).invokeOne(message))
+        .doOnError(ex -> LOGGER.error("[requestResponse] Exception occurred: {}", ex.toString()))
+        .subscriberContext(context -> enhanceContextWithAuthData(context, authData));
+  }
+
+  Flux<ServiceMessage> requestStream(ServiceMessage message, Object authData) {
+    return Flux.defer(() -> invoker(message).invokeMany(message))
+        .doOnError(ex -> LOGGER.error("[requestStream] Exception occurred: {}", ex.toString()))
+        .subscriberContext(context -> enhanceContextWithAuthData(context, authData));
+  }
+
+  Flux<ServiceMessage> requestChannel(Publisher<ServiceMessage> messages, Object authData) {
+    return Flux.from(messages)
+        .switchOnFirst(
+            (first, flux) -> {
+              if (first.hasValue()) {
+                return invoker(first.get()).invokeBidirectional(flux);
+              }
+              return flux;
+            })
+        .doOnError(ex -> LOGGER.error("[requestChannel] Exception occurred: {}", ex.toString()))
+        .subscriberContext(context -> enhanceContextWithAuthData(context, authData));
+  }
+
+  private ServiceMethodInvoker invoker(ServiceMessage message) {
+    if (message.qualifier() == null) {
+      LOGGER.error("[qualifier is null] Invocation failed for {}", message);
+      throw new BadRequestException("Qualifier is null");
+    }
+    ServiceMethodInvoker methodInvoker = methodRegistry.getInvoker(message.qualifier());
+    if (methodInvoker == null) {
+      LOGGER.error("[no service invoker found] Invocation failed for {}", message);
+      throw new ServiceUnavailableException("No service invoker found");
+    }
+    return methodInvoker;
+  }
+
+  private static Context enhanceContextWithAuthData(Context context, Object authData) {
+    // caller's context flows in directly, so its own auth data must not leak to the callee
+    return authData != null
+        ? context.put(Authenticator.AUTH_CONTEXT_KEY, authData)
+        : context.delete(Authenticator.AUTH_CONTEXT_KEY);
+  }
+
+  private static UnauthorizedException toUnauthorizedException(Throwable th) {
+    if (th instanceof ServiceException) {
+      ServiceException e = (ServiceException) th;
+      return new UnauthorizedException(e.errorCode(), e.getMessage());
+    } else {
+      return new UnauthorizedException(th);
+    }
+  }
+}
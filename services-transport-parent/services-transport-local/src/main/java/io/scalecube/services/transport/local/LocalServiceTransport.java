@@ -0,0 +1,88 @@
+package io.scalecube.services.transport.local;
+
+import io.scalecube.services.auth.Authenticator;
+import io.scalecube.services.auth.CredentialsSupplier;
+import io.scalecube.services.methods.ServiceMethodRegistry;
+import io.scalecube.services.transport.api.ClientTransport;
+import io.scalecube.services.transport.api.ServerTransport;
+import io.scalecube.services.transport.api.ServiceTransport;
+import java.util.StringJoiner;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service transport for {@code Microservices} instances running in the same JVM. Server transports
+ * are registered in JVM-wide address table, and client channels hand service messages right to
+ * the method registry of target server transport, without encoding them. All nodes of such cluster
+ * must run in one JVM and use this transport.
+ */
+public class LocalServiceTransport implements ServiceTransport {
+
+  private CredentialsSupplier credentialsSupplier;
+  private Authenticator<Object> authenticator;
+
+  /** Default constructor. */
+  public LocalServiceTransport() {}
+
+  /**
+   * Copy constructor.
+   *
+   * @param other other instance
+   */
+  private LocalServiceTransport(LocalServiceTransport other) {
+    this.credentialsSupplier = other.credentialsSupplier;
+    this.authenticator = other.authenticator;
+  }
+
+  /**
+   * Setter for {@code credentialsSupplier}.
+   *
+   * @param credentialsSupplier credentialsSupplier
+   * @return new {@code LocalServiceTransport} instance
+   */
+  public LocalServiceTransport credentialsSupplier(CredentialsSupplier credentialsSupplier) {
+    LocalServiceTransport lst = new LocalServiceTransport(this);
+    lst.credentialsSupplier = credentialsSupplier;
+    return lst;
+  }
+
+  /**
+   * Setter for {@code authenticator}.
+   *
+   * @param authenticator authenticator
+   * @return new {@code LocalServiceTransport} instance
+   */
+  public <R> LocalServiceTransport authenticator(Authenticator<? extends R> authenticator) {
+    LocalServiceTransport lst = new LocalServiceTransport(this);
+    //noinspection unchecked
+    lst.authenticator = (Authenticator<Object>) authenticator;
+    return lst;
+  }
+
+  @Override
+  public ClientTransport clientTransport() {
+    return new LocalClientTransport(credentialsSupplier);
+  }
+
+  @Override
+  public ServerTransport serverTransport(ServiceMethodRegistry methodRegistry) {
+    return new LocalServerTransport(authenticator, methodRegistry);
+  }
+
+  @Override
+  public Mono<LocalServiceTransport> start() {
+    return Mono.just(this);
+  }
+
+  @Override
+  public Mono<Void> stop() {
+    return Mono.empty();
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", LocalServiceTransport.class.getSimpleName() + "[", "]")
+        .add("credentialsSupplier=" + credentialsSupplier)
+        .add("authenticator=" + authenticator)
+        .toString();
+  }
+}
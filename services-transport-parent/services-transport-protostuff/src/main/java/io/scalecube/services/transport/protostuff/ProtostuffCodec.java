@@ -1,5 +1,9 @@
 package io.scalecube.services.transport.protostuff;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.util.concurrent.FastThreadLocal;
 import io.protostuff.LinkedBuffer;
 import io.protostuff.ProtobufIOUtil;
 import io.protostuff.ProtostuffIOUtil;
@@ -7,7 +11,7 @@
 import io.protostuff.StringMapSchema;
 import io.protostuff.runtime.RuntimeSchema;
 import io.scalecube.services.exceptions.MessageCodecException;
-import io.scalecube.services.transport.api.DataCodec;
+import io.scalecube.services.transport.api.ByteBufDataCodec;
 import io.scalecube.services.transport.api.HeadersCodec;
 import java.io.IOException;
 import java.io.InputStream;
@@ -16,11 +20,27 @@
 import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-public final class ProtostuffCodec implements HeadersCodec, DataCodec {
+public final class ProtostuffCodec implements HeadersCodec, ByteBufDataCodec {
 
   public static final String CONTENT_TYPE = "application/protostuff";
 
+  private static final int LINKED_BUFFER_SIZE = 4096;
+
+  // codec is never re-entered on the same thread, so one scratch buffer per thread is enough;
+  // fast thread local is backed by indexed slot on event loop threads
+  private static final FastThreadLocal<LinkedBuffer> LINKED_BUFFER =
+      new FastThreadLocal<LinkedBuffer>() {
+        @Override
+        protected LinkedBuffer initialValue() {
+          return LinkedBuffer.allocate(LINKED_BUFFER_SIZE);
+        }
+      };
+
+  private static final ConcurrentMap<Type, Schema<?>> SCHEMAS = new ConcurrentHashMap<>();
+
   @Override
   public String contentType() {
     return CONTENT_TYPE;
@@ -28,40 +48,110 @@ public String contentType() {
 
   @Override
   public void encode(OutputStream stream, Object value) throws IOException {
-    Schema schema = RuntimeSchema.getSchema(value.getClass());
-    //noinspection unchecked
-    ProtobufIOUtil.writeTo(stream, value, schema, LinkedBuffer.allocate());
+    Schema schema = schema(value.getClass());
+    LinkedBuffer linkedBuffer = LINKED_BUFFER.get();
+    try {
+      //noinspection unchecked
+      ProtobufIOUtil.writeTo(stream, value, schema, linkedBuffer);
+    } finally {
+      linkedBuffer.clear();
+    }
   }
 
   @Override
   public void encode(OutputStream stream, Map<String, String> headers) throws IOException {
-    ProtostuffIOUtil.writeTo(
-        stream, headers, StringMapSchema.VALUE_STRING, LinkedBuffer.allocate());
+    LinkedBuffer linkedBuffer = LINKED_BUFFER.get();
+    try {
+      ProtostuffIOUtil.writeTo(stream, headers, StringMapSchema.VALUE_STRING, linkedBuffer);
+    } finally {
+      linkedBuffer.clear();
+    }
+  }
+
+  @Override
+  public void encode(ByteBuf buffer, Object value) throws IOException {
+    Schema schema = schema(value.getClass());
+    LinkedBuffer linkedBuffer = LINKED_BUFFER.get();
+    try {
+      // serialize into scratch segments first, then grow target once to the exact size and copy
+      // segments in bulk
+      //noinspection unchecked
+      int size = ProtobufIOUtil.writeTo(linkedBuffer, value, schema);
+      buffer.ensureWritable(size);
+      LinkedBuffer.writeTo((OutputStream) new ByteBufOutputStream(buffer), linkedBuffer);
+    } finally {
+      linkedBuffer.clear();
+    }
   }
 
   @Override
   public Object decode(InputStream stream, Type type) throws IOException {
+    Schema schema = schema(type);
+    Object result = schema.newMessage();
+    LinkedBuffer linkedBuffer = LINKED_BUFFER.get();
     try {
-      Class<?> clazz = null;
-      if (type instanceof Class<?>) {
-        clazz = (Class<?>) type;
-      } else if (type instanceof ParameterizedType) {
-        clazz = Class.forName(((ParameterizedType) type).getRawType().getTypeName());
-      }
-      Schema schema = RuntimeSchema.getSchema(clazz);
-      Object result = schema.newMessage();
       //noinspection unchecked
-      ProtobufIOUtil.mergeFrom(stream, result, schema, LinkedBuffer.allocate());
-      return result;
-    } catch (ClassNotFoundException e) {
-      throw new MessageCodecException("Couldn't decode message", e);
+      ProtobufIOUtil.mergeFrom(stream, result, schema, linkedBuffer);
+    } finally {
+      linkedBuffer.clear();
     }
+    return result;
+  }
+
+  @Override
+  public Object decode(ByteBuf buffer, Type type) throws IOException {
+    if (!buffer.hasArray()) {
+      try (InputStream stream = new ByteBufInputStream(buffer.duplicate())) {
+        return decode(stream, type);
+      }
+    }
+    Schema schema = schema(type);
+    Object result = schema.newMessage();
+    //noinspection unchecked
+    ProtobufIOUtil.mergeFrom(
+        buffer.array(),
+        buffer.arrayOffset() + buffer.readerIndex(),
+        buffer.readableBytes(),
+        result,
+        schema);
+    return result;
   }
 
   @Override
   public Map<String, String> decode(InputStream stream) throws IOException {
     HashMap<String, String> map = new HashMap<>();
-    ProtostuffIOUtil.mergeFrom(stream, map, StringMapSchema.VALUE_STRING, LinkedBuffer.allocate());
+    LinkedBuffer linkedBuffer = LINKED_BUFFER.get();
+    try {
+      ProtostuffIOUtil.mergeFrom(stream, map, StringMapSchema.VALUE_STRING, linkedBuffer);
+    } finally {
+      linkedBuffer.clear();
+    }
     return map;
   }
+
+  private static Schema<?> schema(Type type) {
+    Schema<?> schema = SCHEMAS.get(type);
+    if (schema == null) {
+      schema = SCHEMAS.computeIfAbsent(type, t -> RuntimeSchema.getSchema(toClass(t)));
+    }
+    return schema;
+  }
+
+  private static Class<?> toClass(Type type) {
+    if (type instanceof Class<?>) {
+      return (Class<?>) type;
+    }
+    if (type instanceof ParameterizedType) {
+      Type rawType = ((ParameterizedType) type).getRawType();
+      if (rawType instanceof Class<?>) {
+        return (Class<?>) rawType;
+      }
+      try {
+        return Class.forName(rawType.getTypeName());
+      } catch (ClassNotFoundException e) {
+        throw new MessageCodecException("Couldn't decode message", e);
+      }
+    }
+    throw new MessageCodecException("Couldn't resolve schema of type: " + type, null);
+  }
 }
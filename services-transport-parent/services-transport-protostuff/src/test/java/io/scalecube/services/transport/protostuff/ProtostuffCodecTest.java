@@ -0,0 +1,148 @@
+package io.scalecube.services.transport.protostuff;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ProtostuffCodecTest {
+
+  private final ProtostuffCodec codec = new ProtostuffCodec();
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 100, 4096, 64 * 1024})
+  void testByteBufRoundTrip(int payloadSize) throws Exception {
+    Pojo pojo = pojo(payloadSize);
+
+    ByteBuf heap = Unpooled.buffer();
+    ByteBuf direct = Unpooled.directBuffer();
+    try {
+      codec.encode(heap, pojo);
+      codec.encode(direct, pojo);
+      assertEquals(heap, direct);
+      assertEquals(pojo, codec.decode(heap, Pojo.class));
+      assertEquals(pojo, codec.decode(direct, Pojo.class));
+    } finally {
+      heap.release();
+      direct.release();
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 100, 4096, 64 * 1024})
+  void testStreamRoundTrip(int payloadSize) throws Exception {
+    Pojo pojo = pojo(payloadSize);
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    codec.encode(stream, pojo);
+
+    assertEquals(pojo, codec.decode(new ByteArrayInputStream(stream.toByteArray()), Pojo.class));
+  }
+
+  @Test
+  void testLinkedBufferIsClearedBetweenEncodes() throws Exception {
+    Pojo small = pojo(10);
+    byte[] expected = encode(small);
+
+    // large one spans several linked buffer segments, small one must not pick up any of them
+    encode(pojo(64 * 1024));
+    byte[] actual = encode(small);
+
+    assertArrayEquals(expected, actual);
+    ByteBuf buffer = Unpooled.wrappedBuffer(actual);
+    try {
+      assertEquals(small, codec.decode(buffer, Pojo.class));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  void testLinkedBufferIsClearedBetweenStreamEncodes() throws Exception {
+    Pojo small = pojo(10);
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    codec.encode(expected, small);
+
+    codec.encode(new ByteArrayOutputStream(), pojo(64 * 1024));
+    ByteArrayOutputStream actual = new ByteArrayOutputStream();
+    codec.encode(actual, small);
+
+    assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+  }
+
+  @Test
+  void testHeadersRoundTrip() throws Exception {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("q", "v1/greetings/greeting");
+    headers.put("userId", "42");
+
+    for (int i = 0; i < 2; i++) {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      codec.encode(stream, headers);
+      assertEquals(headers, codec.decode(new ByteArrayInputStream(stream.toByteArray())));
+    }
+  }
+
+  private byte[] encode(Object value) throws Exception {
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      codec.encode(buffer, value);
+      return ByteBufUtil.getBytes(buffer);
+    } finally {
+      buffer.release();
+    }
+  }
+
+  private static Pojo pojo(int payloadSize) {
+    byte[] payload = new byte[payloadSize];
+    ThreadLocalRandom.current().nextBytes(payload);
+    return new Pojo("joe", payload);
+  }
+
+  static class Pojo {
+
+    private String name;
+    private byte[] payload;
+
+    Pojo() {}
+
+    Pojo(String name, byte[] payload) {
+      this.name = name;
+      this.payload = payload;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Pojo pojo = (Pojo) o;
+      return Objects.equals(name, pojo.name) && Arrays.equals(payload, pojo.payload);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Objects.hashCode(name) + Arrays.hashCode(payload);
+    }
+
+    @Override
+    public String toString() {
+      return "Pojo{name=" + name + ", payload(" + (payload != null ? payload.length : 0) + ")}";
+    }
+  }
+}
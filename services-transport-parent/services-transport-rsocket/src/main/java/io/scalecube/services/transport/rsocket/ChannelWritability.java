@@ -0,0 +1,222 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.SocketAcceptor;
+import io.rsocket.util.RSocketProxy;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.netty.Connection;
+
+/**
+ * Ties demand of responder streams to writability of netty channel. Rsocket requests stream items
+ * as fast as remote requester grants credits, and its outbound frames are queued without bound, so
+ * fast stream and slow network grow outbound buffers of connection without bound. Here streams of
+ * responder are requested in small batches, each next batch only when channel is writable, i.e.
+ * when its outbound buffer is under high water mark. So memory per connection stays bounded by
+ * write buffer water mark, plus one batch per stream.
+ *
+ * <p>Channel handler is installed by tcp, websocket and unix domain socket server transport
+ * factories, custom factories must install it with {@link #install(Connection)}. It goes first in
+ * the pipeline, so that it stays there across websocket upgrade. Connection is matched with its
+ * responder while setup frame is read: rsocket accepts setup synchronously on event loop of the
+ * connection, and setup of connection without the handler is rejected. Shared memory connections
+ * aren't netty channels and aren't gated.
+ *
+ * <p>Responder is bound to the channel it was set up on. When session is resumed on another
+ * connection (see {@link RSocketServiceTransport#resumeSessionDuration(java.time.Duration)}), the
+ * original channel is inactive and is treated as writable, so streams of resumed session are
+ * requested as remote requester grants credits, like without this handler.
+ */
+public final class ChannelWritability extends ChannelInboundHandlerAdapter {
+
+  private static final String HANDLER_NAME = "scalecube.writability";
+  static final int BATCH_SIZE = 32;
+
+  // channel which inbound message is being read on current event loop
+  private static final ThreadLocal<ChannelWritability> CURRENT = new ThreadLocal<>();
+
+  private final Channel channel;
+  private final Queue<Runnable> waiters = new ConcurrentLinkedQueue<>();
+
+  private ChannelWritability(Channel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Installs writability handler on given connection, to be used as {@code doOnConnection} of
+   * server.
+   *
+   * @param connection connection
+   */
+  public static void install(Connection connection) {
+    connection
+        .channel()
+        .pipeline()
+        .addFirst(HANDLER_NAME, new ChannelWritability(connection.channel()));
+  }
+
+  /**
+   * Wraps socket acceptor, so that streams of accepted responders are requested as their channel
+   * becomes writable.
+   *
+   * @param acceptor socket acceptor
+   * @return socket acceptor
+   */
+  static SocketAcceptor intercept(SocketAcceptor acceptor) {
+    return (setupPayload, rsocket) -> {
+      ChannelWritability writability = CURRENT.get();
+      if (writability == null) {
+        return Mono.error(
+            new IllegalStateException(
+                "Channel writability handler is not installed, or setup isn't read on event loop"));
+      }
+      return acceptor.accept(setupPayload, rsocket).map(writability::intercept);
+    };
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) {
+    CURRENT.set(this);
+    try {
+      ctx.fireChannelRead(msg);
+    } finally {
+      CURRENT.remove();
+    }
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+    if (ctx.channel().isWritable()) {
+      notifyWaiters();
+    }
+    ctx.fireChannelWritabilityChanged();
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) {
+    notifyWaiters();
+    ctx.fireChannelInactive();
+  }
+
+  private RSocket intercept(RSocket rsocket) {
+    return new RSocketProxy(rsocket) {
+      @Override
+      public Flux<Payload> requestStream(Payload payload) {
+        return gate(super.requestStream(payload));
+      }
+
+      @Override
+      public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
+        return gate(super.requestChannel(payloads));
+      }
+    };
+  }
+
+  private boolean isWritable() {
+    // closed channel isn't written to anymore, e.g. session is being resumed on another one
+    return channel.isWritable() || !channel.isActive();
+  }
+
+  private void whenWritable(Runnable task) {
+    waiters.add(task);
+    if (isWritable()) {
+      notifyWaiters();
+    }
+  }
+
+  private void notifyWaiters() {
+    Runnable task;
+    while ((task = waiters.poll()) != null) {
+      task.run();
+    }
+  }
+
+  private <T> Flux<T> gate(Flux<T> source) {
+    return Flux.create(sink -> source.subscribe(new GateSubscriber<>(sink)));
+  }
+
+  /**
+   * Requests source in batches, the next batch when previous one is emitted and channel is
+   * writable.
+   */
+  private final class GateSubscriber<T> extends BaseSubscriber<T> {
+
+    private final FluxSink<T> sink;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicLong outstanding = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean waiting = new AtomicBoolean();
+
+    private GateSubscriber(FluxSink<T> sink) {
+      this.sink = sink;
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      sink.onRequest(
+          n -> {
+            demand.getAndAccumulate(n, Operators::addCap);
+            drain();
+          });
+      sink.onDispose(this::dispose);
+    }
+
+    @Override
+    protected void hookOnNext(T value) {
+      sink.next(value);
+      if (outstanding.decrementAndGet() == 0) {
+        drain();
+      }
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      sink.complete();
+    }
+
+    @Override
+    protected void hookOnError(Throwable throwable) {
+      sink.error(throwable);
+    }
+
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        if (!isDisposed() && outstanding.get() == 0 && demand.get() > 0) {
+          if (isWritable()) {
+            long n = Math.min(demand.get(), BATCH_SIZE);
+            if (demand.get() != Long.MAX_VALUE) {
+              demand.addAndGet(-n);
+            }
+            outstanding.addAndGet(n);
+            request(n);
+          } else if (waiting.compareAndSet(false, true)) {
+            whenWritable(
+                () -> {
+                  waiting.set(false);
+                  drain();
+                });
+          }
+        }
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.rsocket.RSocket;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Established client side rsocket connection along with its negotiated state. */
+public final class ClientConnection {
+
+  private final RSocket rsocket;
+  private final MethodIdTable methodIds;
+  private final AtomicInteger outstanding = new AtomicInteger();
+
+  /**
+   * Constructor.
+   *
+   * @param rsocket rsocket
+   * @param methodIds negotiated method ids
+   */
+  public ClientConnection(RSocket rsocket, MethodIdTable methodIds) {
+    this.rsocket = Objects.requireNonNull(rsocket, "rsocket");
+    this.methodIds = Objects.requireNonNull(methodIds, "methodIds");
+  }
+
+  public RSocket rsocket() {
+    return rsocket;
+  }
+
+  public MethodIdTable methodIds() {
+    return methodIds;
+  }
+
+  /**
+   * Returns number of requests in progress over this connection.
+   *
+   * @return outstanding requests
+   */
+  public int outstanding() {
+    return outstanding.get();
+  }
+
+  /**
+   * Returns whether this connection can take requests at the moment, e.g. it's not out of lease.
+   *
+   * @return {@code true} if connection is available
+   */
+  public boolean isAvailable() {
+    return rsocket.availability() > 0;
+  }
+
+  void acquire() {
+    outstanding.incrementAndGet();
+  }
+
+  void release() {
+    outstanding.decrementAndGet();
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", ClientConnection.class.getSimpleName() + "[", "]")
+        .add("rsocket=" + rsocket)
+        .add("methodIds=" + methodIds)
+        .add("outstanding=" + outstanding)
+        .toString();
+  }
+}
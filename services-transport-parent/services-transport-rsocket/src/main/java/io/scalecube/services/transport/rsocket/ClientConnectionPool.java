@@ -0,0 +1,143 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.scalecube.net.Address;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client connections shared by all callers, up to {@code connectionsPerPeer} connections per
+ * remote address. Each request goes to the established connection with the least outstanding
+ * requests, preferring ones which are available (e.g. not out of lease). Connections are opened
+ * lazily: another one is opened only when every established connection is busy, so lightly loaded
+ * peers keep a single connection. Closed or failed connections free their slot.
+ */
+final class ClientConnectionPool {
+
+  private final int connectionsPerPeer;
+  private final ConcurrentMap<Address, Peer> peers = new ConcurrentHashMap<>();
+
+  ClientConnectionPool(int connectionsPerPeer) {
+    if (connectionsPerPeer < 1) {
+      throw new IllegalArgumentException("connectionsPerPeer must be positive");
+    }
+    this.connectionsPerPeer = connectionsPerPeer;
+  }
+
+  /**
+   * Selects connection to given address, opens new one if needed.
+   *
+   * @param address remote address
+   * @param connector opens new connection
+   * @return connection
+   */
+  Mono<ClientConnection> select(Address address, Supplier<Mono<ClientConnection>> connector) {
+    Peer peer = peers.get(address);
+    if (peer == null) {
+      peer = peers.computeIfAbsent(address, Peer::new);
+    }
+    return peer.select(connector);
+  }
+
+  private final class Peer {
+
+    private final Address address;
+    private final AtomicReferenceArray<Slot> slots;
+
+    private Peer(Address address) {
+      this.address = address;
+      this.slots = new AtomicReferenceArray<>(connectionsPerPeer);
+    }
+
+    private Mono<ClientConnection> select(Supplier<Mono<ClientConnection>> connector) {
+      while (true) {
+        ClientConnection best = null;
+        Slot pending = null;
+        int emptyIndex = -1;
+
+        for (int i = 0; i < connectionsPerPeer; i++) {
+          Slot slot = slots.get(i);
+          if (slot == null) {
+            if (emptyIndex < 0) {
+              emptyIndex = i;
+            }
+            continue;
+          }
+          ClientConnection connection = slot.connection;
+          if (connection == null) {
+            if (pending == null) {
+              pending = slot;
+            }
+            continue;
+          }
+          if (best == null || isBetter(connection, best)) {
+            best = connection;
+          }
+        }
+
+        if (best != null
+            && (best.outstanding() == 0 || !best.isAvailable() || emptyIndex < 0)) {
+          return Mono.just(best);
+        }
+        if (emptyIndex >= 0) {
+          Slot slot = new Slot(connector);
+          if (slots.compareAndSet(emptyIndex, null, slot)) {
+            return slot.mono;
+          }
+          continue; // lost the race for empty slot, look again
+        }
+        return pending.mono;
+      }
+    }
+
+    private boolean isBetter(ClientConnection connection, ClientConnection other) {
+      // unavailable connections go last, and don't make the pool grow: requests over them are
+      // rejected right away, and another connection would only work around the peer's lease
+      boolean available = connection.isAvailable();
+      if (available != other.isAvailable()) {
+        return available;
+      }
+      return connection.outstanding() < other.outstanding();
+    }
+
+    private void remove(Slot slot) {
+      for (int i = 0; i < connectionsPerPeer; i++) {
+        if (slots.compareAndSet(i, slot, null)) {
+          break;
+        }
+      }
+      for (int i = 0; i < connectionsPerPeer; i++) {
+        if (slots.get(i) != null) {
+          return;
+        }
+      }
+      peers.remove(address, this);
+    }
+
+    private final class Slot {
+
+      private final Mono<ClientConnection> mono;
+      private volatile ClientConnection connection;
+
+      private Slot(Supplier<Mono<ClientConnection>> connector) {
+        this.mono =
+            Mono.defer(connector)
+                .doOnNext(this::onConnected)
+                .doOnError(ex -> remove(this))
+                .cache();
+      }
+
+      private void onConnected(ClientConnection connection) {
+        this.connection = connection;
+        connection
+            .rsocket()
+            .onClose()
+            .doFinally(s -> remove(this))
+            .onErrorResume(th -> Mono.empty()) // logged by connection's own close hook
+            .subscribe();
+      }
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package io.scalecube.services.transport.rsocket;
 
 import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
 import io.netty.channel.epoll.Epoll;
@@ -14,6 +15,8 @@
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
 import io.netty.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import reactor.core.publisher.Mono;
@@ -35,6 +38,15 @@ public class DelegatedLoopResources implements LoopResources {
   private final EventLoopGroup workerGroup;
   private final AtomicBoolean running = new AtomicBoolean(true);
 
+  // resolved once per thread, a thread never joins or leaves worker group
+  private final FastThreadLocal<EventLoop> currentEventLoop =
+      new FastThreadLocal<EventLoop>() {
+        @Override
+        protected EventLoop initialValue() {
+          return findCurrentEventLoop();
+        }
+      };
+
   private DelegatedLoopResources(EventLoopGroup bossGroup, EventLoopGroup workerGroup) {
     this.bossGroup = bossGroup;
     this.workerGroup = workerGroup;
@@ -64,6 +76,24 @@ public static DelegatedLoopResources newServerLoopResources(EventLoopGroup worke
     return new DelegatedLoopResources(bossGroup, workerGroup);
   }
 
+  /**
+   * Returns event loop of worker group the current thread belongs to.
+   *
+   * @return event loop of current thread, or {@code null} if current thread is not a worker
+   */
+  public EventLoop currentEventLoop() {
+    return currentEventLoop.get();
+  }
+
+  private EventLoop findCurrentEventLoop() {
+    for (EventExecutor executor : workerGroup) {
+      if (executor.inEventLoop() && executor instanceof EventLoop) {
+        return (EventLoop) executor;
+      }
+    }
+    return null;
+  }
+
   @Override
   public EventLoopGroup onClient(boolean useNative) {
     return workerGroup;
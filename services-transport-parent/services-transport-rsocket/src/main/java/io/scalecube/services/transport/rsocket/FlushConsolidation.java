@@ -0,0 +1,136 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import reactor.netty.Connection;
+
+/**
+ * Consolidates flushes of netty channel, so that small frames written one by one go out in fewer
+ * {@code write} syscalls. Flush is postponed until {@code maxFlushes} flushes were requested or
+ * {@code maxDelayNanos} passed since the first postponed one, whichever comes first. While channel
+ * reads, flushes are postponed until read completes: responses to a batch of requests then go out
+ * together, like in netty's {@code FlushConsolidationHandler}. Zero delay means flush is postponed
+ * only until current event loop task is done.
+ *
+ * <p>Not thread-safe, all methods are called on event loop of the channel.
+ */
+final class FlushConsolidation extends ChannelDuplexHandler {
+
+  private static final String HANDLER_NAME = "scalecube.flushConsolidation";
+
+  private final int maxFlushes;
+  private final long maxDelayNanos;
+
+  private ChannelHandlerContext ctx;
+  private int pendingFlushes;
+  private boolean readInProgress;
+  private Future<?> scheduledFlush;
+
+  FlushConsolidation(int maxFlushes, long maxDelayNanos) {
+    this.maxFlushes = maxFlushes;
+    this.maxDelayNanos = maxDelayNanos;
+  }
+
+  /**
+   * Installs flush consolidation handler on given connection.
+   *
+   * @param connection connection
+   * @param maxFlushes max number of consolidated flushes
+   * @param maxDelayNanos max delay of flush
+   */
+  static void install(Connection connection, int maxFlushes, long maxDelayNanos) {
+    connection.addHandlerLast(HANDLER_NAME, new FlushConsolidation(maxFlushes, maxDelayNanos));
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) {
+    this.ctx = ctx;
+  }
+
+  @Override
+  public void flush(ChannelHandlerContext ctx) {
+    if (++pendingFlushes >= maxFlushes) {
+      flushNow();
+    } else if (!readInProgress) {
+      scheduleFlush();
+    }
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) {
+    readInProgress = true;
+    ctx.fireChannelRead(msg);
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) {
+    readInProgress = false;
+    if (pendingFlushes > 0) {
+      scheduleFlush();
+    }
+    ctx.fireChannelReadComplete();
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+    if (!ctx.channel().isWritable()) {
+      flushIfPending(); // let outbound buffer drain instead of waiting for the delay
+    }
+    ctx.fireChannelWritabilityChanged();
+  }
+
+  @Override
+  public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+    flushIfPending();
+    ctx.disconnect(promise);
+  }
+
+  @Override
+  public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+    flushIfPending();
+    ctx.close(promise);
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+    flushIfPending();
+    ctx.fireExceptionCaught(cause);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) {
+    flushIfPending();
+  }
+
+  private void scheduleFlush() {
+    if (scheduledFlush == null) {
+      scheduledFlush =
+          maxDelayNanos > 0
+              ? ctx.executor().schedule(this::onScheduledFlush, maxDelayNanos, TimeUnit.NANOSECONDS)
+              : ctx.executor().submit(this::onScheduledFlush);
+    }
+  }
+
+  private void onScheduledFlush() {
+    scheduledFlush = null;
+    flushIfPending();
+  }
+
+  private void flushIfPending() {
+    if (pendingFlushes > 0) {
+      flushNow();
+    }
+  }
+
+  private void flushNow() {
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel(false);
+      scheduledFlush = null;
+    }
+    pendingFlushes = 0;
+    ctx.flush();
+  }
+}
@@ -0,0 +1,197 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.lease.Lease;
+import io.rsocket.lease.LeaseStats;
+import io.rsocket.lease.Leases;
+import io.rsocket.util.RSocketProxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Server side admission control over rsocket leases. Controller keeps concurrency limit of the
+ * server, adjusted from observed request-response latency: the limit grows while latency stays
+ * close to the lowest one seen, and shrinks as requests start to queue up. Every connection is
+ * periodically granted lease for as many requests as keep in-flight requests around the limit,
+ * shared between connections by their recent demand. Clients don't exceed their leases, so
+ * overload turns into immediate rejections on client side instead of queueing on server side.
+ *
+ * <p>Only request-response calls are measured, streams and channels are long-lived and would
+ * distort both latency and in-flight count, though they take lease just as well.
+ */
+final class LeaseController {
+
+  /** Service endpoint tag which tells that server transport issues leases. */
+  static final String LEASE_TAG = "rsocket.lease";
+
+  static final Duration LEASE_INTERVAL = Duration.ofMillis(100);
+  private static final int LEASE_TTL_MILLIS = 1000; // replaced by the next lease way before that
+
+  private static final double INITIAL_LIMIT = 100;
+  private static final double MIN_LIMIT = 4;
+  private static final double MAX_LIMIT = 10_000;
+  private static final double LATENCY_SMOOTHING = 0.1;
+  private static final double LIMIT_SMOOTHING = 0.2;
+  private static final double MIN_LATENCY_DRIFT = 1.005; // lets baseline recover if it went up
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger connections = new AtomicInteger();
+  private final AtomicLong demand = new AtomicLong(); // sum of last demand of all connections
+  private final AtomicLong lastUpdate = new AtomicLong(System.nanoTime());
+
+  // updated racily, lost updates are fine for moving averages
+  private volatile double latency;
+  private volatile double minLatency = Double.MAX_VALUE;
+  private volatile double limit = INITIAL_LIMIT;
+
+  /**
+   * Returns whether service endpoint tags tell that its server transport issues leases.
+   *
+   * @param tags service endpoint tags
+   * @return {@code true} if client has to honor leases
+   */
+  static boolean isLeaseAdvertised(Map<String, String> tags) {
+    return Boolean.parseBoolean(tags.get(LEASE_TAG));
+  }
+
+  /**
+   * Returns leases of new connection, to be used as {@code RSocketServer} leases supplier.
+   *
+   * @return leases
+   */
+  Leases<ConnectionStats> leases() {
+    ConnectionStats stats = new ConnectionStats();
+    return Leases.<ConnectionStats>create().sender(s -> leases(stats)).stats(stats);
+  }
+
+  /**
+   * Wraps responder rsocket, so that its requests are measured. To be used as {@code
+   * RSocketServer} responder interceptor.
+   *
+   * @param rsocket responder rsocket
+   * @return measured rsocket
+   */
+  RSocket intercept(RSocket rsocket) {
+    return new RSocketProxy(rsocket) {
+      @Override
+      public Mono<Payload> requestResponse(Payload payload) {
+        return track(super.requestResponse(payload));
+      }
+    };
+  }
+
+  int inFlight() {
+    return inFlight.get();
+  }
+
+  int limit() {
+    return (int) limit;
+  }
+
+  private <T> Mono<T> track(Mono<T> request) {
+    return Mono.defer(
+        () -> {
+          long start = System.nanoTime();
+          inFlight.incrementAndGet();
+          return request.doFinally(
+              signal -> {
+                inFlight.decrementAndGet();
+                if (signal == SignalType.ON_COMPLETE) {
+                  record(System.nanoTime() - start);
+                }
+              });
+        });
+  }
+
+  void record(long latencyNanos) {
+    double latency = this.latency;
+    this.latency =
+        latency > 0 ? latency + (latencyNanos - latency) * LATENCY_SMOOTHING : latencyNanos;
+    if (latencyNanos < minLatency) {
+      minLatency = latencyNanos;
+    }
+  }
+
+  private Flux<Lease> leases(ConnectionStats stats) {
+    return Flux.interval(Duration.ZERO, LEASE_INTERVAL)
+        .map(tick -> Lease.create(LEASE_TTL_MILLIS, nextLease(stats)))
+        .doOnSubscribe(s -> connections.incrementAndGet())
+        .doFinally(
+            s -> {
+              connections.decrementAndGet();
+              demand.addAndGet(-stats.lastDemand);
+            });
+  }
+
+  /**
+   * Calculates number of requests given connection may send until the next lease.
+   *
+   * @param stats connection stats
+   * @return number of requests
+   */
+  int nextLease(ConnectionStats stats) {
+    updateLimit(System.nanoTime());
+
+    int connectionDemand = stats.requests.getAndSet(0);
+    long totalDemand = demand.addAndGet(connectionDemand - stats.lastDemand);
+    stats.lastDemand = connectionDemand;
+
+    double limit = this.limit;
+    double latency = this.latency;
+    double allowance = Math.max(0, limit - inFlight.get());
+    if (latency > 0) {
+      // requests which complete during the interval at full concurrency, by little's law
+      allowance += limit * LEASE_INTERVAL.toNanos() / latency;
+    }
+    double share =
+        (connectionDemand + 1.0) / (Math.max(totalDemand, 0) + Math.max(connections.get(), 1));
+    return (int) Math.min(Integer.MAX_VALUE, Math.ceil(allowance * Math.min(share, 1)));
+  }
+
+  /**
+   * Adjusts the limit by latency gradient, at most once per lease interval.
+   *
+   * @param now current {@link System#nanoTime()}
+   */
+  void updateLimit(long now) {
+    long last = lastUpdate.get();
+    if (now - last < LEASE_INTERVAL.toNanos() || !lastUpdate.compareAndSet(last, now)) {
+      return;
+    }
+    double latency = this.latency;
+    if (latency <= 0) {
+      return; // nothing measured yet
+    }
+    double minLatency = Math.min(this.minLatency * MIN_LATENCY_DRIFT, latency);
+    this.minLatency = minLatency;
+
+    double limit = this.limit;
+    double gradient = Math.max(0.5, Math.min(1.0, minLatency / latency));
+    double newLimit = limit * gradient + Math.sqrt(limit); // leaves room for short queue
+    if (inFlight.get() < limit / 2) {
+      newLimit = Math.min(newLimit, limit); // not used up, so there is nothing to learn
+    }
+    newLimit = limit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING;
+    this.limit = Math.max(MIN_LIMIT, Math.min(MAX_LIMIT, newLimit));
+  }
+
+  /** Requests seen by server on connection since its last lease. */
+  static final class ConnectionStats implements LeaseStats {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int lastDemand;
+
+    @Override
+    public void onEvent(EventType eventType) {
+      if (eventType == EventType.ACCEPT || eventType == EventType.REJECT) {
+        requests.incrementAndGet();
+      }
+    }
+  }
+}
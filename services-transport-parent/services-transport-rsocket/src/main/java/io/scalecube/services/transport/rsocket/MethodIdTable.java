@@ -0,0 +1,147 @@
+package io.scalecube.services.transport.rsocket;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.scalecube.services.exceptions.MessageCodecException;
+import io.scalecube.services.transport.api.ReferenceCountUtil;
+import io.scalecube.services.transport.api.VarIntUtil;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.StringJoiner;
+
+/**
+ * Table of method ids by qualifiers negotiated between client and server right after connection
+ * setup. Once negotiated, client sends request metadata as varint {@code methodId + 1} followed by
+ * headers without qualifier header, where {@code 0} stands for "no method id, qualifier is in
+ * headers". This way server dispatches by array index and qualifier string doesn't travel in each
+ * request frame.
+ *
+ * <p>Negotiation is a regular request-response with {@link #QUALIFIER}, servers which don't
+ * support it reply with error, in that case client stays with {@link #NOT_NEGOTIATED} table and
+ * sends qualifiers as before.
+ */
+public final class MethodIdTable {
+
+  /** Qualifier of the method ids negotiation request. */
+  public static final String QUALIFIER = "io.scalecube.services.transport/methodIds";
+
+  /** Table of the connection which didn't negotiate method ids. */
+  public static final MethodIdTable NOT_NEGOTIATED = new MethodIdTable(Collections.emptyMap());
+
+  private static final int NO_METHOD_ID = -1;
+
+  private final Map<String, Integer> methodIds;
+
+  private MethodIdTable(Map<String, Integer> methodIds) {
+    this.methodIds = methodIds;
+  }
+
+  /**
+   * Returns method id by given qualifier.
+   *
+   * @param qualifier qualifier
+   * @return method id, or {@code -1} if qualifier is unknown
+   */
+  public int methodId(String qualifier) {
+    if (qualifier == null) {
+      return NO_METHOD_ID;
+    }
+    Integer methodId = methodIds.get(qualifier);
+    return methodId != null ? methodId : NO_METHOD_ID;
+  }
+
+  public boolean isNegotiated() {
+    return this != NOT_NEGOTIATED;
+  }
+
+  /**
+   * Encodes method ids table.
+   *
+   * @param allocator buffer allocator
+   * @param methodIds method ids by qualifiers
+   * @return encoded table
+   */
+  public static ByteBuf encode(ByteBufAllocator allocator, Map<String, Integer> methodIds) {
+    ByteBuf buffer = allocator.buffer();
+    try {
+      VarIntUtil.writeVarInt(buffer, methodIds.size());
+      for (Entry<String, Integer> entry : methodIds.entrySet()) {
+        VarIntUtil.writeVarInt(buffer, entry.getValue());
+        VarIntUtil.writeVarInt(buffer, ByteBufUtil.utf8Bytes(entry.getKey()));
+        buffer.writeCharSequence(entry.getKey(), UTF_8);
+      }
+    } catch (Throwable ex) {
+      ReferenceCountUtil.safestRelease(buffer);
+      throw new MessageCodecException("Failed to encode method ids", ex);
+    }
+    return buffer;
+  }
+
+  /**
+   * Decodes method ids table. Buffer is not released.
+   *
+   * @param buffer encoded table
+   * @return method ids table
+   */
+  public static MethodIdTable decode(ByteBuf buffer) {
+    try {
+      int size = VarIntUtil.readVarInt(buffer);
+      Map<String, Integer> methodIds = new HashMap<>(size * 2);
+      for (int i = 0; i < size; i++) {
+        int methodId = VarIntUtil.readVarInt(buffer);
+        int length = VarIntUtil.readVarInt(buffer);
+        methodIds.put(buffer.readCharSequence(length, UTF_8).toString(), methodId);
+      }
+      return new MethodIdTable(methodIds);
+    } catch (Throwable ex) {
+      throw new MessageCodecException("Failed to decode method ids", ex);
+    }
+  }
+
+  /**
+   * Writes request metadata in negotiated layout, given headers buffer is released.
+   *
+   * @param allocator buffer allocator
+   * @param methodId method id, or {@code -1} if headers contain qualifier
+   * @param headersBuffer encoded headers
+   * @return metadata buffer
+   */
+  public static ByteBuf encodeMetadata(
+      ByteBufAllocator allocator, int methodId, ByteBuf headersBuffer) {
+    int prefix = methodId + 1;
+    ByteBuf metadata =
+        allocator.buffer(VarIntUtil.varIntSize(prefix) + headersBuffer.readableBytes());
+    try {
+      VarIntUtil.writeVarInt(metadata, prefix);
+      metadata.writeBytes(
+          headersBuffer, headersBuffer.readerIndex(), headersBuffer.readableBytes());
+    } finally {
+      ReferenceCountUtil.safestRelease(headersBuffer);
+    }
+    return metadata;
+  }
+
+  /**
+   * Reads method id prefix of request metadata in negotiated layout, reader index of the buffer
+   * is moved to the start of headers.
+   *
+   * @param metadata metadata buffer
+   * @return method id, or {@code -1} if headers contain qualifier
+   */
+  public static int readMethodId(ByteBuf metadata) {
+    return VarIntUtil.readVarInt(metadata) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", MethodIdTable.class.getSimpleName() + "[", "]")
+        .add("negotiated=" + isNegotiated())
+        .add("methodIds(" + methodIds.size() + ")")
+        .toString();
+  }
+}
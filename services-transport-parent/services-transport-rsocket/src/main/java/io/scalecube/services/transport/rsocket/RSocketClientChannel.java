@@ -1,9 +1,14 @@
 package io.scalecube.services.transport.rsocket;
 
+import io.netty.buffer.ByteBuf;
 import io.rsocket.Payload;
 import io.rsocket.RSocket;
+import io.rsocket.exceptions.RejectedException;
+import io.rsocket.lease.MissingLeaseException;
 import io.rsocket.util.ByteBufPayload;
 import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.exceptions.ServiceRejectedException;
+import io.scalecube.services.exceptions.ServiceUnavailableException;
 import io.scalecube.services.transport.api.ClientChannel;
 import io.scalecube.services.transport.api.ServiceMessageCodec;
 import java.lang.reflect.Type;
@@ -13,26 +18,47 @@
 
 public class RSocketClientChannel implements ClientChannel {
 
-  private final Mono<RSocket> rsocket;
+  private final Mono<ClientConnection> connection;
   private final ServiceMessageCodec messageCodec;
 
   public RSocketClientChannel(Mono<RSocket> rsocket, ServiceMessageCodec codec) {
-    this.rsocket = rsocket;
+    this(codec, rsocket.map(r -> new ClientConnection(r, MethodIdTable.NOT_NEGOTIATED)));
+  }
+
+  private RSocketClientChannel(ServiceMessageCodec codec, Mono<ClientConnection> connection) {
+    this.connection = connection;
     this.messageCodec = codec;
   }
 
+  /**
+   * Creates client channel over connection which might have negotiated method ids.
+   *
+   * @param connection client connection
+   * @param codec message codec
+   * @return client channel
+   */
+  public static RSocketClientChannel create(
+      Mono<ClientConnection> connection, ServiceMessageCodec codec) {
+    return new RSocketClientChannel(codec, connection);
+  }
+
   @Override
   public Mono<ServiceMessage> requestResponse(ServiceMessage message, Type responseType) {
-    return rsocket
-        .flatMap(rsocket -> rsocket.requestResponse(toPayload(message)))
+    return connection
+        .flatMap(
+            c ->
+                track(c, Mono.defer(() -> c.rsocket().requestResponse(toPayload(message, c)))))
+        .onErrorMap(RSocketClientChannel::isRejected, th -> toRejectedException(message, th))
         .map(this::toMessage)
         .map(msg -> ServiceMessageCodec.decodeData(msg, responseType));
   }
 
   @Override
   public Flux<ServiceMessage> requestStream(ServiceMessage message, Type responseType) {
-    return rsocket
-        .flatMapMany(rsocket -> rsocket.requestStream(toPayload(message)))
+    return connection
+        .flatMapMany(
+            c -> track(c, Flux.defer(() -> c.rsocket().requestStream(toPayload(message, c)))))
+        .onErrorMap(RSocketClientChannel::isRejected, th -> toRejectedException(message, th))
         .map(this::toMessage)
         .map(msg -> ServiceMessageCodec.decodeData(msg, responseType));
   }
@@ -40,14 +66,63 @@ public Flux<ServiceMessage> requestStream(ServiceMessage message, Type responseT
   @Override
   public Flux<ServiceMessage> requestChannel(
       Publisher<ServiceMessage> publisher, Type responseType) {
-    return rsocket
-        .flatMapMany(rsocket -> rsocket.requestChannel(Flux.from(publisher).map(this::toPayload)))
+    return connection
+        .flatMapMany(
+            c ->
+                track(
+                    c,
+                    Flux.defer(
+                        () ->
+                            c.rsocket()
+                                .requestChannel(
+                                    Flux.from(publisher).map(message -> toPayload(message, c))))))
+        // requests publisher is consumed already, so the request can't be routed again
+        .onErrorMap(RSocketClientChannel::isRejected, ServiceUnavailableException::new)
         .map(this::toMessage)
         .map(msg -> ServiceMessageCodec.decodeData(msg, responseType));
   }
 
-  private Payload toPayload(ServiceMessage request) {
-    return messageCodec.encodeAndTransform(request, ByteBufPayload::create);
+  private static boolean isRejected(Throwable th) {
+    // no lease on client side, or lease exhausted on server side, request wasn't processed
+    return th instanceof MissingLeaseException || th instanceof RejectedException;
+  }
+
+  private static ServiceUnavailableException toRejectedException(
+      ServiceMessage request, Throwable th) {
+    // buffer data was released along with rejected payload, so such request can't be sent again
+    return request.hasData(ByteBuf.class)
+        ? new ServiceUnavailableException(th)
+        : new ServiceRejectedException(th);
+  }
+
+  private static <T> Mono<T> track(ClientConnection connection, Mono<T> request) {
+    return request
+        .doOnSubscribe(s -> connection.acquire())
+        .doFinally(s -> connection.release());
+  }
+
+  private static <T> Flux<T> track(ClientConnection connection, Flux<T> request) {
+    return request
+        .doOnSubscribe(s -> connection.acquire())
+        .doFinally(s -> connection.release());
+  }
+
+  private Payload toPayload(ServiceMessage request, ClientConnection connection) {
+    MethodIdTable methodIds = connection.methodIds();
+    if (!methodIds.isNegotiated()) {
+      return messageCodec.encodeAndTransform(request, ByteBufPayload::create);
+    }
+    int methodId = methodIds.methodId(request.qualifier());
+    ServiceMessage message = methodId < 0 ? request : withoutQualifier(request);
+    return messageCodec.encodeAndTransform(
+        message,
+        (data, headers) ->
+            ByteBufPayload.create(
+                data, MethodIdTable.encodeMetadata(messageCodec.allocator(), methodId, headers)));
+  }
+
+  private static ServiceMessage withoutQualifier(ServiceMessage message) {
+    return ServiceMessage.from(message).removeHeader(ServiceMessage.HEADER_QUALIFIER).build();
   }
 
   private ServiceMessage toMessage(Payload payload) {
@@ -1,15 +1,19 @@
 package io.scalecube.services.transport.rsocket;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.EventLoop;
 import io.rsocket.Payload;
 import io.rsocket.RSocket;
 import io.rsocket.core.RSocketConnector;
+import io.rsocket.core.Resume;
+import io.rsocket.exceptions.ApplicationErrorException;
 import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.lease.Leases;
 import io.rsocket.util.ByteBufPayload;
 import io.scalecube.net.Address;
 import io.scalecube.services.ServiceReference;
+import io.scalecube.services.api.ServiceMessage;
 import io.scalecube.services.auth.CredentialsSupplier;
 import io.scalecube.services.exceptions.MessageCodecException;
 import io.scalecube.services.exceptions.ServiceException;
@@ -21,28 +25,45 @@
 import io.scalecube.services.transport.api.ReferenceCountUtil;
 import io.scalecube.services.transport.api.ServiceMessageCodec;
 import io.scalecube.utils.MaskUtil;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Schedulers;
 
 public class RSocketClientTransport implements ClientTransport {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RSocketClientTransport.class);
 
-  private final ThreadLocal<Map<Address, Mono<RSocket>>> rsockets =
-      ThreadLocal.withInitial(ConcurrentHashMap::new);
+  private static final Duration FIRST_LEASE_TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration NEGOTIATION_TIMEOUT = Duration.ofSeconds(10);
 
   private final CredentialsSupplier credentialsSupplier;
   private final ConnectionSetupCodec connectionSetupCodec;
-  private final HeadersCodec headersCodec;
-  private final Collection<DataCodec> dataCodecs;
+  private final ServiceMessageCodec messageCodec;
   private final RSocketClientTransportFactory clientTransportFactory;
+  private final PayloadDecoder payloadDecoder;
+  private final int connectionsPerPeer;
+  private final ClientConnectionPool connectionPool;
+  private final DelegatedLoopResources loopResources;
+  private final boolean sharedMemory;
+  private final SharedMemoryPoller sharedMemoryPoller;
+  private final Function<Path, RSocketClientTransportFactory> unixDomainSocketTransportFactory;
+  private final Resume resume;
+  private final ConcurrentMap<EventLoop, ClientConnectionPool> loopConnectionPools =
+      new ConcurrentHashMap<>();
 
   /**
    * Constructor for this transport.
@@ -59,26 +80,110 @@ public RSocketClientTransport(
       HeadersCodec headersCodec,
       Collection<DataCodec> dataCodecs,
       RSocketClientTransportFactory clientTransportFactory) {
-    this.credentialsSupplier = credentialsSupplier;
-    this.connectionSetupCodec = connectionSetupCodec;
-    this.headersCodec = headersCodec;
-    this.dataCodecs = dataCodecs;
-    this.clientTransportFactory = clientTransportFactory;
+    this(
+        new RSocketTransportOptions()
+            .credentialsSupplier(credentialsSupplier)
+            .connectionSetupCodec(connectionSetupCodec)
+            .headersCodec(headersCodec)
+            .dataCodecs(dataCodecs)
+            .clientTransportFactory(clientTransportFactory));
+  }
+
+  /**
+   * Constructor for this transport.
+   *
+   * @param options transport options, see {@link RSocketTransportOptions} for client settings
+   */
+  public RSocketClientTransport(RSocketTransportOptions options) {
+    this.credentialsSupplier = options.credentialsSupplier();
+    this.connectionSetupCodec = options.connectionSetupCodec();
+    this.messageCodec =
+        new ServiceMessageCodec(
+            options.headersCodec(), options.dataCodecs(), options.allocator());
+    this.clientTransportFactory = options.clientTransportFactory();
+    this.payloadDecoder = options.payloadDecoder();
+    this.connectionsPerPeer = options.connectionsPerPeer();
+    this.connectionPool = new ClientConnectionPool(connectionsPerPeer);
+    this.loopResources = options.loopResources();
+    this.sharedMemory = options.sharedMemoryDirectory() != null;
+    this.sharedMemoryPoller =
+        sharedMemory ? new SharedMemoryPoller("client", options.sharedMemoryIdleOptions()) : null;
+    this.unixDomainSocketTransportFactory = options.unixDomainSocketClientTransportFactory();
+    this.resume = options.resume();
   }
 
   @Override
   public ClientChannel create(ServiceReference serviceReference) {
-    final Map<Address, Mono<RSocket>> monoMap = rsockets.get(); // keep reference for threadsafety
     final Address address = serviceReference.address();
-    Mono<RSocket> mono =
-        monoMap.computeIfAbsent(
-            address,
-            key ->
-                getCredentials(serviceReference)
-                    .flatMap(creds -> connect(key, creds, monoMap))
-                    .cache()
-                    .doOnError(ex -> monoMap.remove(key)));
-    return new RSocketClientChannel(mono, new ServiceMessageCodec(headersCodec, dataCodecs));
+    // connection is selected per request, so that requests of one channel are spread across
+    // connections to the peer, and land on connection of caller's event loop
+    Mono<ClientConnection> connection =
+        Mono.defer(
+            () -> {
+              EventLoop eventLoop = loopResources != null ? loopResources.currentEventLoop() : null;
+              ClientConnectionPool pool =
+                  eventLoop != null ? loopConnectionPool(eventLoop) : connectionPool;
+              return pool.select(address, () -> connect(serviceReference, eventLoop));
+            });
+    return RSocketClientChannel.create(connection, messageCodec);
+  }
+
+  private ClientConnectionPool loopConnectionPool(EventLoop eventLoop) {
+    ClientConnectionPool pool = loopConnectionPools.get(eventLoop);
+    if (pool == null) {
+      pool =
+          loopConnectionPools.computeIfAbsent(
+              eventLoop, key -> new ClientConnectionPool(connectionsPerPeer));
+    }
+    return pool;
+  }
+
+  private Mono<ClientConnection> connect(ServiceReference serviceReference, EventLoop eventLoop) {
+    final Address address = serviceReference.address();
+    Mono<Map<String, String>> credentials = getCredentials(serviceReference);
+    if (eventLoop != null) {
+      // worker group is colocated, so connecting from event loop thread binds the channel to
+      // this event loop
+      credentials = credentials.publishOn(Schedulers.fromExecutor(eventLoop));
+    }
+    return credentials
+        .flatMap(creds -> connect(serviceReference, creds))
+        .flatMap(rsocket -> negotiateMethodIds(address, rsocket));
+  }
+
+  private io.rsocket.transport.ClientTransport clientTransport(ServiceReference serviceReference) {
+    String directory = sharedMemoryDirectory(serviceReference);
+    if (directory != null) {
+      LOGGER.debug(
+          "[rsocket][client][{}] Connecting over shared memory: {}",
+          serviceReference.address(),
+          directory);
+      return new SharedMemoryClientTransport(Paths.get(directory), sharedMemoryPoller);
+    }
+    if (unixDomainSocketTransportFactory != null) {
+      String socketPath =
+          serviceReference.tags().get(RSocketServerTransport.UNIX_DOMAIN_SOCKET_TAG);
+      if (socketPath != null && Files.exists(Paths.get(socketPath))) {
+        LOGGER.debug(
+            "[rsocket][client][{}] Connecting over unix domain socket: {}",
+            serviceReference.address(),
+            socketPath);
+        return unixDomainSocketTransportFactory
+            .apply(Paths.get(socketPath))
+            .clientTransport(serviceReference.address());
+      }
+    }
+    return clientTransportFactory.clientTransport(serviceReference.address());
+  }
+
+  private String sharedMemoryDirectory(ServiceReference serviceReference) {
+    if (!sharedMemory) {
+      return null;
+    }
+    String directory = serviceReference.tags().get(SharedMemoryServerTransport.DIRECTORY_TAG);
+    return directory != null && SharedMemoryServerTransport.isReachable(directory)
+        ? directory
+        : null;
   }
 
   private Mono<Map<String, String>> getCredentials(ServiceReference serviceReference) {
@@ -107,23 +212,52 @@ private Mono<Map<String, String>> getCredentials(ServiceReference serviceReferen
         });
   }
 
-  private Mono<RSocket> connect(
-      Address address, Map<String, String> creds, Map<Address, Mono<RSocket>> monoMap) {
-    return RSocketConnector.create()
-        .payloadDecoder(PayloadDecoder.DEFAULT)
-        .setupPayload(encodeConnectionSetup(new ConnectionSetup(creds)))
-        .connect(() -> clientTransportFactory.clientTransport(address))
+  private Mono<RSocket> connect(ServiceReference serviceReference, Map<String, String> creds) {
+    final Address address = serviceReference.address();
+    return Mono.defer(
+            () -> {
+              RSocketConnector connector =
+                  RSocketConnector.create()
+                      .payloadDecoder(payloadDecoder)
+                      .setupPayload(encodeConnectionSetup(new ConnectionSetup(creds)));
+              if (resume != null) {
+                // transport supplier is called again on resumption, and may pick another path
+                connector.resume(resume);
+              }
+              if (sharedMemoryDirectory(serviceReference) != null) {
+                // frames larger than the ring are split
+                connector.fragment(SharedMemoryServerTransport.MTU);
+              }
+              if (!LeaseController.isLeaseAdvertised(serviceReference.tags())) {
+                return connector.connect(() -> clientTransport(serviceReference));
+              }
+              // requests are rejected until the first lease comes, so wait for it
+              MonoProcessor<Void> firstLease = MonoProcessor.create();
+              return connector
+                  .lease(
+                      () ->
+                          Leases.create()
+                              .receiver(
+                                  leases ->
+                                      leases
+                                          .take(1)
+                                          .subscribe(
+                                              null, firstLease::onError, firstLease::onComplete)))
+                  .connect(() -> clientTransport(serviceReference))
+                  .flatMap(
+                      rsocket ->
+                          firstLease
+                              .timeout(FIRST_LEASE_TIMEOUT)
+                              .doOnError(th -> rsocket.dispose())
+                              .thenReturn(rsocket));
+            })
         .doOnSuccess(
             rsocket -> {
               LOGGER.debug("[rsocket][client][{}] Connected successfully", address);
               // setup shutdown hook
               rsocket
                   .onClose()
-                  .doFinally(
-                      s -> {
-                        monoMap.remove(address);
-                        LOGGER.debug("[rsocket][client][{}] Connection closed", address);
-                      })
+                  .doFinally(s -> LOGGER.debug("[rsocket][client][{}] Connection closed", address))
                   .doOnError(
                       th ->
                           LOGGER.warn(
@@ -138,13 +272,65 @@ private Mono<RSocket> connect(
                     "[rsocket][client][{}] Failed to connect, cause: {}", address, th.toString()));
   }
 
+  Mono<ClientConnection> negotiateMethodIds(Address address, RSocket rsocket) {
+    return Mono.defer(
+            () ->
+                rsocket.requestResponse(
+                    messageCodec.encodeAndTransform(
+                        ServiceMessage.builder().qualifier(MethodIdTable.QUALIFIER).build(),
+                        ByteBufPayload::create)))
+        .timeout(NEGOTIATION_TIMEOUT)
+        .map(
+            payload -> {
+              try {
+                ServiceMessage message =
+                    messageCodec.decode(
+                        payload.sliceData().retain(), payload.sliceMetadata().retain());
+                try {
+                  return message.isError()
+                      ? MethodIdTable.NOT_NEGOTIATED
+                      : MethodIdTable.decode(message.data());
+                } finally {
+                  ReferenceCountUtil.safestRelease(message.data());
+                }
+              } finally {
+                payload.release();
+              }
+            })
+        // server which doesn't support negotiation rejects it as unknown qualifier, and server
+        // which does switches to negotiated layout only once its reply is encoded, so on rejection
+        // both sides stay with qualifier frames
+        .onErrorResume(
+            ApplicationErrorException.class,
+            th -> {
+              LOGGER.debug(
+                  "[rsocket][client][{}] Method ids are not negotiated, cause: {}",
+                  address,
+                  th.toString());
+              return Mono.just(MethodIdTable.NOT_NEGOTIATED);
+            })
+        .doOnSuccess(
+            methodIds ->
+                LOGGER.debug("[rsocket][client][{}] Negotiated: {}", address, methodIds))
+        .doOnError(
+            th -> {
+              // server may have switched to negotiated layout, so connection is unusable
+              LOGGER.warn(
+                  "[rsocket][client][{}] Failed to negotiate method ids, cause: {}",
+                  address,
+                  th.toString());
+              rsocket.dispose();
+            })
+        .map(methodIds -> new ClientConnection(rsocket, methodIds));
+  }
+
   private static Map<String, String> mask(Map<String, String> creds) {
     return creds.entrySet().stream()
         .collect(Collectors.toMap(Entry::getKey, entry -> MaskUtil.mask(entry.getValue())));
   }
 
   private Payload encodeConnectionSetup(ConnectionSetup connectionSetup) {
-    ByteBuf byteBuf = ByteBufAllocator.DEFAULT.buffer();
+    ByteBuf byteBuf = messageCodec.allocator().buffer();
     try {
       connectionSetupCodec.encode(new ByteBufOutputStream(byteBuf), connectionSetup);
     } catch (Throwable ex) {
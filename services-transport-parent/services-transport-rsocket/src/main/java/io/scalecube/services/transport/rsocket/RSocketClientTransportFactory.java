@@ -1,10 +1,14 @@
 package io.scalecube.services.transport.rsocket;
 
 import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
 import io.rsocket.transport.ClientTransport;
 import io.rsocket.transport.netty.client.TcpClientTransport;
 import io.rsocket.transport.netty.client.WebsocketClientTransport;
 import io.scalecube.net.Address;
+import java.nio.file.Path;
 import java.util.function.Function;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.LoopResources;
@@ -30,11 +34,25 @@ static Function<LoopResources, RSocketClientTransportFactory> tcp() {
    * @return factory function for {@link RSocketClientTransportFactory}
    */
   static Function<LoopResources, RSocketClientTransportFactory> tcp(boolean isSecured) {
+    return tcp(isSecured, new SocketBufferOptions());
+  }
+
+  /**
+   * Returns rsocket tcp client transport factory with given socket buffer options.
+   *
+   * @see TcpClientTransport
+   * @param isSecured is client transport secured
+   * @param bufferOptions socket buffer options
+   * @return factory function for {@link RSocketClientTransportFactory}
+   */
+  static Function<LoopResources, RSocketClientTransportFactory> tcp(
+      boolean isSecured, SocketBufferOptions bufferOptions) {
     return (LoopResources loopResources) ->
         (RSocketClientTransportFactory)
             address -> {
               TcpClient tcpClient =
-                  TcpClient.newConnection()
+                  bufferOptions
+                      .apply(TcpClient.newConnection())
                       .runOn(loopResources)
                       .host(address.host())
                       .port(address.port())
@@ -63,6 +81,19 @@ static Function<LoopResources, RSocketClientTransportFactory> websocket() {
    * @return factory function for {@link RSocketClientTransportFactory}
    */
   static Function<LoopResources, RSocketClientTransportFactory> websocket(boolean isSecured) {
+    return websocket(isSecured, new SocketBufferOptions());
+  }
+
+  /**
+   * Returns rsocket websocket client transport factory with given socket buffer options.
+   *
+   * @see WebsocketClientTransport
+   * @param isSecured is client transport secured
+   * @param bufferOptions socket buffer options
+   * @return factory function for {@link RSocketClientTransportFactory}
+   */
+  static Function<LoopResources, RSocketClientTransportFactory> websocket(
+      boolean isSecured, SocketBufferOptions bufferOptions) {
     return (LoopResources loopResources) ->
         (RSocketClientTransportFactory)
             address ->
@@ -70,18 +101,44 @@ static Function<LoopResources, RSocketClientTransportFactory> websocket(boolean
                     HttpClient.newConnection()
                         .tcpConfiguration(
                             tcpClient -> {
-                              TcpClient tcpClient1 =
-                                  tcpClient
+                              TcpClient configuredClient =
+                                  bufferOptions
+                                      .apply(tcpClient)
                                       .runOn(loopResources)
                                       .host(address.host())
                                       .port(address.port())
                                       .option(ChannelOption.TCP_NODELAY, true)
                                       .option(ChannelOption.SO_KEEPALIVE, true)
                                       .option(ChannelOption.SO_REUSEADDR, true);
-                              return isSecured ? tcpClient1.secure() : tcpClient1;
+                              return isSecured ? configuredClient.secure() : configuredClient;
                             }),
                     "/");
   }
 
+  /**
+   * Returns rsocket unix domain socket client transport factory, which connects to given socket
+   * regardless of address. Requires native epoll transport, loop resources must run on epoll event
+   * loop group.
+   *
+   * @see TcpClientTransport
+   * @param socketPath path of socket file
+   * @return factory function for {@link RSocketClientTransportFactory}
+   */
+  static Function<LoopResources, RSocketClientTransportFactory> unixDomainSocket(Path socketPath) {
+    return (LoopResources loopResources) ->
+        (RSocketClientTransportFactory)
+            address -> {
+              if (!Epoll.isAvailable()) {
+                throw new UnsupportedOperationException(
+                    "Unix domain sockets require epoll", Epoll.unavailabilityCause());
+              }
+              return TcpClientTransport.create(
+                  TcpClient.newConnection()
+                      .runOn(loopResources)
+                      .remoteAddress(() -> new DomainSocketAddress(socketPath.toFile()))
+                      .bootstrap(b -> b.channel(EpollDomainSocketChannel.class)));
+            };
+  }
+
   ClientTransport clientTransport(Address address);
 }
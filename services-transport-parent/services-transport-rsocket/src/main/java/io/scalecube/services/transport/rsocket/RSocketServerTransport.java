@@ -1,6 +1,9 @@
 package io.scalecube.services.transport.rsocket;
 
+import io.rsocket.Closeable;
+import io.rsocket.SocketAcceptor;
 import io.rsocket.core.RSocketServer;
+import io.rsocket.core.Resume;
 import io.rsocket.frame.decoder.PayloadDecoder;
 import io.rsocket.transport.netty.server.CloseableChannel;
 import io.scalecube.net.Address;
@@ -9,24 +12,47 @@
 import io.scalecube.services.transport.api.DataCodec;
 import io.scalecube.services.transport.api.HeadersCodec;
 import io.scalecube.services.transport.api.ServerTransport;
+import io.scalecube.services.transport.api.ServiceMessageCodec;
 import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 public class RSocketServerTransport implements ServerTransport {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RSocketServerTransport.class);
 
+  /** Service endpoint tag with unix domain socket path of server transport. */
+  static final String UNIX_DOMAIN_SOCKET_TAG = "rsocket.uds.path";
+
   private final Authenticator<Object> authenticator;
   private final ServiceMethodRegistry methodRegistry;
   private final ConnectionSetupCodec connectionSetupCodec;
-  private final HeadersCodec headersCodec;
-  private final Collection<DataCodec> dataCodecs;
+  private final ServiceMessageCodec messageCodec;
   private final RSocketServerTransportFactory serverTransportFactory;
+  private final PayloadDecoder payloadDecoder;
+  private final Path sharedMemoryDirectory;
+  private final SharedMemoryIdleOptions sharedMemoryIdleOptions;
+  private final Path unixDomainSocketDirectory;
+  private final Function<Path, RSocketServerTransportFactory> unixDomainSocketTransportFactory;
+  private final LeaseController leaseController;
+  private final Resume resume;
+  private final Scheduler serviceScheduler;
 
   private CloseableChannel serverChannel; // calculated
+  private Path sharedMemoryServerDirectory; // calculated
+  private Closeable sharedMemoryServer; // calculated
+  private Path unixDomainSocketPath; // calculated
+  private CloseableChannel unixDomainSocketChannel; // calculated
 
   /**
    * Constructor for this server transport.
@@ -45,12 +71,40 @@ public RSocketServerTransport(
       HeadersCodec headersCodec,
       Collection<DataCodec> dataCodecs,
       RSocketServerTransportFactory serverTransportFactory) {
-    this.authenticator = authenticator;
+    this(
+        methodRegistry,
+        new RSocketTransportOptions()
+            .authenticator(authenticator)
+            .connectionSetupCodec(connectionSetupCodec)
+            .headersCodec(headersCodec)
+            .dataCodecs(dataCodecs)
+            .serverTransportFactory(serverTransportFactory));
+  }
+
+  /**
+   * Constructor for this server transport.
+   *
+   * @param methodRegistry methodRegistry
+   * @param options transport options, see {@link RSocketTransportOptions} for server settings
+   */
+  public RSocketServerTransport(
+      ServiceMethodRegistry methodRegistry, RSocketTransportOptions options) {
+    this.authenticator = options.authenticator();
     this.methodRegistry = methodRegistry;
-    this.connectionSetupCodec = connectionSetupCodec;
-    this.headersCodec = headersCodec;
-    this.dataCodecs = dataCodecs;
-    this.serverTransportFactory = serverTransportFactory;
+    this.connectionSetupCodec = options.connectionSetupCodec();
+    this.messageCodec =
+        new ServiceMessageCodec(
+            options.headersCodec(), options.dataCodecs(), options.allocator());
+    this.serverTransportFactory = options.serverTransportFactory();
+    this.payloadDecoder = options.payloadDecoder();
+    this.sharedMemoryDirectory = options.sharedMemoryDirectory();
+    this.sharedMemoryIdleOptions = options.sharedMemoryIdleOptions();
+    this.unixDomainSocketTransportFactory = options.unixDomainSocketServerTransportFactory();
+    this.unixDomainSocketDirectory =
+        unixDomainSocketTransportFactory != null ? options.unixDomainSocketDirectory() : null;
+    this.leaseController = options.lease() ? new LeaseController() : null;
+    this.resume = options.resume();
+    this.serviceScheduler = options.serviceScheduler();
   }
 
   @Override
@@ -59,40 +113,118 @@ public Address address() {
     return Address.create(socketAddress.getAddress().getHostAddress(), socketAddress.getPort());
   }
 
+  @Override
+  public Map<String, String> tags() {
+    Map<String, String> tags = new HashMap<>();
+    if (sharedMemoryServer != null) {
+      tags.put(SharedMemoryServerTransport.DIRECTORY_TAG, sharedMemoryServerDirectory.toString());
+    }
+    if (unixDomainSocketChannel != null) {
+      tags.put(UNIX_DOMAIN_SOCKET_TAG, unixDomainSocketPath.toString());
+    }
+    if (leaseController != null) {
+      tags.put(LeaseController.LEASE_TAG, Boolean.TRUE.toString());
+    }
+    return tags;
+  }
+
   @Override
   public Mono<ServerTransport> bind() {
     return Mono.defer(
-        () ->
-            RSocketServer.create()
-                .acceptor(
-                    new RSocketServiceAcceptor(
-                        connectionSetupCodec,
-                        headersCodec,
-                        dataCodecs,
-                        authenticator,
-                        methodRegistry))
-                .payloadDecoder(PayloadDecoder.DEFAULT)
-                .bind(serverTransportFactory.serverTransport())
-                .doOnSuccess(channel -> serverChannel = channel)
-                .thenReturn(this));
+        () -> {
+          RSocketServer server = newServer(true);
+          return server
+              .bind(serverTransportFactory.serverTransport())
+              .doOnSuccess(channel -> serverChannel = channel)
+              .then(bindSharedMemory())
+              .then(bindUnixDomainSocket(server))
+              .thenReturn(this);
+        });
   }
 
-  @Override
-  public Mono<Void> stop() {
+  private RSocketServer newServer(boolean gated) {
+    SocketAcceptor acceptor =
+        new RSocketServiceAcceptor(
+            connectionSetupCodec, messageCodec, authenticator, methodRegistry, serviceScheduler);
+    RSocketServer server =
+        RSocketServer.create()
+            .acceptor(gated ? ChannelWritability.intercept(acceptor) : acceptor)
+            .payloadDecoder(payloadDecoder);
+    if (leaseController != null) {
+      server
+          .lease(leaseController::leases)
+          .interceptors(registry -> registry.forResponder(leaseController::intercept));
+    }
+    if (resume != null) {
+      server.resume(resume);
+    }
+    return server;
+  }
+
+  private Mono<Void> bindSharedMemory() {
+    if (sharedMemoryDirectory == null) {
+      return Mono.empty();
+    }
     return Mono.defer(
         () -> {
-          if (serverChannel == null || serverChannel.isDisposed()) {
-            return Mono.empty();
-          }
-          return Mono.fromRunnable(() -> serverChannel.dispose())
-              .then(
-                  serverChannel
-                      .onClose()
-                      .doOnError(
-                          e ->
-                              LOGGER.warn(
-                                  "[rsocket][server][onClose] Exception occurred: {}",
-                                  e.toString())));
+          Path directory =
+              sharedMemoryDirectory.resolve(
+                  SharedMemoryServerTransport.DIRECTORY_PREFIX + UUID.randomUUID());
+          // frames larger than the ring are split, other transports aren't affected; there is no
+          // netty channel to gate streams on
+          return newServer(false)
+              .fragment(SharedMemoryServerTransport.MTU)
+              .bind(new SharedMemoryServerTransport(directory, sharedMemoryIdleOptions))
+              .doOnSuccess(
+                  closeable -> {
+                    sharedMemoryServerDirectory = directory;
+                    sharedMemoryServer = closeable;
+                  })
+              .then();
         });
   }
+
+  private Mono<Void> bindUnixDomainSocket(RSocketServer server) {
+    if (unixDomainSocketDirectory == null) {
+      return Mono.empty();
+    }
+    return Mono.fromCallable(() -> Files.createDirectories(unixDomainSocketDirectory))
+        .flatMap(
+            directory -> {
+              // unique name, so that the same directory on another host is never mistaken for ours
+              Path socketPath = directory.resolve("scalecube-" + UUID.randomUUID() + ".sock");
+              return server
+                  .bind(unixDomainSocketTransportFactory.apply(socketPath).serverTransport())
+                  .doOnSuccess(
+                      channel -> {
+                        unixDomainSocketPath = socketPath;
+                        unixDomainSocketChannel = channel;
+                        LOGGER.info("[rsocket][server] Listening on {}", socketPath);
+                      })
+                  .then();
+            });
+  }
+
+  @Override
+  public Mono<Void> stop() {
+    return Flux.concatDelayError(
+            Mono.defer(() -> stop(serverChannel)),
+            Mono.defer(() -> stop(sharedMemoryServer)),
+            Mono.defer(() -> stop(unixDomainSocketChannel)))
+        .then();
+  }
+
+  private static Mono<Void> stop(Closeable server) {
+    if (server == null || server.isDisposed()) {
+      return Mono.empty();
+    }
+    return Mono.fromRunnable(server::dispose)
+        .then(
+            server
+                .onClose()
+                .doOnError(
+                    e ->
+                        LOGGER.warn(
+                            "[rsocket][server][onClose] Exception occurred: {}", e.toString())));
+  }
 }
@@ -1,16 +1,24 @@
 package io.scalecube.services.transport.rsocket;
 
 import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
 import io.rsocket.transport.ServerTransport;
 import io.rsocket.transport.netty.server.CloseableChannel;
 import io.rsocket.transport.netty.server.TcpServerTransport;
 import io.rsocket.transport.netty.server.WebsocketServerTransport;
 import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.util.function.Function;
 import reactor.netty.http.server.HttpServer;
 import reactor.netty.resources.LoopResources;
 import reactor.netty.tcp.TcpServer;
 
+/**
+ * Factory of rsocket server transport. Server transport must install {@link ChannelWritability} on
+ * accepted connections, connection setup is rejected otherwise.
+ */
 public interface RSocketServerTransportFactory {
 
   /**
@@ -31,15 +39,30 @@ static Function<LoopResources, RSocketServerTransportFactory> tcp() {
    * @return factory function for {@link RSocketServerTransportFactory}
    */
   static Function<LoopResources, RSocketServerTransportFactory> tcp(int port) {
+    return tcp(port, new SocketBufferOptions());
+  }
+
+  /**
+   * Returns rsocket tcp server transport factory with given socket buffer options.
+   *
+   * @param port port
+   * @param bufferOptions socket buffer options
+   * @see TcpServerTransport
+   * @return factory function for {@link RSocketServerTransportFactory}
+   */
+  static Function<LoopResources, RSocketServerTransportFactory> tcp(
+      int port, SocketBufferOptions bufferOptions) {
     return (LoopResources loopResources) ->
         () ->
             TcpServerTransport.create(
-                TcpServer.create()
+                bufferOptions
+                    .apply(TcpServer.create())
                     .runOn(loopResources)
                     .bindAddress(() -> new InetSocketAddress(port))
                     .option(ChannelOption.TCP_NODELAY, true)
                     .option(ChannelOption.SO_KEEPALIVE, true)
-                    .option(ChannelOption.SO_REUSEADDR, true));
+                    .option(ChannelOption.SO_REUSEADDR, true)
+                    .doOnConnection(ChannelWritability::install));
   }
 
   /**
@@ -60,18 +83,57 @@ static Function<LoopResources, RSocketServerTransportFactory> websocket() {
    * @return factory function for {@link RSocketServerTransportFactory}
    */
   static Function<LoopResources, RSocketServerTransportFactory> websocket(int port) {
+    return websocket(port, new SocketBufferOptions());
+  }
+
+  /**
+   * Returns rsocket websocket server transport factory with given socket buffer options.
+   *
+   * @param port port
+   * @param bufferOptions socket buffer options
+   * @see WebsocketServerTransport
+   * @return factory function for {@link RSocketServerTransportFactory}
+   */
+  static Function<LoopResources, RSocketServerTransportFactory> websocket(
+      int port, SocketBufferOptions bufferOptions) {
     return loopResources ->
         () ->
             WebsocketServerTransport.create(
                 HttpServer.create()
                     .tcpConfiguration(
                         tcpServer ->
-                            tcpServer
+                            bufferOptions
+                                .apply(tcpServer)
                                 .runOn(loopResources)
                                 .bindAddress(() -> new InetSocketAddress(port))
                                 .option(ChannelOption.TCP_NODELAY, true)
                                 .option(ChannelOption.SO_KEEPALIVE, true)
-                                .option(ChannelOption.SO_REUSEADDR, true)));
+                                .option(ChannelOption.SO_REUSEADDR, true)
+                                .doOnConnection(ChannelWritability::install)));
+  }
+
+  /**
+   * Returns rsocket unix domain socket server transport factory. Requires native epoll transport,
+   * loop resources must run on epoll event loop group.
+   *
+   * @param socketPath path of socket file, must not exist
+   * @see TcpServerTransport
+   * @return factory function for {@link RSocketServerTransportFactory}
+   */
+  static Function<LoopResources, RSocketServerTransportFactory> unixDomainSocket(Path socketPath) {
+    return (LoopResources loopResources) ->
+        () -> {
+          if (!Epoll.isAvailable()) {
+            throw new UnsupportedOperationException(
+                "Unix domain sockets require epoll", Epoll.unavailabilityCause());
+          }
+          return TcpServerTransport.create(
+              TcpServer.create()
+                  .runOn(loopResources)
+                  .bindAddress(() -> new DomainSocketAddress(socketPath.toFile()))
+                  .bootstrap(b -> b.channel(EpollServerDomainSocketChannel.class))
+                  .doOnConnection(ChannelWritability::install));
+        };
   }
 
   ServerTransport<CloseableChannel> serverTransport();
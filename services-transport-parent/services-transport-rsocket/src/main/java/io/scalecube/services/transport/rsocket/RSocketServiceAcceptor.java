@@ -26,6 +26,7 @@
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.util.annotation.Nullable;
 import reactor.util.context.Context;
 
@@ -34,10 +35,10 @@ public class RSocketServiceAcceptor implements SocketAcceptor {
   private static final Logger LOGGER = LoggerFactory.getLogger(RSocketServiceAcceptor.class);
 
   private final ConnectionSetupCodec connectionSetupCodec;
-  private final HeadersCodec headersCodec;
-  private final Collection<DataCodec> dataCodecs;
+  private final ServiceMessageCodec messageCodec;
   private final Authenticator<Object> authenticator;
   private final ServiceMethodRegistry methodRegistry;
+  private final Scheduler serviceScheduler;
 
   /**
    * Constructor.
@@ -54,11 +55,34 @@ public RSocketServiceAcceptor(
       Collection<DataCodec> dataCodecs,
       Authenticator<Object> authenticator,
       ServiceMethodRegistry methodRegistry) {
+    this(
+        connectionSetupCodec,
+        new ServiceMessageCodec(headersCodec, dataCodecs),
+        authenticator,
+        methodRegistry,
+        null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param connectionSetupCodec connectionSetupCodec
+   * @param messageCodec messageCodec
+   * @param authenticator authenticator
+   * @param methodRegistry methodRegistry
+   * @param serviceScheduler scheduler to invoke service methods on, optional
+   */
+  public RSocketServiceAcceptor(
+      ConnectionSetupCodec connectionSetupCodec,
+      ServiceMessageCodec messageCodec,
+      Authenticator<Object> authenticator,
+      ServiceMethodRegistry methodRegistry,
+      Scheduler serviceScheduler) {
     this.connectionSetupCodec = connectionSetupCodec;
-    this.headersCodec = headersCodec;
-    this.dataCodecs = dataCodecs;
+    this.messageCodec = messageCodec;
     this.authenticator = authenticator;
     this.methodRegistry = methodRegistry;
+    this.serviceScheduler = serviceScheduler;
   }
 
   @Override
@@ -71,17 +95,12 @@ public Mono<RSocket> accept(ConnectionSetupPayload setupPayload, RSocket rsocket
             authData ->
                 Mono.fromCallable(
                     () ->
-                        new RSocketImpl(
-                            authData,
-                            new ServiceMessageCodec(headersCodec, dataCodecs),
-                            methodRegistry)))
+                        new RSocketImpl(authData, messageCodec, methodRegistry, serviceScheduler)))
         .switchIfEmpty(
             Mono.fromCallable(
                 () ->
                     new RSocketImpl(
-                        null /*authData*/,
-                        new ServiceMessageCodec(headersCodec, dataCodecs),
-                        methodRegistry)))
+                        null /*authData*/, messageCodec, methodRegistry, serviceScheduler)))
         .cast(RSocket.class);
   }
 
@@ -125,14 +144,19 @@ private static class RSocketImpl implements RSocket {
     private final Object authData;
     private final ServiceMessageCodec messageCodec;
     private final ServiceMethodRegistry methodRegistry;
+    private final Scheduler serviceScheduler;
+
+    private volatile boolean methodIdsNegotiated;
 
     private RSocketImpl(
         @Nullable Object authData,
         ServiceMessageCodec messageCodec,
-        ServiceMethodRegistry methodRegistry) {
+        ServiceMethodRegistry methodRegistry,
+        @Nullable Scheduler serviceScheduler) {
       this.authData = authData;
       this.messageCodec = messageCodec;
       this.methodRegistry = methodRegistry;
+      this.serviceScheduler = serviceScheduler;
     }
 
     @Override
@@ -141,13 +165,15 @@ public Mono<Payload> requestResponse(Payload payload) {
           .doOnNext(this::validateRequest)
           .flatMap(
               message -> {
+                if (MethodIdTable.QUALIFIER.equals(message.qualifier())) {
+                  return Mono.fromCallable(() -> negotiateMethodIds(message));
+                }
                 ServiceMethodInvoker methodInvoker = methodRegistry.getInvoker(message.qualifier());
                 validateMethodInvoker(methodInvoker, message);
-                return methodInvoker
-                    .invokeOne(message)
-                    .doOnNext(response -> releaseRequestOnError(message, response));
+                return subscribeOnServiceScheduler(methodInvoker.invokeOne(message))
+                    .doOnNext(response -> releaseRequestOnError(message, response))
+                    .map(this::toPayload);
               })
-          .map(this::toPayload)
           .doOnError(ex -> LOGGER.error("[requestResponse] Exception occurred: {}", ex.toString()))
           .subscriberContext(this::enhanceContextWithAuthData);
     }
@@ -160,8 +186,7 @@ public Flux<Payload> requestStream(Payload payload) {
               message -> {
                 ServiceMethodInvoker methodInvoker = methodRegistry.getInvoker(message.qualifier());
                 validateMethodInvoker(methodInvoker, message);
-                return methodInvoker
-                    .invokeMany(message)
+                return subscribeOnServiceScheduler(methodInvoker.invokeMany(message))
                     .doOnNext(response -> releaseRequestOnError(message, response));
               })
           .map(this::toPayload)
@@ -180,8 +205,10 @@ public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
                   validateRequest(message);
                   ServiceMethodInvoker methodInvoker =
                       methodRegistry.getInvoker(message.qualifier());
-                  return methodInvoker
-                      .invokeBidirectional(messages)
+                  // method is invoked on service scheduler, inbound messages are still emitted on
+                  // event loop, so they are published on it as well
+                  return subscribeOnServiceScheduler(
+                          methodInvoker.invokeBidirectional(publishOnServiceScheduler(messages)))
                       .doOnNext(response -> releaseRequestOnError(message, response));
                 }
                 return messages;
@@ -191,18 +218,64 @@ public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
           .subscriberContext(this::enhanceContextWithAuthData);
     }
 
+    private <T> Mono<T> subscribeOnServiceScheduler(Mono<T> mono) {
+      return serviceScheduler != null ? mono.subscribeOn(serviceScheduler) : mono;
+    }
+
+    private <T> Flux<T> subscribeOnServiceScheduler(Flux<T> flux) {
+      return serviceScheduler != null ? flux.subscribeOn(serviceScheduler) : flux;
+    }
+
+    private <T> Flux<T> publishOnServiceScheduler(Flux<T> flux) {
+      return serviceScheduler != null ? flux.publishOn(serviceScheduler) : flux;
+    }
+
     private Payload toPayload(ServiceMessage response) {
       return messageCodec.encodeAndTransform(response, ByteBufPayload::create);
     }
 
     private ServiceMessage toMessage(Payload payload) {
       try {
-        return messageCodec.decode(payload.sliceData().retain(), payload.sliceMetadata().retain());
+        if (!methodIdsNegotiated) {
+          return messageCodec.decode(
+              payload.sliceData().retain(), payload.sliceMetadata().retain());
+        }
+        ByteBuf metadata = payload.sliceMetadata();
+        int methodId = MethodIdTable.readMethodId(metadata);
+        ServiceMessage message =
+            messageCodec.decode(payload.sliceData().retain(), metadata.retain());
+        if (methodId == -1) {
+          return message; // qualifier is in headers
+        }
+        ServiceMethodInvoker methodInvoker = methodRegistry.getInvoker(methodId);
+        if (methodInvoker == null) {
+          releaseRequest(message);
+          LOGGER.error("[no service invoker found] Invocation failed for methodId: {}", methodId);
+          throw new ServiceUnavailableException("No service invoker found");
+        }
+        // restore qualifier, it's the registry's own string so next lookup doesn't rehash it
+        return ServiceMessage.from(message)
+            .qualifier(methodInvoker.methodInfo().qualifier())
+            .build();
       } finally {
         payload.release();
       }
     }
 
+    private Payload negotiateMethodIds(ServiceMessage request) {
+      releaseRequest(request);
+      Payload reply =
+          toPayload(
+              ServiceMessage.builder()
+                  .qualifier(request.qualifier())
+                  .data(MethodIdTable.encode(messageCodec.allocator(), methodRegistry.methodIds()))
+                  .build());
+      // client sends next requests only after it gets the reply, and on error it stays with
+      // qualifier frames, so switch only once the reply is there
+      methodIdsNegotiated = true;
+      return reply;
+    }
+
     private Context enhanceContextWithAuthData(Context context) {
       return authData != null ? context.put(Authenticator.AUTH_CONTEXT_KEY, authData) : context;
     }
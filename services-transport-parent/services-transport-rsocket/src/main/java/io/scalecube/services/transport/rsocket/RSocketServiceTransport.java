@@ -1,11 +1,19 @@
 package io.scalecube.services.transport.rsocket;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.DefaultSelectStrategyFactory;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SelectStrategy;
+import io.netty.channel.SelectStrategyFactory;
 import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import io.netty.util.concurrent.Future;
+import io.rsocket.core.Resume;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.resume.ResumableFramesStore;
 import io.scalecube.services.auth.Authenticator;
 import io.scalecube.services.auth.CredentialsSupplier;
 import io.scalecube.services.methods.ServiceMethodRegistry;
@@ -14,22 +22,40 @@
 import io.scalecube.services.transport.api.HeadersCodec;
 import io.scalecube.services.transport.api.ServerTransport;
 import io.scalecube.services.transport.api.ServiceTransport;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Objects;
 import java.util.StringJoiner;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Function;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.netty.FutureMono;
 import reactor.netty.resources.LoopResources;
 
 public class RSocketServiceTransport implements ServiceTransport {
 
   private int numOfWorkers = Runtime.getRuntime().availableProcessors();
+  private int ioRatio = 50;
+  private boolean busyWait;
+  private int numOfServiceWorkers;
 
   private HeadersCodec headersCodec = HeadersCodec.DEFAULT_INSTANCE;
   private Collection<DataCodec> dataCodecs = DataCodec.getAllInstances();
+  private ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
   private ConnectionSetupCodec connectionSetupCodec = ConnectionSetupCodec.DEFAULT_INSTANCE;
+  private boolean zeroCopy;
+  private int connectionsPerPeer = 1;
+  private boolean eventLoopAffinity;
+  private Path sharedMemoryDirectory;
+  private SharedMemoryIdleOptions sharedMemoryIdleOptions = new SharedMemoryIdleOptions();
+  private Path unixDomainSocketDirectory;
+  private boolean lease;
+  private Duration resumeSessionDuration;
+  private Function<? super ByteBuf, ? extends ResumableFramesStore> resumeStoreFactory;
 
   private CredentialsSupplier credentialsSupplier;
   private Authenticator<Object> authenticator;
@@ -41,8 +67,9 @@ public class RSocketServiceTransport implements ServiceTransport {
 
   // resources
   private EventLoopGroup eventLoopGroup;
-  private LoopResources clientLoopResources;
+  private DelegatedLoopResources clientLoopResources;
   private LoopResources serverLoopResources;
+  private Scheduler serviceScheduler;
 
   /** Default constructor. */
   public RSocketServiceTransport() {}
@@ -54,14 +81,28 @@ public RSocketServiceTransport() {}
    */
   private RSocketServiceTransport(RSocketServiceTransport other) {
     this.numOfWorkers = other.numOfWorkers;
+    this.ioRatio = other.ioRatio;
+    this.busyWait = other.busyWait;
+    this.numOfServiceWorkers = other.numOfServiceWorkers;
     this.headersCodec = other.headersCodec;
     this.dataCodecs = other.dataCodecs;
+    this.allocator = other.allocator;
     this.connectionSetupCodec = other.connectionSetupCodec;
+    this.zeroCopy = other.zeroCopy;
+    this.connectionsPerPeer = other.connectionsPerPeer;
+    this.eventLoopAffinity = other.eventLoopAffinity;
+    this.sharedMemoryDirectory = other.sharedMemoryDirectory;
+    this.sharedMemoryIdleOptions = other.sharedMemoryIdleOptions;
+    this.unixDomainSocketDirectory = other.unixDomainSocketDirectory;
+    this.lease = other.lease;
+    this.resumeSessionDuration = other.resumeSessionDuration;
+    this.resumeStoreFactory = other.resumeStoreFactory;
     this.credentialsSupplier = other.credentialsSupplier;
     this.authenticator = other.authenticator;
     this.eventLoopGroup = other.eventLoopGroup;
     this.clientLoopResources = other.clientLoopResources;
     this.serverLoopResources = other.serverLoopResources;
+    this.serviceScheduler = other.serviceScheduler;
     this.serverTransportFactory = other.serverTransportFactory;
     this.clientTransportFactory = other.clientTransportFactory;
   }
@@ -78,6 +119,56 @@ public RSocketServiceTransport numOfWorkers(int numOfWorkers) {
     return rst;
   }
 
+  /**
+   * Setter for {@code ioRatio}, percentage of time worker threads spend on I/O versus other event
+   * loop tasks. Default is {@code 50}.
+   *
+   * @param ioRatio io ratio, from {@code 1} to {@code 100}
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport ioRatio(int ioRatio) {
+    if (ioRatio <= 0 || ioRatio > 100) {
+      throw new IllegalArgumentException("ioRatio must be in (0, 100]: " + ioRatio);
+    }
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.ioRatio = ioRatio;
+    return rst;
+  }
+
+  /**
+   * Setter for {@code busyWait}. When enabled, worker threads spin on {@code epoll_wait} instead of
+   * blocking in it, so that they pick up I/O without wake up latency, at the cost of a fully busy
+   * cpu core per worker. Combine with {@link SocketBufferOptions#busyPoll(int)} on transport
+   * factories to busy poll sockets as well. Requires native epoll transport, ignored otherwise.
+   * Default is {@code false}.
+   *
+   * @param busyWait whether worker threads busy wait for I/O
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport busyWait(boolean busyWait) {
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.busyWait = busyWait;
+    return rst;
+  }
+
+  /**
+   * Setter for {@code numOfServiceWorkers}. When set, service methods are invoked on a separate
+   * pool of that many threads, so that slow service code doesn't delay I/O of worker threads.
+   * Default is {@code 0}, i.e. service methods are invoked on worker threads.
+   *
+   * @param numOfServiceWorkers number of service worker threads, {@code 0} means none
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport numOfServiceWorkers(int numOfServiceWorkers) {
+    if (numOfServiceWorkers < 0) {
+      throw new IllegalArgumentException(
+          "numOfServiceWorkers must not be negative: " + numOfServiceWorkers);
+    }
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.numOfServiceWorkers = numOfServiceWorkers;
+    return rst;
+  }
+
   /**
    * Setter for {@code headersCodec}.
    *
@@ -102,6 +193,19 @@ public RSocketServiceTransport dataCodecs(Collection<DataCodec> dataCodecs) {
     return rst;
   }
 
+  /**
+   * Setter for {@code allocator} of encode buffers of service messages. Default is {@link
+   * ByteBufAllocator#DEFAULT}.
+   *
+   * @param allocator allocator
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport allocator(ByteBufAllocator allocator) {
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.allocator = Objects.requireNonNull(allocator, "allocator");
+    return rst;
+  }
+
   /**
    * Setter for {@code connectionSetupCodec}.
    *
@@ -114,6 +218,150 @@ public RSocketServiceTransport connectionSetupCodec(ConnectionSetupCodec connect
     return rst;
   }
 
+  /**
+   * Setter for {@code zeroCopy}. When enabled, inbound frames are not copied, request and response
+   * data are retained slices of the frame buffers until decoded. Default is {@code false}.
+   *
+   * @param zeroCopy whether to decode payloads without copying
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport zeroCopy(boolean zeroCopy) {
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.zeroCopy = zeroCopy;
+    return rst;
+  }
+
+  /**
+   * Setter for {@code connectionsPerPeer}. Client connections are shared by all callers, and a new
+   * connection to the same peer is opened only while existing ones are busy, up to this number.
+   * Default is {@code 1}.
+   *
+   * @param connectionsPerPeer max number of client connections to one remote address
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport connectionsPerPeer(int connectionsPerPeer) {
+    if (connectionsPerPeer < 1) {
+      throw new IllegalArgumentException("connectionsPerPeer must be positive");
+    }
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.connectionsPerPeer = connectionsPerPeer;
+    return rst;
+  }
+
+  /**
+   * Setter for {@code eventLoopAffinity}. When enabled, service calls made from a worker event loop
+   * go over client connections bound to that event loop, so responses are handled on the caller's
+   * thread without handoffs. Connections are then kept per event loop, up to {@code
+   * connectionsPerPeer} each. Default is {@code false}.
+   *
+   * @param eventLoopAffinity whether to select client connections by caller's event loop
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport eventLoopAffinity(boolean eventLoopAffinity) {
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.eventLoopAffinity = eventLoopAffinity;
+    return rst;
+  }
+
+  /**
+   * Setter for {@code sharedMemoryDirectory}. When set, server transport also accepts connections
+   * over shared memory ring buffers kept under this directory (e.g. {@code /dev/shm}), and
+   * advertises them in service endpoint tags. Client transport then connects over shared memory to
+   * peers on the same host which advertise it, and over network to the rest. Default is {@code
+   * null}, i.e. disabled.
+   *
+   * @param sharedMemoryDirectory base directory for shared memory ring buffers
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport sharedMemoryDirectory(Path sharedMemoryDirectory) {
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.sharedMemoryDirectory = sharedMemoryDirectory;
+    return rst;
+  }
+
+  /**
+   * Setter for {@code sharedMemoryIdleOptions}: how long shared memory connections spin, yield
+   * and park when idle, which bounds latency of the first frame after an idle period. Default is
+   * {@code new SharedMemoryIdleOptions()}, i.e. up to 1 millisecond.
+   *
+   * @param sharedMemoryIdleOptions idle settings of shared memory connections
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport sharedMemoryIdleOptions(
+      SharedMemoryIdleOptions sharedMemoryIdleOptions) {
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.sharedMemoryIdleOptions =
+        Objects.requireNonNull(sharedMemoryIdleOptions, "sharedMemoryIdleOptions");
+    return rst;
+  }
+
+  /**
+   * Setter for {@code unixDomainSocketDirectory}. When set, server transport also listens on unix
+   * domain socket in this directory, and advertises it in service endpoint tags. Client transport
+   * then connects over unix domain socket to peers which advertise socket visible from this process
+   * (e.g. in the same pod, sharing the directory), and over network to the rest. Requires native
+   * epoll transport. Default is {@code null}, i.e. disabled.
+   *
+   * @param unixDomainSocketDirectory directory for unix domain socket files
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport unixDomainSocketDirectory(Path unixDomainSocketDirectory) {
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.unixDomainSocketDirectory = unixDomainSocketDirectory;
+    return rst;
+  }
+
+  /**
+   * Setter for {@code lease}. When enabled, server transport grants clients leases for limited
+   * number of requests, sized from observed latency and in-flight requests, and advertises it in
+   * service endpoint tags. Clients honor leases of peers which advertise them: they reject requests
+   * beyond the lease right away, and service calls get routed to other service endpoints. Default
+   * is {@code false}.
+   *
+   * @param lease whether to issue request leases
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport lease(boolean lease) {
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.lease = lease;
+    return rst;
+  }
+
+  /**
+   * Setter for {@code resumeSessionDuration}. When set, rsocket resumption is enabled: server keeps
+   * session of dropped connection for this long, and client reconnects and resumes it, so that
+   * in-flight requests and streams survive short network failures. Both sides must have it
+   * enabled. Default is {@code null}, i.e. resumption is disabled.
+   *
+   * <p><b>NOTE:</b> streams of a resumed session are no longer gated by writability of the channel
+   * (see {@link SocketBufferOptions}): demand stays bound to the channel session was set up on,
+   * which is closed by then. Outbound frames of resumed session are queued without bound, as with
+   * websocket transport.
+   *
+   * @param resumeSessionDuration resume session duration
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport resumeSessionDuration(Duration resumeSessionDuration) {
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.resumeSessionDuration = resumeSessionDuration;
+    return rst;
+  }
+
+  /**
+   * Setter for {@code resumeStoreFactory}. Store keeps frames sent but not yet acknowledged by the
+   * peer, to be replayed on resumption; its capacity bounds how much traffic may be lost during
+   * disconnection for session to be resumable. Default is rsocket in-memory store.
+   *
+   * @param resumeStoreFactory resumable frames store factory by resume token
+   * @return new {@code RSocketServiceTransport} instance
+   */
+  public RSocketServiceTransport resumeStoreFactory(
+      Function<? super ByteBuf, ? extends ResumableFramesStore> resumeStoreFactory) {
+    RSocketServiceTransport rst = new RSocketServiceTransport(this);
+    rst.resumeStoreFactory = resumeStoreFactory;
+    return rst;
+  }
+
   /**
    * Setter for {@code credentialsSupplier}.
    *
@@ -168,22 +416,61 @@ public RSocketServiceTransport clientTransportFactory(
   @Override
   public ClientTransport clientTransport() {
     return new RSocketClientTransport(
-        credentialsSupplier,
-        connectionSetupCodec,
-        headersCodec,
-        dataCodecs,
-        clientTransportFactory.apply(clientLoopResources));
+        transportOptions()
+            .credentialsSupplier(credentialsSupplier)
+            .clientTransportFactory(clientTransportFactory.apply(clientLoopResources))
+            .unixDomainSocketClientTransportFactory(
+                unixDomainSocketDirectory != null
+                    ? socketPath ->
+                        RSocketClientTransportFactory.unixDomainSocket(socketPath)
+                            .apply(clientLoopResources)
+                    : null)
+            .connectionsPerPeer(connectionsPerPeer)
+            .loopResources(eventLoopAffinity ? clientLoopResources : null));
   }
 
   @Override
   public ServerTransport serverTransport(ServiceMethodRegistry methodRegistry) {
     return new RSocketServerTransport(
-        authenticator,
         methodRegistry,
-        connectionSetupCodec,
-        headersCodec,
-        dataCodecs,
-        serverTransportFactory.apply(serverLoopResources));
+        transportOptions()
+            .authenticator(authenticator)
+            .serverTransportFactory(serverTransportFactory.apply(serverLoopResources))
+            .unixDomainSocketServerTransportFactory(
+                socketPath ->
+                    RSocketServerTransportFactory.unixDomainSocket(socketPath)
+                        .apply(serverLoopResources))
+            .lease(lease)
+            .serviceScheduler(serviceScheduler));
+  }
+
+  private RSocketTransportOptions transportOptions() {
+    return new RSocketTransportOptions()
+        .connectionSetupCodec(connectionSetupCodec)
+        .headersCodec(headersCodec)
+        .dataCodecs(dataCodecs)
+        .allocator(allocator)
+        .payloadDecoder(payloadDecoder())
+        .sharedMemoryDirectory(sharedMemoryDirectory)
+        .sharedMemoryIdleOptions(sharedMemoryIdleOptions)
+        .unixDomainSocketDirectory(unixDomainSocketDirectory)
+        .resume(resume());
+  }
+
+  private PayloadDecoder payloadDecoder() {
+    return zeroCopy ? PayloadDecoder.ZERO_COPY : PayloadDecoder.DEFAULT;
+  }
+
+  private Resume resume() {
+    if (resumeSessionDuration == null) {
+      return null;
+    }
+    // frames acknowledged by keepalive are released, so store holds only what may be replayed
+    Resume resume = new Resume().sessionDuration(resumeSessionDuration).cleanupStoreOnKeepAlive();
+    if (resumeStoreFactory != null) {
+      resume.storeFactory(resumeStoreFactory);
+    }
+    return resume;
   }
 
   @Override
@@ -195,7 +482,13 @@ public Mono<RSocketServiceTransport> start() {
   public Mono<Void> stop() {
     return Flux.concatDelayError(
             Mono.defer(() -> serverLoopResources.disposeLater()),
-            Mono.defer(this::shutdownEventLoopGroup))
+            Mono.defer(this::shutdownEventLoopGroup),
+            Mono.fromRunnable(
+                () -> {
+                  if (serviceScheduler != null) {
+                    serviceScheduler.dispose();
+                  }
+                }))
         .then();
   }
 
@@ -203,14 +496,25 @@ private void start0() {
     eventLoopGroup = newEventLoopGroup();
     clientLoopResources = DelegatedLoopResources.newClientLoopResources(eventLoopGroup);
     serverLoopResources = DelegatedLoopResources.newServerLoopResources(eventLoopGroup);
+    if (numOfServiceWorkers > 0) {
+      serviceScheduler = Schedulers.newParallel("rsocket-service", numOfServiceWorkers, true);
+    }
   }
 
   private EventLoopGroup newEventLoopGroup() {
     ThreadFactory threadFactory = new DefaultThreadFactory("rsocket-worker", true);
-    EventLoopGroup eventLoopGroup =
-        Epoll.isAvailable()
-            ? new EpollEventLoopGroup(numOfWorkers, threadFactory)
-            : new NioEventLoopGroup(numOfWorkers, threadFactory);
+    if (Epoll.isAvailable()) {
+      SelectStrategyFactory selectStrategyFactory =
+          busyWait
+              ? () -> (selectSupplier, hasTasks) -> SelectStrategy.BUSY_WAIT
+              : DefaultSelectStrategyFactory.INSTANCE;
+      EpollEventLoopGroup eventLoopGroup =
+          new EpollEventLoopGroup(numOfWorkers, threadFactory, selectStrategyFactory);
+      eventLoopGroup.setIoRatio(ioRatio);
+      return LoopResources.colocate(eventLoopGroup);
+    }
+    NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(numOfWorkers, threadFactory);
+    eventLoopGroup.setIoRatio(ioRatio);
     return LoopResources.colocate(eventLoopGroup);
   }
 
@@ -223,9 +527,22 @@ private Mono<Void> shutdownEventLoopGroup() {
   public String toString() {
     return new StringJoiner(", ", RSocketServiceTransport.class.getSimpleName() + "[", "]")
         .add("numOfWorkers=" + numOfWorkers)
+        .add("ioRatio=" + ioRatio)
+        .add("busyWait=" + busyWait)
+        .add("numOfServiceWorkers=" + numOfServiceWorkers)
         .add("headersCodec=" + headersCodec)
         .add("dataCodecs=" + dataCodecs)
+        .add("allocator=" + allocator)
         .add("connectionSetupCodec=" + connectionSetupCodec)
+        .add("zeroCopy=" + zeroCopy)
+        .add("connectionsPerPeer=" + connectionsPerPeer)
+        .add("eventLoopAffinity=" + eventLoopAffinity)
+        .add("sharedMemoryDirectory=" + sharedMemoryDirectory)
+        .add("sharedMemoryIdleOptions=" + sharedMemoryIdleOptions)
+        .add("unixDomainSocketDirectory=" + unixDomainSocketDirectory)
+        .add("lease=" + lease)
+        .add("resumeSessionDuration=" + resumeSessionDuration)
+        .add("resumeStoreFactory=" + resumeStoreFactory)
         .add("serverTransportFactory=" + serverTransportFactory)
         .add("clientTransportFactory=" + clientTransportFactory)
         .toString();
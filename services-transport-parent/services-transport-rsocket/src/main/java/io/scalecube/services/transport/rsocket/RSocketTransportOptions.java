@@ -0,0 +1,362 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.rsocket.core.Resume;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.scalecube.services.auth.Authenticator;
+import io.scalecube.services.auth.CredentialsSupplier;
+import io.scalecube.services.transport.api.DataCodec;
+import io.scalecube.services.transport.api.HeadersCodec;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Settings of rsocket client and server transports. Populated by {@link RSocketServiceTransport};
+ * settings of one side are ignored by the other.
+ */
+public class RSocketTransportOptions {
+
+  private ConnectionSetupCodec connectionSetupCodec = ConnectionSetupCodec.DEFAULT_INSTANCE;
+  private HeadersCodec headersCodec;
+  private Collection<DataCodec> dataCodecs;
+  private ByteBufAllocator allocator;
+  private PayloadDecoder payloadDecoder = PayloadDecoder.DEFAULT;
+  private Path sharedMemoryDirectory;
+  private SharedMemoryIdleOptions sharedMemoryIdleOptions = new SharedMemoryIdleOptions();
+  private Path unixDomainSocketDirectory;
+  private Resume resume;
+
+  // server
+  private Authenticator<Object> authenticator;
+  private RSocketServerTransportFactory serverTransportFactory;
+  private Function<Path, RSocketServerTransportFactory> unixDomainSocketServerTransportFactory;
+  private boolean lease;
+  private Scheduler serviceScheduler;
+
+  // client
+  private CredentialsSupplier credentialsSupplier;
+  private RSocketClientTransportFactory clientTransportFactory;
+  private Function<Path, RSocketClientTransportFactory> unixDomainSocketClientTransportFactory;
+  private int connectionsPerPeer = 1;
+  private DelegatedLoopResources loopResources;
+
+  public RSocketTransportOptions() {}
+
+  /**
+   * RSocketTransportOptions copy constructor.
+   *
+   * @param other RSocketTransportOptions to copy
+   */
+  public RSocketTransportOptions(RSocketTransportOptions other) {
+    this.connectionSetupCodec = other.connectionSetupCodec;
+    this.headersCodec = other.headersCodec;
+    this.dataCodecs = other.dataCodecs;
+    this.allocator = other.allocator;
+    this.payloadDecoder = other.payloadDecoder;
+    this.sharedMemoryDirectory = other.sharedMemoryDirectory;
+    this.sharedMemoryIdleOptions = other.sharedMemoryIdleOptions;
+    this.unixDomainSocketDirectory = other.unixDomainSocketDirectory;
+    this.resume = other.resume;
+    this.authenticator = other.authenticator;
+    this.serverTransportFactory = other.serverTransportFactory;
+    this.unixDomainSocketServerTransportFactory = other.unixDomainSocketServerTransportFactory;
+    this.lease = other.lease;
+    this.serviceScheduler = other.serviceScheduler;
+    this.credentialsSupplier = other.credentialsSupplier;
+    this.clientTransportFactory = other.clientTransportFactory;
+    this.unixDomainSocketClientTransportFactory = other.unixDomainSocketClientTransportFactory;
+    this.connectionsPerPeer = other.connectionsPerPeer;
+    this.loopResources = other.loopResources;
+  }
+
+  private RSocketTransportOptions set(Consumer<RSocketTransportOptions> c) {
+    RSocketTransportOptions s = new RSocketTransportOptions(this);
+    c.accept(s);
+    return s;
+  }
+
+  public RSocketTransportOptions connectionSetupCodec(ConnectionSetupCodec connectionSetupCodec) {
+    return set(o -> o.connectionSetupCodec = connectionSetupCodec);
+  }
+
+  public ConnectionSetupCodec connectionSetupCodec() {
+    return connectionSetupCodec;
+  }
+
+  /**
+   * Setter for {@code headersCodec}.
+   *
+   * @param headersCodec headers codec, optional, {@link HeadersCodec#DEFAULT_INSTANCE} if not set
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions headersCodec(HeadersCodec headersCodec) {
+    return set(o -> o.headersCodec = headersCodec);
+  }
+
+  public HeadersCodec headersCodec() {
+    return headersCodec;
+  }
+
+  /**
+   * Setter for {@code dataCodecs}.
+   *
+   * @param dataCodecs data codecs, optional, {@link DataCodec#getAllInstances()} if not set
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions dataCodecs(Collection<DataCodec> dataCodecs) {
+    return set(o -> o.dataCodecs = dataCodecs);
+  }
+
+  public Collection<DataCodec> dataCodecs() {
+    return dataCodecs;
+  }
+
+  /**
+   * Setter for {@code allocator} of encode buffers of service messages.
+   *
+   * @param allocator allocator, optional, {@link ByteBufAllocator#DEFAULT} if not set
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions allocator(ByteBufAllocator allocator) {
+    return set(o -> o.allocator = allocator);
+  }
+
+  public ByteBufAllocator allocator() {
+    return allocator;
+  }
+
+  public RSocketTransportOptions payloadDecoder(PayloadDecoder payloadDecoder) {
+    return set(o -> o.payloadDecoder = payloadDecoder);
+  }
+
+  public PayloadDecoder payloadDecoder() {
+    return payloadDecoder;
+  }
+
+  /**
+   * Setter for {@code sharedMemoryDirectory}. When set, server also accepts shared memory
+   * connections from the same host, and advertises them in {@link RSocketServerTransport#tags()}.
+   * Client connects over shared memory to peers which advertise directory visible from this
+   * process, instead of client transport factory.
+   *
+   * @param sharedMemoryDirectory base directory for shared memory connections, optional
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions sharedMemoryDirectory(Path sharedMemoryDirectory) {
+    return set(o -> o.sharedMemoryDirectory = sharedMemoryDirectory);
+  }
+
+  public Path sharedMemoryDirectory() {
+    return sharedMemoryDirectory;
+  }
+
+  /**
+   * Setter for {@code sharedMemoryIdleOptions}, idle settings of shared memory connection pollers
+   * on both sides.
+   *
+   * @param sharedMemoryIdleOptions idle settings
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions sharedMemoryIdleOptions(
+      SharedMemoryIdleOptions sharedMemoryIdleOptions) {
+    return set(o -> o.sharedMemoryIdleOptions = sharedMemoryIdleOptions);
+  }
+
+  public SharedMemoryIdleOptions sharedMemoryIdleOptions() {
+    return sharedMemoryIdleOptions;
+  }
+
+  /**
+   * Setter for {@code unixDomainSocketDirectory}. When set along with {@link
+   * #unixDomainSocketServerTransportFactory(Function)}, server also listens on unix domain socket
+   * in this directory, and advertises it in {@link RSocketServerTransport#tags()}.
+   *
+   * @param unixDomainSocketDirectory directory for unix domain socket file, optional
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions unixDomainSocketDirectory(Path unixDomainSocketDirectory) {
+    return set(o -> o.unixDomainSocketDirectory = unixDomainSocketDirectory);
+  }
+
+  public Path unixDomainSocketDirectory() {
+    return unixDomainSocketDirectory;
+  }
+
+  /**
+   * Setter for {@code resume}. Server keeps sessions of dropped connections for session duration,
+   * and client resumes dropped connections within it: in-flight requests and streams survive, and
+   * connection setup isn't repeated. Both sides must have resumption enabled.
+   *
+   * @param resume resumption settings, optional
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions resume(Resume resume) {
+    return set(o -> o.resume = resume);
+  }
+
+  public Resume resume() {
+    return resume;
+  }
+
+  public RSocketTransportOptions authenticator(Authenticator<Object> authenticator) {
+    return set(o -> o.authenticator = authenticator);
+  }
+
+  public Authenticator<Object> authenticator() {
+    return authenticator;
+  }
+
+  public RSocketTransportOptions serverTransportFactory(
+      RSocketServerTransportFactory serverTransportFactory) {
+    return set(o -> o.serverTransportFactory = serverTransportFactory);
+  }
+
+  public RSocketServerTransportFactory serverTransportFactory() {
+    return serverTransportFactory;
+  }
+
+  /**
+   * Setter for {@code unixDomainSocketServerTransportFactory}.
+   *
+   * @param unixDomainSocketServerTransportFactory unix domain socket server transport factory by
+   *     socket path
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions unixDomainSocketServerTransportFactory(
+      Function<Path, RSocketServerTransportFactory> unixDomainSocketServerTransportFactory) {
+    return set(
+        o -> o.unixDomainSocketServerTransportFactory = unixDomainSocketServerTransportFactory);
+  }
+
+  public Function<Path, RSocketServerTransportFactory> unixDomainSocketServerTransportFactory() {
+    return unixDomainSocketServerTransportFactory;
+  }
+
+  /**
+   * Setter for {@code lease}. When enabled, server issues request leases to clients, sized from
+   * observed latency and in-flight requests, and advertises it in {@link
+   * RSocketServerTransport#tags()}.
+   *
+   * @param lease whether to issue request leases
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions lease(boolean lease) {
+    return set(o -> o.lease = lease);
+  }
+
+  public boolean lease() {
+    return lease;
+  }
+
+  /**
+   * Setter for {@code serviceScheduler}. When set, service methods are invoked on it instead of
+   * event loops.
+   *
+   * @param serviceScheduler scheduler to invoke service methods on, optional
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions serviceScheduler(Scheduler serviceScheduler) {
+    return set(o -> o.serviceScheduler = serviceScheduler);
+  }
+
+  public Scheduler serviceScheduler() {
+    return serviceScheduler;
+  }
+
+  public RSocketTransportOptions credentialsSupplier(CredentialsSupplier credentialsSupplier) {
+    return set(o -> o.credentialsSupplier = credentialsSupplier);
+  }
+
+  public CredentialsSupplier credentialsSupplier() {
+    return credentialsSupplier;
+  }
+
+  public RSocketTransportOptions clientTransportFactory(
+      RSocketClientTransportFactory clientTransportFactory) {
+    return set(o -> o.clientTransportFactory = clientTransportFactory);
+  }
+
+  public RSocketClientTransportFactory clientTransportFactory() {
+    return clientTransportFactory;
+  }
+
+  /**
+   * Setter for {@code unixDomainSocketClientTransportFactory}. When set, client connects over unix
+   * domain socket to peers which advertise socket visible from this process, instead of client
+   * transport factory.
+   *
+   * @param unixDomainSocketClientTransportFactory unix domain socket client transport factory by
+   *     socket path, optional
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions unixDomainSocketClientTransportFactory(
+      Function<Path, RSocketClientTransportFactory> unixDomainSocketClientTransportFactory) {
+    return set(
+        o -> o.unixDomainSocketClientTransportFactory = unixDomainSocketClientTransportFactory);
+  }
+
+  public Function<Path, RSocketClientTransportFactory> unixDomainSocketClientTransportFactory() {
+    return unixDomainSocketClientTransportFactory;
+  }
+
+  /**
+   * Setter for {@code connectionsPerPeer}. Default is {@code 1}.
+   *
+   * @param connectionsPerPeer max number of client connections to one remote address (per event
+   *     loop)
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions connectionsPerPeer(int connectionsPerPeer) {
+    if (connectionsPerPeer < 1) {
+      throw new IllegalArgumentException("connectionsPerPeer must be positive");
+    }
+    return set(o -> o.connectionsPerPeer = connectionsPerPeer);
+  }
+
+  public int connectionsPerPeer() {
+    return connectionsPerPeer;
+  }
+
+  /**
+   * Setter for {@code loopResources}. When set, callers running on their event loops get client
+   * connections bound to the same event loop, so that requests and responses don't hop between
+   * threads. Client transport factory must run on the worker group of these loop resources.
+   *
+   * @param loopResources loop resources for event loop affinity, optional
+   * @return new {@code RSocketTransportOptions} instance
+   */
+  public RSocketTransportOptions loopResources(DelegatedLoopResources loopResources) {
+    return set(o -> o.loopResources = loopResources);
+  }
+
+  public DelegatedLoopResources loopResources() {
+    return loopResources;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", RSocketTransportOptions.class.getSimpleName() + "[", "]")
+        .add("connectionSetupCodec=" + connectionSetupCodec)
+        .add("headersCodec=" + headersCodec)
+        .add("dataCodecs=" + dataCodecs)
+        .add("allocator=" + allocator)
+        .add("payloadDecoder=" + payloadDecoder)
+        .add("sharedMemoryDirectory=" + sharedMemoryDirectory)
+        .add("sharedMemoryIdleOptions=" + sharedMemoryIdleOptions)
+        .add("unixDomainSocketDirectory=" + unixDomainSocketDirectory)
+        .add("resume=" + resume)
+        .add("authenticator=" + authenticator)
+        .add("serverTransportFactory=" + serverTransportFactory)
+        .add("lease=" + lease)
+        .add("serviceScheduler=" + serviceScheduler)
+        .add("credentialsSupplier=" + credentialsSupplier)
+        .add("clientTransportFactory=" + clientTransportFactory)
+        .add("connectionsPerPeer=" + connectionsPerPeer)
+        .add("loopResources=" + loopResources)
+        .toString();
+  }
+}
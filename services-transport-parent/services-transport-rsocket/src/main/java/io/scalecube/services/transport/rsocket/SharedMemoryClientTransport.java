@@ -0,0 +1,111 @@
+package io.scalecube.services.transport.rsocket;
+
+import static io.scalecube.services.transport.rsocket.SharedMemoryServerTransport.CLIENT_TO_SERVER_SUFFIX;
+import static io.scalecube.services.transport.rsocket.SharedMemoryServerTransport.LOCK_SUFFIX;
+import static io.scalecube.services.transport.rsocket.SharedMemoryServerTransport.OWNER_LOCK;
+import static io.scalecube.services.transport.rsocket.SharedMemoryServerTransport.READY_SUFFIX;
+import static io.scalecube.services.transport.rsocket.SharedMemoryServerTransport.SERVER_TO_CLIENT_SUFFIX;
+
+import io.rsocket.DuplexConnection;
+import io.rsocket.transport.ClientTransport;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * RSocket client transport over shared memory, see {@link SharedMemoryServerTransport}. Connect
+ * waits for server to delete the marker file, watching the directory for that.
+ */
+final class SharedMemoryClientTransport implements ClientTransport {
+
+  private static final long CONNECT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  // marker is rechecked once in a while, since watch service may drop or delay events
+  private static final long RECHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final Path directory;
+  private final SharedMemoryPoller poller;
+
+  /**
+   * Constructor.
+   *
+   * @param directory server directory
+   * @param poller poller of client connections, shared by all of them
+   */
+  SharedMemoryClientTransport(Path directory, SharedMemoryPoller poller) {
+    this.directory = directory;
+    this.poller = poller;
+  }
+
+  @Override
+  public Mono<DuplexConnection> connect() {
+    // waiting for server to accept is blocking
+    return Mono.fromCallable(this::connect0).subscribeOn(Schedulers.boundedElastic());
+  }
+
+  private DuplexConnection connect0() throws IOException, InterruptedException {
+    String id = UUID.randomUUID().toString();
+    Path clientToServer = directory.resolve(id + CLIENT_TO_SERVER_SUFFIX);
+    Path serverToClient = directory.resolve(id + SERVER_TO_CLIENT_SUFFIX);
+    Path marker = directory.resolve(id + READY_SUFFIX);
+    Path ownerLock = directory.resolve(OWNER_LOCK);
+
+    SharedMemoryLock lock = null;
+    SharedMemoryRingBuffer outbound = null;
+    SharedMemoryRingBuffer inbound = null;
+    try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+      directory.register(watchService, StandardWatchEventKinds.ENTRY_DELETE);
+      lock = SharedMemoryLock.create(directory.resolve(id + LOCK_SUFFIX));
+      outbound =
+          SharedMemoryRingBuffer.create(clientToServer, SharedMemoryRingBuffer.DEFAULT_CAPACITY);
+      inbound =
+          SharedMemoryRingBuffer.create(serverToClient, SharedMemoryRingBuffer.DEFAULT_CAPACITY);
+      Files.createFile(marker); // ring buffers are initialized by now
+
+      long deadline = System.nanoTime() + CONNECT_TIMEOUT_NANOS;
+      while (Files.exists(marker)) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          throw new ConnectException("Connection is not accepted: " + directory);
+        }
+        if (!SharedMemoryLock.isHeld(ownerLock)) {
+          throw new ConnectException("Server is gone: " + directory);
+        }
+        WatchKey key =
+            watchService.poll(Math.min(remaining, RECHECK_INTERVAL_NANOS), TimeUnit.NANOSECONDS);
+        if (key != null) {
+          key.pollEvents();
+          key.reset();
+        }
+      }
+      if (!inbound.isAccepted()) {
+        throw new ConnectException("Connection is rejected: " + directory);
+      }
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      if (outbound != null) {
+        outbound.unmap();
+      }
+      if (inbound != null) {
+        inbound.unmap();
+      }
+      Files.deleteIfExists(marker);
+      Files.deleteIfExists(clientToServer);
+      Files.deleteIfExists(serverToClient);
+      if (lock != null) {
+        lock.close();
+      }
+      throw e;
+    }
+
+    return new SharedMemoryDuplexConnection(
+        "client-" + id, poller, lock, ownerLock, inbound, outbound, clientToServer, serverToClient);
+  }
+}
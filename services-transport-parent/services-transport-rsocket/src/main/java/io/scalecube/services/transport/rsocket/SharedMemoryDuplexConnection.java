@@ -0,0 +1,292 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.rsocket.DuplexConnection;
+import io.scalecube.services.transport.api.ReferenceCountUtil;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.UnicastProcessor;
+
+/**
+ * Duplex connection over pair of shared memory ring buffers, one per direction. Rings are only
+ * touched by {@link SharedMemoryPoller} thread of the transport, which copies outbound frames into
+ * outbound ring and inbound frames out of inbound ring, and closes the connection when it's
+ * disposed, closed by remote side, or when the peer process is gone. Outbound frames are requested
+ * from senders in batches, and the next batch is requested only after poller has moved frames of
+ * the previous one into the ring, so while the ring is full senders are backpressured instead of
+ * piling frames up in memory.
+ */
+final class SharedMemoryDuplexConnection implements DuplexConnection {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedMemoryDuplexConnection.class);
+
+  static final int MAX_OUTBOUND_FRAMES = 256;
+  private static final int REPLENISH_FRAMES = MAX_OUTBOUND_FRAMES >> 1;
+
+  private final String name;
+  private final SharedMemoryPoller poller;
+  private final SharedMemoryLock lock;
+  private final Path peerLock;
+  private final SharedMemoryRingBuffer inbound;
+  private final SharedMemoryRingBuffer outbound;
+  private final Path[] files;
+  private final ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
+
+  private final List<OutboundSubscriber> outboundSubscribers = new CopyOnWriteArrayList<>();
+  private final UnicastProcessor<ByteBuf> inboundFrames = UnicastProcessor.create();
+  private final MonoProcessor<Void> onClose = MonoProcessor.create();
+
+  private volatile boolean disposed;
+  private boolean closed; // poller thread only
+
+  /**
+   * Constructor.
+   *
+   * @param name connection name, used for logging
+   * @param poller poller of the transport, connection registers itself there
+   * @param lock lock of this process owned by connection, released on close, may be null
+   * @param peerLock lock file of the peer process, see {@link SharedMemoryLock}
+   * @param inbound ring buffer to read frames from
+   * @param outbound ring buffer to write frames to
+   * @param files ring buffer files, deleted on close
+   */
+  SharedMemoryDuplexConnection(
+      String name,
+      SharedMemoryPoller poller,
+      SharedMemoryLock lock,
+      Path peerLock,
+      SharedMemoryRingBuffer inbound,
+      SharedMemoryRingBuffer outbound,
+      Path... files) {
+    this.name = name;
+    this.poller = poller;
+    this.lock = lock;
+    this.peerLock = peerLock;
+    this.inbound = inbound;
+    this.outbound = outbound;
+    this.files = files;
+    poller.register(this);
+  }
+
+  @Override
+  public Mono<Void> send(Publisher<ByteBuf> frames) {
+    return Mono.create(
+        sink -> {
+          OutboundSubscriber subscriber = new OutboundSubscriber(sink);
+          outboundSubscribers.add(subscriber);
+          sink.onCancel(subscriber);
+          frames.subscribe(subscriber);
+        });
+  }
+
+  @Override
+  public Flux<ByteBuf> receive() {
+    return inboundFrames;
+  }
+
+  @Override
+  public ByteBufAllocator alloc() {
+    return allocator;
+  }
+
+  @Override
+  public Mono<Void> onClose() {
+    return onClose;
+  }
+
+  @Override
+  public void dispose() {
+    if (!disposed) {
+      disposed = true;
+      poller.wakeUp();
+    }
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return disposed;
+  }
+
+  /**
+   * Moves frames between the rings, called by poller thread.
+   *
+   * @return number of moved frames, or negative number if connection should be closed
+   */
+  int poll() {
+    if (disposed) {
+      return -1;
+    }
+    int workCount = drainOutbound() + inbound.read(allocator, inboundFrames::onNext);
+    if (workCount == 0 && inbound.isClosed()) {
+      inbound.read(allocator, inboundFrames::onNext); // frames written right before close
+      LOGGER.debug("[rsocket][shm][{}] Closed by remote side", name);
+      return -1;
+    }
+    return workCount;
+  }
+
+  /**
+   * Returns whether there is work which poller must not park on.
+   *
+   * @return {@code true} if connection is disposed or there are outbound frames
+   */
+  boolean hasPendingWork() {
+    return disposed || hasOutboundFrames();
+  }
+
+  /**
+   * Returns whether peer process still holds its lock file.
+   *
+   * @return {@code false} if peer process is gone
+   */
+  boolean isPeerAlive() {
+    return peerLock == null || SharedMemoryLock.isHeld(peerLock);
+  }
+
+  private int drainOutbound() {
+    int count = 0;
+    for (OutboundSubscriber subscriber : outboundSubscribers) {
+      count += subscriber.drain();
+    }
+    outbound.publish();
+    return count;
+  }
+
+  private boolean hasOutboundFrames() {
+    for (OutboundSubscriber subscriber : outboundSubscribers) {
+      if (!subscriber.queue.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Closes connection and deletes its files, called by poller thread. */
+  void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    disposed = true;
+    outbound.markClosed();
+    for (OutboundSubscriber subscriber : outboundSubscribers) {
+      subscriber.dispose();
+      subscriber.releaseFrames();
+    }
+    outboundSubscribers.clear();
+    // only poller thread touches the rings, so it's safe to unmap them here
+    inbound.unmap();
+    outbound.unmap();
+    for (Path file : files) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        LOGGER.warn("[rsocket][shm][{}] Failed to delete {}, cause: {}", name, file, e.toString());
+      }
+    }
+    if (lock != null) {
+      lock.close();
+    }
+    inboundFrames.onComplete();
+    onClose.onComplete();
+  }
+
+  @Override
+  public String toString() {
+    return "SharedMemoryDuplexConnection{" + name + '}';
+  }
+
+  /**
+   * Subscriber of one {@link #send(Publisher)} call. Holds at most {@link #MAX_OUTBOUND_FRAMES}
+   * frames, since it never requests more than that ahead of what poller has written to the ring.
+   */
+  private final class OutboundSubscriber extends BaseSubscriber<ByteBuf> {
+
+    private final MonoSink<Void> sink;
+    private final Queue<ByteBuf> queue = new ConcurrentLinkedQueue<>();
+    private int written; // poller thread only
+
+    private OutboundSubscriber(MonoSink<Void> sink) {
+      this.sink = sink;
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      subscription.request(MAX_OUTBOUND_FRAMES);
+    }
+
+    @Override
+    protected void hookOnNext(ByteBuf frame) {
+      if (disposed) {
+        ReferenceCountUtil.safestRelease(frame);
+        cancel();
+        return;
+      }
+      queue.offer(frame);
+      if (disposed) {
+        releaseFrames(); // closed concurrently
+        return;
+      }
+      poller.wakeUp();
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      sink.success();
+    }
+
+    @Override
+    protected void hookOnError(Throwable throwable) {
+      sink.error(throwable);
+    }
+
+    @Override
+    protected void hookOnCancel() {
+      sink.success();
+    }
+
+    private int drain() {
+      int count = 0;
+      ByteBuf frame;
+      while ((frame = queue.peek()) != null) {
+        if (!outbound.write(frame)) {
+          break; // ring is full, retry when consumer catches up
+        }
+        queue.poll();
+        ReferenceCountUtil.safestRelease(frame);
+        count++;
+      }
+      written += count;
+      if (written >= REPLENISH_FRAMES) {
+        request(written);
+        written = 0;
+      }
+      if (isDisposed() && queue.isEmpty()) {
+        outboundSubscribers.remove(this);
+      }
+      return count;
+    }
+
+    private void releaseFrames() {
+      ByteBuf frame;
+      while ((frame = queue.poll()) != null) {
+        ReferenceCountUtil.safestRelease(frame);
+      }
+    }
+  }
+}
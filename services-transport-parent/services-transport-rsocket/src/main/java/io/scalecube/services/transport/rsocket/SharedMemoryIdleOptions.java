@@ -0,0 +1,100 @@
+package io.scalecube.services.transport.rsocket;
+
+import java.time.Duration;
+import java.util.StringJoiner;
+
+/**
+ * Idle settings of shared memory connection poller. The other process has no way to wake poller
+ * up, so when there is nothing to read or write, poller first spins, then yields, then parks for
+ * a time which doubles from min to max park time, and checks the rings in between. A frame which
+ * arrives while poller is parked waits till it wakes up, i.e. up to max park time after an idle
+ * period; the first frames of a burst pay that, the following ones don't. More spins and yields
+ * and shorter park times cut this latency at the cost of cpu of the poller thread, one per
+ * transport: with max spins of {@link Integer#MAX_VALUE} poller keeps its core fully busy and
+ * picks frames up in well under a microsecond. Defaults are 100 spins, 10 yields, and park time
+ * from 1 microsecond to 1 millisecond.
+ */
+public final class SharedMemoryIdleOptions {
+
+  private int maxSpins = 100;
+  private int maxYields = 10;
+  private Duration minParkTime = Duration.ofNanos(1_000);
+  private Duration maxParkTime = Duration.ofMillis(1);
+
+  public SharedMemoryIdleOptions() {}
+
+  /**
+   * Copy constructor.
+   *
+   * @param other other instance
+   */
+  private SharedMemoryIdleOptions(SharedMemoryIdleOptions other) {
+    this.maxSpins = other.maxSpins;
+    this.maxYields = other.maxYields;
+    this.minParkTime = other.minParkTime;
+    this.maxParkTime = other.maxParkTime;
+  }
+
+  /**
+   * Setter for number of idle spins and yields before poller parks.
+   *
+   * @param maxSpins number of busy spins, {@link Integer#MAX_VALUE} means spin forever
+   * @param maxYields number of {@link Thread#yield()} calls after spins
+   * @return new {@code SharedMemoryIdleOptions} instance
+   */
+  public SharedMemoryIdleOptions spins(int maxSpins, int maxYields) {
+    if (maxSpins < 0 || maxYields < 0) {
+      throw new IllegalArgumentException("Invalid spins: " + maxSpins + ", " + maxYields);
+    }
+    SharedMemoryIdleOptions options = new SharedMemoryIdleOptions(this);
+    options.maxSpins = maxSpins;
+    options.maxYields = maxYields;
+    return options;
+  }
+
+  /**
+   * Setter for park time of idle poller. It starts with min park time and doubles up to max park
+   * time, which is also max latency of the first frame after an idle period.
+   *
+   * @param minParkTime min park time
+   * @param maxParkTime max park time
+   * @return new {@code SharedMemoryIdleOptions} instance
+   */
+  public SharedMemoryIdleOptions parkTime(Duration minParkTime, Duration maxParkTime) {
+    if (minParkTime.isNegative()
+        || minParkTime.isZero()
+        || maxParkTime.compareTo(minParkTime) < 0) {
+      throw new IllegalArgumentException("Invalid park time: " + minParkTime + ", " + maxParkTime);
+    }
+    SharedMemoryIdleOptions options = new SharedMemoryIdleOptions(this);
+    options.minParkTime = minParkTime;
+    options.maxParkTime = maxParkTime;
+    return options;
+  }
+
+  public int maxSpins() {
+    return maxSpins;
+  }
+
+  public int maxYields() {
+    return maxYields;
+  }
+
+  public Duration minParkTime() {
+    return minParkTime;
+  }
+
+  public Duration maxParkTime() {
+    return maxParkTime;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", SharedMemoryIdleOptions.class.getSimpleName() + "[", "]")
+        .add("maxSpins=" + maxSpins)
+        .add("maxYields=" + maxYields)
+        .add("minParkTime=" + minParkTime)
+        .add("maxParkTime=" + maxParkTime)
+        .toString();
+  }
+}
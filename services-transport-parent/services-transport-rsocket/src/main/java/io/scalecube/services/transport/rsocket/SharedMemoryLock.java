@@ -0,0 +1,100 @@
+package io.scalecube.services.transport.rsocket;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lock file which tells whether owner of shared memory files is alive. Owner holds exclusive lock
+ * on the file for as long as the files are in use, and operating system releases it when owner
+ * process dies, so files of crashed process can be told apart and deleted.
+ *
+ * <p>Closing any channel of a file releases all locks of the process on that file, so lock files
+ * of this process are never opened for checking, they are looked up in {@link #OWN_LOCKS}.
+ */
+final class SharedMemoryLock implements AutoCloseable {
+
+  private static final Set<Path> OWN_LOCKS = ConcurrentHashMap.newKeySet();
+
+  private final Path path;
+  private final FileChannel channel;
+
+  private SharedMemoryLock(Path path, FileChannel channel) {
+    this.path = path;
+    this.channel = channel;
+  }
+
+  /**
+   * Creates lock file and locks it.
+   *
+   * @param path lock file path, must not exist
+   * @return lock
+   */
+  static SharedMemoryLock create(Path path) throws IOException {
+    Path key = path.toAbsolutePath();
+    FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    try {
+      OWN_LOCKS.add(key);
+      if (channel.tryLock() == null) {
+        throw new IOException("Failed to lock " + path);
+      }
+      return new SharedMemoryLock(key, channel);
+    } catch (IOException | RuntimeException e) {
+      OWN_LOCKS.remove(key);
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns whether owner of given lock file is alive, i.e. whether the file is locked.
+   *
+   * @param path lock file path
+   * @return {@code false} if there is no such file, or nobody holds the lock
+   */
+  static boolean isHeld(Path path) {
+    if (OWN_LOCKS.contains(path.toAbsolutePath())) {
+      return true;
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      FileLock lock = channel.tryLock();
+      if (lock == null) {
+        return true;
+      }
+      lock.release();
+      return false;
+    } catch (OverlappingFileLockException e) {
+      return true;
+    } catch (NoSuchFileException e) {
+      return false;
+    } catch (IOException e) {
+      return true; // can't tell, so it's not touched
+    }
+  }
+
+  /** Releases the lock and deletes lock file. */
+  @Override
+  public void close() {
+    try {
+      Files.deleteIfExists(path);
+      channel.close();
+    } catch (IOException e) {
+      // no-op, lock is released with the process anyway
+    } finally {
+      OWN_LOCKS.remove(path);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SharedMemoryLock{" + path + '}';
+  }
+}
@@ -0,0 +1,162 @@
+package io.scalecube.services.transport.rsocket;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single thread which polls all shared memory connections of a transport: copies their outbound
+ * frames into outbound rings and inbound frames out of inbound rings. Poller spins while any
+ * connection has work and backs off to parking when all are idle, since the other process can't
+ * signal it, see {@link SharedMemoryIdleOptions} for the latency cost. Once in a while it also
+ * checks that peers of connections are alive. Thread is started with the first connection and
+ * exits when the last one is closed.
+ */
+final class SharedMemoryPoller {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedMemoryPoller.class);
+
+  private static final long LIVENESS_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final String name;
+  private final int maxSpins;
+  private final int maxYields;
+  private final long minParkNanos;
+  private final long maxParkNanos;
+
+  private final List<SharedMemoryDuplexConnection> connections = new CopyOnWriteArrayList<>();
+
+  private volatile Thread thread; // written under lock of this
+  private volatile boolean parked;
+
+  /**
+   * Constructor.
+   *
+   * @param name poller name, used for poller thread
+   * @param idleOptions idle settings of poller
+   */
+  SharedMemoryPoller(String name, SharedMemoryIdleOptions idleOptions) {
+    this.name = name;
+    this.maxSpins = idleOptions.maxSpins();
+    this.maxYields = idleOptions.maxYields();
+    this.minParkNanos = idleOptions.minParkTime().toNanos();
+    this.maxParkNanos = idleOptions.maxParkTime().toNanos();
+  }
+
+  /**
+   * Starts polling given connection.
+   *
+   * @param connection connection
+   */
+  synchronized void register(SharedMemoryDuplexConnection connection) {
+    connections.add(connection);
+    if (thread == null) {
+      thread = new Thread(this::run, "rsocket-shm-" + name);
+      thread.setDaemon(true);
+      thread.start();
+    } else {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /** Wakes poller up if it's parked, e.g. when there are new outbound frames. */
+  void wakeUp() {
+    if (parked) {
+      Thread thread = this.thread;
+      if (thread != null) {
+        LockSupport.unpark(thread);
+      }
+    }
+  }
+
+  private void run() {
+    int spins = 0;
+    int yields = 0;
+    long parkNanos = minParkNanos;
+    long livenessCheckTime = System.nanoTime() + LIVENESS_CHECK_INTERVAL_NANOS;
+    while (true) {
+      if (connections.isEmpty()) {
+        synchronized (this) {
+          if (connections.isEmpty()) {
+            thread = null;
+            return;
+          }
+        }
+      }
+
+      int workCount = 0;
+      for (SharedMemoryDuplexConnection connection : connections) {
+        workCount += poll(connection);
+      }
+      if (workCount > 0) {
+        spins = 0;
+        yields = 0;
+        parkNanos = minParkNanos;
+        continue;
+      }
+
+      long now = System.nanoTime();
+      if (now - livenessCheckTime >= 0) {
+        livenessCheckTime = now + LIVENESS_CHECK_INTERVAL_NANOS;
+        for (SharedMemoryDuplexConnection connection : connections) {
+          if (!connection.isPeerAlive()) {
+            LOGGER.warn("[rsocket][shm][{}] Peer of {} is gone", name, connection);
+            close(connection);
+          }
+        }
+      }
+
+      if (maxSpins == Integer.MAX_VALUE || spins < maxSpins) {
+        spins++; // spins forever with max value
+      } else if (yields < maxYields) {
+        yields++;
+        Thread.yield();
+      } else {
+        parked = true;
+        if (!hasPendingWork()) {
+          LockSupport.parkNanos(parkNanos);
+        }
+        parked = false;
+        parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+      }
+    }
+  }
+
+  private int poll(SharedMemoryDuplexConnection connection) {
+    try {
+      int workCount = connection.poll();
+      if (workCount < 0) {
+        close(connection);
+        return 0;
+      }
+      return workCount;
+    } catch (Throwable th) {
+      LOGGER.warn(
+          "[rsocket][shm][{}] Failed to poll {}, cause: {}", name, connection, th.toString());
+      close(connection);
+      return 0;
+    }
+  }
+
+  private void close(SharedMemoryDuplexConnection connection) {
+    connections.remove(connection);
+    connection.close();
+  }
+
+  private boolean hasPendingWork() {
+    for (SharedMemoryDuplexConnection connection : connections) {
+      if (connection.hasPendingWork()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "SharedMemoryPoller{" + name + '}';
+  }
+}
@@ -0,0 +1,315 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.internal.PlatformDependent;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Single producer single consumer ring buffer of frames over memory mapped file, shared by two
+ * processes. Producer and consumer positions are published the same way as in-process lock-free
+ * queues do it, so neither side makes syscalls on the data path: positions are read with volatile
+ * loads and written with ordered stores, frames with plain accesses in between. Producer publishes
+ * its position once per batch of frames.
+ *
+ * <p>Layout: header with producer position (tail), consumer position (head) and state flags, each
+ * on its own cache line pair, followed by data region of power of two capacity. Frame record is
+ * 4-byte length followed by frame bytes, aligned to 8 bytes. Record which doesn't fit till the end
+ * of data region is preceded by padding record of negative length.
+ */
+final class SharedMemoryRingBuffer {
+
+  static final int DEFAULT_CAPACITY = 4 << 20;
+
+  private static final int TAIL_OFFSET = 0;
+  private static final int HEAD_OFFSET = 128;
+  private static final int CLOSED_OFFSET = 256;
+  private static final int ACCEPTED_OFFSET = 260;
+  private static final int CAPACITY_OFFSET = 264;
+  static final int HEADER_LENGTH = 384;
+
+  // volatile and ordered accessors of sun.misc.Unsafe, looked up reflectively so that javac
+  // doesn't warn about proprietary api; jit inlines invocation of static final method handles
+  private static final MethodHandle GET_INT_VOLATILE;
+  private static final MethodHandle PUT_INT_VOLATILE;
+  private static final MethodHandle GET_LONG_VOLATILE;
+  private static final MethodHandle PUT_ORDERED_LONG;
+
+  static {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field field = unsafeClass.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      Object unsafe = field.get(null);
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      GET_INT_VOLATILE =
+          lookup
+              .findVirtual(
+                  unsafeClass,
+                  "getIntVolatile",
+                  MethodType.methodType(int.class, Object.class, long.class))
+              .bindTo(unsafe);
+      PUT_INT_VOLATILE =
+          lookup
+              .findVirtual(
+                  unsafeClass,
+                  "putIntVolatile",
+                  MethodType.methodType(void.class, Object.class, long.class, int.class))
+              .bindTo(unsafe);
+      GET_LONG_VOLATILE =
+          lookup
+              .findVirtual(
+                  unsafeClass,
+                  "getLongVolatile",
+                  MethodType.methodType(long.class, Object.class, long.class))
+              .bindTo(unsafe);
+      PUT_ORDERED_LONG =
+          lookup
+              .findVirtual(
+                  unsafeClass,
+                  "putOrderedLong",
+                  MethodType.methodType(void.class, Object.class, long.class, long.class))
+              .bindTo(unsafe);
+    } catch (Exception e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private static final int RECORD_HEADER_LENGTH = 4;
+  private static final int ALIGNMENT = 8;
+
+  private final MappedByteBuffer buffer;
+  private final long address;
+  private final long dataAddress;
+  private final int capacity;
+  private final int mask;
+
+  // own position of either side, and last seen position of the other side
+  private long position;
+  private long publishedPosition;
+  private long otherPositionCache;
+
+  private SharedMemoryRingBuffer(MappedByteBuffer buffer, int capacity) {
+    this.buffer = buffer;
+    this.address = PlatformDependent.directBufferAddress(buffer);
+    this.dataAddress = address + HEADER_LENGTH;
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Creates new ring buffer file.
+   *
+   * @param path file path
+   * @param capacity capacity of data region, power of two
+   * @return ring buffer
+   */
+  static SharedMemoryRingBuffer create(Path path, int capacity) throws IOException {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("capacity must be power of two: " + capacity);
+    }
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_LENGTH + capacity);
+      SharedMemoryRingBuffer ringBuffer = new SharedMemoryRingBuffer(buffer, capacity);
+      putIntVolatile(ringBuffer.address + CAPACITY_OFFSET, capacity);
+      return ringBuffer;
+    }
+  }
+
+  /**
+   * Maps existing ring buffer file.
+   *
+   * @param path file path
+   * @return ring buffer
+   */
+  static SharedMemoryRingBuffer open(Path path) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      int capacity = (int) channel.size() - HEADER_LENGTH;
+      if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+        throw new IOException("Invalid ring buffer file: " + path);
+      }
+      MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_LENGTH + capacity);
+      SharedMemoryRingBuffer ringBuffer = new SharedMemoryRingBuffer(buffer, capacity);
+      if (getIntVolatile(ringBuffer.address + CAPACITY_OFFSET) != capacity) {
+        throw new IOException("Ring buffer file is not initialized: " + path);
+      }
+      return ringBuffer;
+    }
+  }
+
+  /**
+   * Returns max length of frame which fits in this ring buffer.
+   *
+   * @return max frame length
+   */
+  int maxFrameLength() {
+    return (capacity >> 1) - RECORD_HEADER_LENGTH;
+  }
+
+  /**
+   * Writes frame, producer side only. Frame is not released, and is not visible to consumer until
+   * {@link #publish()}.
+   *
+   * @param frame frame
+   * @return {@code false} if there is no room for the frame at the moment
+   */
+  boolean write(ByteBuf frame) {
+    int length = frame.readableBytes();
+    if (length > maxFrameLength()) {
+      throw new IllegalArgumentException(
+          "Frame length " + length + " exceeds max frame length " + maxFrameLength());
+    }
+    int recordLength = align(RECORD_HEADER_LENGTH + length);
+    long tail = position;
+    int index = (int) (tail & mask);
+    int toEnd = capacity - index;
+    int required = recordLength <= toEnd ? recordLength : recordLength + toEnd;
+
+    if (tail + required - otherPositionCache > capacity) {
+      otherPositionCache = getLongVolatile(address + HEAD_OFFSET);
+      if (tail + required - otherPositionCache > capacity) {
+        return false;
+      }
+    }
+
+    if (recordLength > toEnd) {
+      PlatformDependent.putInt(dataAddress + index, -toEnd);
+      tail += toEnd;
+      index = 0;
+    }
+
+    PlatformDependent.putInt(dataAddress + index, length);
+    ByteBuffer target = buffer.duplicate();
+    target.position(HEADER_LENGTH + index + RECORD_HEADER_LENGTH);
+    target.limit(HEADER_LENGTH + index + RECORD_HEADER_LENGTH + length);
+    frame.getBytes(frame.readerIndex(), target);
+
+    position = tail + recordLength;
+    return true;
+  }
+
+  /** Makes written frames visible to consumer, producer side only. */
+  void publish() {
+    if (publishedPosition != position) {
+      putOrderedLong(address + TAIL_OFFSET, position);
+      publishedPosition = position;
+    }
+  }
+
+  /**
+   * Reads all available frames, consumer side only. Frames are copied into buffers of given
+   * allocator, and handler owns them.
+   *
+   * @param allocator allocator
+   * @param handler frame handler
+   * @return number of frames read
+   */
+  int read(ByteBufAllocator allocator, Consumer<ByteBuf> handler) {
+    long head = position;
+    if (head == otherPositionCache) {
+      otherPositionCache = getLongVolatile(address + TAIL_OFFSET);
+      if (head == otherPositionCache) {
+        return 0;
+      }
+    }
+
+    long tail = otherPositionCache;
+    int count = 0;
+    try {
+      while (head < tail) {
+        int index = (int) (head & mask);
+        int length = PlatformDependent.getInt(dataAddress + index);
+        if (length < 0) {
+          head -= length; // padding
+          continue;
+        }
+        ByteBuffer source = buffer.duplicate();
+        source.position(HEADER_LENGTH + index + RECORD_HEADER_LENGTH);
+        source.limit(HEADER_LENGTH + index + RECORD_HEADER_LENGTH + length);
+        ByteBuf frame = allocator.buffer(length);
+        frame.writeBytes(source);
+        head += align(RECORD_HEADER_LENGTH + length);
+        count++;
+        handler.accept(frame);
+      }
+    } finally {
+      position = head;
+      putOrderedLong(address + HEAD_OFFSET, head);
+    }
+    return count;
+  }
+
+  void markClosed() {
+    putIntVolatile(address + CLOSED_OFFSET, 1);
+  }
+
+  boolean isClosed() {
+    return getIntVolatile(address + CLOSED_OFFSET) != 0;
+  }
+
+  void markAccepted() {
+    putIntVolatile(address + ACCEPTED_OFFSET, 1);
+  }
+
+  boolean isAccepted() {
+    return getIntVolatile(address + ACCEPTED_OFFSET) != 0;
+  }
+
+  /** Unmaps the file, ring buffer must not be used afterwards. */
+  void unmap() {
+    PlatformDependent.freeDirectBuffer(buffer);
+  }
+
+  private static int getIntVolatile(long address) {
+    try {
+      return (int) GET_INT_VOLATILE.invokeExact((Object) null, address);
+    } catch (Throwable th) {
+      throw new IllegalStateException(th);
+    }
+  }
+
+  private static void putIntVolatile(long address, int value) {
+    try {
+      PUT_INT_VOLATILE.invokeExact((Object) null, address, value);
+    } catch (Throwable th) {
+      throw new IllegalStateException(th);
+    }
+  }
+
+  private static long getLongVolatile(long address) {
+    try {
+      return (long) GET_LONG_VOLATILE.invokeExact((Object) null, address);
+    } catch (Throwable th) {
+      throw new IllegalStateException(th);
+    }
+  }
+
+  private static void putOrderedLong(long address, long value) {
+    try {
+      PUT_ORDERED_LONG.invokeExact((Object) null, address, value);
+    } catch (Throwable th) {
+      throw new IllegalStateException(th);
+    }
+  }
+
+  private static int align(int length) {
+    return (length + ALIGNMENT - 1) & -ALIGNMENT;
+  }
+}
@@ -0,0 +1,308 @@
+package io.scalecube.services.transport.rsocket;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import io.rsocket.Closeable;
+import io.rsocket.transport.ServerTransport;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+/**
+ * RSocket server transport over shared memory. Server owns a directory (normally under {@code
+ * /dev/shm}) and holds {@link #OWNER_LOCK} file in it. Clients connect by creating their own lock
+ * file and pair of ring buffer files in the directory followed by {@code .ready} marker file.
+ * Server watches the directory for markers, maps the ring buffers, flags the outbound one as
+ * accepted and deletes the marker, which is what the client waits for. On start server deletes
+ * directories left by crashed servers, i.e. the ones whose owner lock nobody holds.
+ */
+final class SharedMemoryServerTransport implements ServerTransport<Closeable> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedMemoryServerTransport.class);
+
+  /** Service endpoint tag with shared memory directory of server transport. */
+  static final String DIRECTORY_TAG = "rsocket.shm.directory";
+
+  static final String DIRECTORY_PREFIX = "scalecube-";
+  static final String OWNER_LOCK = "server.lock";
+  static final String CLIENT_TO_SERVER_SUFFIX = ".c2s";
+  static final String SERVER_TO_CLIENT_SUFFIX = ".s2c";
+  static final String READY_SUFFIX = ".ready";
+  static final String LOCK_SUFFIX = ".lock";
+
+  /**
+   * Max length of frame sent over shared memory, both sides fragment larger frames. Well below max
+   * frame length of the ring, so that a full frame is never rejected by it.
+   */
+  static final int MTU = SharedMemoryRingBuffer.DEFAULT_CAPACITY >> 2;
+
+  // directory is rescanned once in a while, since watch service may drop or delay events
+  private static final long RESCAN_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+  // directory without live owner is left alone for a while, its owner may be just starting
+  private static final long STALE_DIRECTORY_AGE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final Path directory;
+  private final SharedMemoryPoller poller;
+
+  /**
+   * Constructor.
+   *
+   * @param directory server directory, created on start
+   * @param idleOptions idle settings of poller of server connections
+   */
+  SharedMemoryServerTransport(Path directory, SharedMemoryIdleOptions idleOptions) {
+    this.directory = directory;
+    this.poller = new SharedMemoryPoller("server", idleOptions);
+  }
+
+  /**
+   * Returns whether shared memory directory advertised by server is visible from this process,
+   * i.e. whether server runs on the same host.
+   *
+   * @param directory server directory
+   * @return {@code true} if directory exists
+   */
+  static boolean isReachable(String directory) {
+    return Files.isDirectory(Paths.get(directory));
+  }
+
+  @Override
+  public Mono<Closeable> start(ConnectionAcceptor acceptor) {
+    return Mono.fromCallable(
+        () -> {
+          Files.createDirectories(directory);
+          SharedMemoryLock ownerLock = SharedMemoryLock.create(directory.resolve(OWNER_LOCK));
+          try {
+            deleteStaleDirectories(directory.getParent());
+            return new Acceptor(acceptor, ownerLock);
+          } catch (IOException | RuntimeException e) {
+            ownerLock.close();
+            deleteDirectory(directory);
+            throw e;
+          }
+        });
+  }
+
+  /**
+   * Deletes server directories under given base directory whose owner is gone.
+   *
+   * @param base base directory
+   */
+  static void deleteStaleDirectories(Path base) {
+    try (DirectoryStream<Path> directories =
+        Files.newDirectoryStream(base, DIRECTORY_PREFIX + "*")) {
+      for (Path directory : directories) {
+        if (Files.isDirectory(directory) && isStale(directory)) {
+          LOGGER.info("[rsocket][shm][server] Deleting stale directory {}", directory);
+          deleteDirectory(directory);
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.warn("[rsocket][shm][server] Failed to scan {}: {}", base, e.toString());
+    }
+  }
+
+  private static boolean isStale(Path directory) throws IOException {
+    long modifiedTime = Files.getLastModifiedTime(directory).toMillis();
+    return modifiedTime < System.currentTimeMillis() - STALE_DIRECTORY_AGE_MILLIS
+        && !SharedMemoryLock.isHeld(directory.resolve(OWNER_LOCK));
+  }
+
+  private static void deleteDirectory(Path directory) {
+    try {
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+        for (Path file : files) {
+          Files.deleteIfExists(file);
+        }
+      }
+      Files.deleteIfExists(directory);
+    } catch (IOException e) {
+      LOGGER.warn("[rsocket][shm][server] Failed to delete {}: {}", directory, e.toString());
+    }
+  }
+
+  private static void deleteFiles(Path... files) {
+    for (Path file : files) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        LOGGER.warn("[rsocket][shm][server] Failed to delete {}: {}", file, e.toString());
+      }
+    }
+  }
+
+  private final class Acceptor implements Closeable {
+
+    private final ConnectionAcceptor acceptor;
+    private final SharedMemoryLock ownerLock;
+    private final WatchService watchService;
+    private final Set<SharedMemoryDuplexConnection> connections = ConcurrentHashMap.newKeySet();
+    private final MonoProcessor<Void> onClose = MonoProcessor.create();
+
+    private volatile boolean disposed;
+
+    private Acceptor(ConnectionAcceptor acceptor, SharedMemoryLock ownerLock) throws IOException {
+      this.acceptor = acceptor;
+      this.ownerLock = ownerLock;
+      this.watchService = directory.getFileSystem().newWatchService();
+      try {
+        directory.register(watchService, ENTRY_CREATE);
+      } catch (IOException e) {
+        watchService.close();
+        throw e;
+      }
+      Thread thread = new Thread(this::run, "rsocket-shm-acceptor");
+      thread.setDaemon(true);
+      thread.start();
+      LOGGER.info("[rsocket][shm][server] Listening on {}", directory);
+    }
+
+    private void run() {
+      try {
+        scan(); // markers created before watch service was registered
+        while (!disposed) {
+          WatchKey key = watchService.poll(RESCAN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+          if (key == null) {
+            scan();
+            continue;
+          }
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+              scan();
+            } else if (event.context().toString().endsWith(READY_SUFFIX)) {
+              accept(directory.resolve(event.context().toString()));
+            }
+          }
+          key.reset();
+        }
+      } catch (ClosedWatchServiceException e) {
+        // disposed
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        close();
+      }
+    }
+
+    private void scan() {
+      try (DirectoryStream<Path> markers =
+          Files.newDirectoryStream(directory, "*" + READY_SUFFIX)) {
+        for (Path marker : markers) {
+          accept(marker);
+        }
+      } catch (IOException e) {
+        LOGGER.warn("[rsocket][shm][server] Failed to scan {}: {}", directory, e.toString());
+      }
+    }
+
+    private void accept(Path marker) {
+      if (!Files.exists(marker)) {
+        return; // already accepted on rescan
+      }
+      String fileName = marker.getFileName().toString();
+      String id = fileName.substring(0, fileName.length() - READY_SUFFIX.length());
+      Path clientToServer = directory.resolve(id + CLIENT_TO_SERVER_SUFFIX);
+      Path serverToClient = directory.resolve(id + SERVER_TO_CLIENT_SUFFIX);
+      Path clientLock = directory.resolve(id + LOCK_SUFFIX);
+      try {
+        if (!SharedMemoryLock.isHeld(clientLock)) {
+          LOGGER.debug("[rsocket][shm][server] Client of {} is gone", id);
+          deleteFiles(clientToServer, serverToClient);
+          return;
+        }
+        SharedMemoryRingBuffer inbound = SharedMemoryRingBuffer.open(clientToServer);
+        SharedMemoryRingBuffer outbound;
+        try {
+          outbound = SharedMemoryRingBuffer.open(serverToClient);
+        } catch (IOException | RuntimeException e) {
+          inbound.unmap();
+          throw e;
+        }
+        outbound.markAccepted();
+
+        SharedMemoryDuplexConnection connection =
+            new SharedMemoryDuplexConnection(
+                "server-" + id,
+                poller,
+                null,
+                clientLock,
+                inbound,
+                outbound,
+                clientToServer,
+                serverToClient);
+        connections.add(connection);
+        connection.onClose().doFinally(s -> connections.remove(connection)).subscribe();
+
+        LOGGER.debug("[rsocket][shm][server] Accepted connection: {}", id);
+        Mono.from(acceptor.apply(connection))
+            .subscribe(
+                null,
+                th -> {
+                  LOGGER.warn(
+                      "[rsocket][shm][server] Failed to accept {}, cause: {}", id, th.toString());
+                  connection.dispose();
+                });
+      } catch (Exception e) {
+        LOGGER.warn("[rsocket][shm][server] Failed to accept {}, cause: {}", id, e.toString());
+      } finally {
+        deleteFiles(marker); // wakes the client up, accepted or not
+      }
+    }
+
+    private void close() {
+      dispose();
+      // rings are unmapped by poller thread, directory is deleted once it's done with them
+      Flux.fromIterable(connections)
+          .flatMap(
+              connection -> {
+                connection.dispose();
+                return connection.onClose();
+              })
+          .doFinally(
+              s -> {
+                ownerLock.close();
+                deleteDirectory(directory);
+                onClose.onComplete();
+              })
+          .subscribe();
+    }
+
+    @Override
+    public Mono<Void> onClose() {
+      return onClose;
+    }
+
+    @Override
+    public void dispose() {
+      if (!disposed) {
+        disposed = true;
+        try {
+          watchService.close();
+        } catch (IOException e) {
+          LOGGER.debug("[rsocket][shm][server] Failed to close watch service: {}", e.toString());
+        }
+      }
+    }
+
+    @Override
+    public boolean isDisposed() {
+      return disposed;
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollMode;
+import java.time.Duration;
+import java.util.StringJoiner;
+import reactor.netty.tcp.TcpClient;
+import reactor.netty.tcp.TcpServer;
+
+/**
+ * Socket buffer settings of rsocket tcp and websocket transports: kernel send and receive buffer
+ * sizes ({@code SO_SNDBUF}, {@code SO_RCVBUF}), and {@code WRITE_BUFFER_WATER_MARK} of netty
+ * channel. Channel turns unwritable when its outbound buffer exceeds high water mark, and
+ * writable again when it drops below low water mark; server transport doesn't request responder
+ * streams while channel is unwritable. Optionally, flushes of channel are consolidated, so that
+ * small frames go out in fewer {@code write} syscalls, and socket receive queue is busy polled.
+ */
+public final class SocketBufferOptions {
+
+  private int sendBufferSize; // 0 means system default
+  private int receiveBufferSize; // 0 means system default
+  private int writeBufferLowWaterMark = WriteBufferWaterMark.DEFAULT.low();
+  private int writeBufferHighWaterMark = WriteBufferWaterMark.DEFAULT.high();
+  private int maxConsolidatedFlushes; // 0 means flush consolidation is disabled
+  private Duration maxFlushDelay = Duration.ZERO;
+  private int busyPollMicros; // 0 means busy polling is disabled
+
+  public SocketBufferOptions() {}
+
+  /**
+   * Copy constructor.
+   *
+   * @param other other instance
+   */
+  private SocketBufferOptions(SocketBufferOptions other) {
+    this.sendBufferSize = other.sendBufferSize;
+    this.receiveBufferSize = other.receiveBufferSize;
+    this.writeBufferLowWaterMark = other.writeBufferLowWaterMark;
+    this.writeBufferHighWaterMark = other.writeBufferHighWaterMark;
+    this.maxConsolidatedFlushes = other.maxConsolidatedFlushes;
+    this.maxFlushDelay = other.maxFlushDelay;
+    this.busyPollMicros = other.busyPollMicros;
+  }
+
+  /**
+   * Setter for {@code sendBufferSize}.
+   *
+   * @param sendBufferSize {@code SO_SNDBUF} in bytes, {@code 0} means system default
+   * @return new {@code SocketBufferOptions} instance
+   */
+  public SocketBufferOptions sendBufferSize(int sendBufferSize) {
+    if (sendBufferSize < 0) {
+      throw new IllegalArgumentException("sendBufferSize must not be negative: " + sendBufferSize);
+    }
+    SocketBufferOptions options = new SocketBufferOptions(this);
+    options.sendBufferSize = sendBufferSize;
+    return options;
+  }
+
+  /**
+   * Setter for {@code receiveBufferSize}.
+   *
+   * @param receiveBufferSize {@code SO_RCVBUF} in bytes, {@code 0} means system default
+   * @return new {@code SocketBufferOptions} instance
+   */
+  public SocketBufferOptions receiveBufferSize(int receiveBufferSize) {
+    if (receiveBufferSize < 0) {
+      throw new IllegalArgumentException(
+          "receiveBufferSize must not be negative: " + receiveBufferSize);
+    }
+    SocketBufferOptions options = new SocketBufferOptions(this);
+    options.receiveBufferSize = receiveBufferSize;
+    return options;
+  }
+
+  /**
+   * Setter for {@code WRITE_BUFFER_WATER_MARK}. Default is netty default, 32 KiB and 64 KiB.
+   *
+   * @param low low water mark in bytes
+   * @param high high water mark in bytes
+   * @return new {@code SocketBufferOptions} instance
+   */
+  public SocketBufferOptions writeBufferWaterMark(int low, int high) {
+    if (low < 0 || high < low) {
+      throw new IllegalArgumentException("Invalid write buffer water mark: " + low + ", " + high);
+    }
+    SocketBufferOptions options = new SocketBufferOptions(this);
+    options.writeBufferLowWaterMark = low;
+    options.writeBufferHighWaterMark = high;
+    return options;
+  }
+
+  /**
+   * Enables flush consolidation: flush is postponed until {@code maxFlushes} flushes were requested
+   * or {@code maxDelay} passed, whichever comes first, and while channel reads, until the read
+   * completes. Zero delay postpones flush only until current event loop task is done, so it adds
+   * no latency beyond that. Default is disabled, i.e. every frame is flushed right away.
+   *
+   * @param maxFlushes max number of consolidated flushes, {@code 0} disables consolidation
+   * @param maxDelay max delay of flush
+   * @return new {@code SocketBufferOptions} instance
+   */
+  public SocketBufferOptions flushConsolidation(int maxFlushes, Duration maxDelay) {
+    if (maxFlushes < 0) {
+      throw new IllegalArgumentException("maxFlushes must not be negative: " + maxFlushes);
+    }
+    if (maxDelay.isNegative()) {
+      throw new IllegalArgumentException("maxDelay must not be negative: " + maxDelay);
+    }
+    SocketBufferOptions options = new SocketBufferOptions(this);
+    options.maxConsolidatedFlushes = maxFlushes;
+    options.maxFlushDelay = maxDelay;
+    return options;
+  }
+
+  /**
+   * Setter for {@code SO_BUSY_POLL}: on receive, kernel busy polls device queue for up to given
+   * time instead of waiting for interrupt, which lowers latency at the cost of cpu. Channels are
+   * also explicitly put in edge-triggered mode. Requires native epoll transport and driver support,
+   * ignored otherwise. Default is {@code 0}, i.e. disabled.
+   *
+   * @param busyPollMicros busy poll time in microseconds, {@code 0} disables busy polling
+   * @return new {@code SocketBufferOptions} instance
+   */
+  public SocketBufferOptions busyPoll(int busyPollMicros) {
+    if (busyPollMicros < 0) {
+      throw new IllegalArgumentException("busyPollMicros must not be negative: " + busyPollMicros);
+    }
+    SocketBufferOptions options = new SocketBufferOptions(this);
+    options.busyPollMicros = busyPollMicros;
+    return options;
+  }
+
+  public int sendBufferSize() {
+    return sendBufferSize;
+  }
+
+  public int receiveBufferSize() {
+    return receiveBufferSize;
+  }
+
+  public int writeBufferLowWaterMark() {
+    return writeBufferLowWaterMark;
+  }
+
+  public int writeBufferHighWaterMark() {
+    return writeBufferHighWaterMark;
+  }
+
+  public int maxConsolidatedFlushes() {
+    return maxConsolidatedFlushes;
+  }
+
+  public Duration maxFlushDelay() {
+    return maxFlushDelay;
+  }
+
+  public int busyPollMicros() {
+    return busyPollMicros;
+  }
+
+  /**
+   * Applies these options to connections accepted by given server.
+   *
+   * @param tcpServer tcp server
+   * @return configured tcp server
+   */
+  public TcpServer apply(TcpServer tcpServer) {
+    TcpServer server =
+        tcpServer.option(
+            ChannelOption.WRITE_BUFFER_WATER_MARK,
+            new WriteBufferWaterMark(writeBufferLowWaterMark, writeBufferHighWaterMark));
+    if (sendBufferSize > 0) {
+      server = server.option(ChannelOption.SO_SNDBUF, sendBufferSize);
+    }
+    if (receiveBufferSize > 0) {
+      // set on listening socket too, tcp window scale is negotiated before accept
+      server =
+          server
+              .selectorOption(ChannelOption.SO_RCVBUF, receiveBufferSize)
+              .option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+    }
+    if (busyPollMicros > 0 && Epoll.isAvailable()) {
+      server =
+          server
+              .option(EpollChannelOption.SO_BUSY_POLL, busyPollMicros)
+              .option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+    }
+    if (maxConsolidatedFlushes > 0) {
+      long maxDelayNanos = maxFlushDelay.toNanos();
+      server =
+          server.doOnConnection(
+              connection ->
+                  FlushConsolidation.install(connection, maxConsolidatedFlushes, maxDelayNanos));
+    }
+    return server;
+  }
+
+  /**
+   * Applies these options to connections of given client.
+   *
+   * @param tcpClient tcp client
+   * @return configured tcp client
+   */
+  public TcpClient apply(TcpClient tcpClient) {
+    TcpClient client =
+        tcpClient.option(
+            ChannelOption.WRITE_BUFFER_WATER_MARK,
+            new WriteBufferWaterMark(writeBufferLowWaterMark, writeBufferHighWaterMark));
+    if (sendBufferSize > 0) {
+      client = client.option(ChannelOption.SO_SNDBUF, sendBufferSize);
+    }
+    if (receiveBufferSize > 0) {
+      client = client.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+    }
+    if (busyPollMicros > 0 && Epoll.isAvailable()) {
+      client =
+          client
+              .option(EpollChannelOption.SO_BUSY_POLL, busyPollMicros)
+              .option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+    }
+    if (maxConsolidatedFlushes > 0) {
+      long maxDelayNanos = maxFlushDelay.toNanos();
+      client =
+          client.doOnConnected(
+              connection ->
+                  FlushConsolidation.install(connection, maxConsolidatedFlushes, maxDelayNanos));
+    }
+    return client;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", SocketBufferOptions.class.getSimpleName() + "[", "]")
+        .add("sendBufferSize=" + sendBufferSize)
+        .add("receiveBufferSize=" + receiveBufferSize)
+        .add("writeBufferLowWaterMark=" + writeBufferLowWaterMark)
+        .add("writeBufferHighWaterMark=" + writeBufferHighWaterMark)
+        .add("maxConsolidatedFlushes=" + maxConsolidatedFlushes)
+        .add("maxFlushDelay=" + maxFlushDelay)
+        .add("busyPollMicros=" + busyPollMicros)
+        .toString();
+  }
+}
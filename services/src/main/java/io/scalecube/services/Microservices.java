@@ -205,7 +205,7 @@ private Mono<Microservices> start() {
                       .id(id)
                       .address(serviceAddress)
                       .contentTypes(DataCodec.getAllContentTypes())
-                      .tags(tags);
+                      .tags(transportBootstrap.endpointTags(tags));
 
               // invoke service providers and register services
               List<Object> serviceInstances =
@@ -786,6 +786,15 @@ private Mono<ServiceTransportBootstrap> start(Microservices microservices) {
                       ex.toString()));
     }
 
+    private Map<String, String> endpointTags(Map<String, String> tags) {
+      if (serverTransport == null || serverTransport.tags().isEmpty()) {
+        return tags;
+      }
+      Map<String, String> endpointTags = new HashMap<>(serverTransport.tags());
+      endpointTags.putAll(tags);
+      return endpointTags;
+    }
+
     private static Address prepareAddress(Address address) {
       final InetAddress inetAddress;
       try {
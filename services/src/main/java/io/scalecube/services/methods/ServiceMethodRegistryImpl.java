@@ -3,7 +3,10 @@
 import io.scalecube.services.Reflect;
 import io.scalecube.services.ServiceInfo;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -20,8 +23,11 @@ public final class ServiceMethodRegistryImpl implements ServiceMethodRegistry {
   private final ConcurrentMap<String, ServiceMethodInvoker> methodInvokers =
       new ConcurrentHashMap<>();
 
+  private final List<ServiceMethodInvoker> methodInvokersById = new CopyOnWriteArrayList<>();
+  private final ConcurrentMap<String, Integer> methodIds = new ConcurrentHashMap<>();
+
   @Override
-  public void registerService(ServiceInfo serviceInfo) {
+  public synchronized void registerService(ServiceInfo serviceInfo) {
     serviceInfos.add(serviceInfo);
 
     Reflect.serviceInterfaces(serviceInfo.serviceInstance())
@@ -60,6 +66,9 @@ public void registerService(ServiceInfo serviceInfo) {
 
                           methodInvokers.put(methodInfo.qualifier(), methodInvoker);
                           methodInvokers.put(methodInfo.oldQualifier(), methodInvoker);
+
+                          methodIds.put(methodInfo.qualifier(), methodInvokersById.size());
+                          methodInvokersById.add(methodInvoker);
                         }));
   }
 
@@ -76,6 +85,18 @@ public ServiceMethodInvoker getInvoker(String qualifier) {
     return methodInvokers.get(Objects.requireNonNull(qualifier, "[getInvoker] qualifier"));
   }
 
+  @Override
+  public ServiceMethodInvoker getInvoker(int methodId) {
+    return methodId >= 0 && methodId < methodInvokersById.size()
+        ? methodInvokersById.get(methodId)
+        : null;
+  }
+
+  @Override
+  public Map<String, Integer> methodIds() {
+    return Collections.unmodifiableMap(new HashMap<>(methodIds));
+  }
+
   @Override
   public List<ServiceMethodInvoker> listInvokers() {
     return new ArrayList<>(methodInvokers.values());
@@ -3,13 +3,14 @@
 import io.scalecube.services.ServiceEndpoint;
 import io.scalecube.services.ServiceReference;
 import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.registry.api.ServiceReferences;
 import io.scalecube.services.registry.api.ServiceRegistry;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import org.jctools.maps.NonBlockingHashMap;
 import org.slf4j.Logger;
@@ -21,8 +22,15 @@ public class ServiceRegistryImpl implements ServiceRegistry {
 
   // todo how to remove it (tags problem)?
   private final Map<String, ServiceEndpoint> serviceEndpoints = new NonBlockingHashMap<>();
+  // qualifier -> unmodifiable list, replaced as a whole on register/unregister
   private final Map<String, List<ServiceReference>> serviceReferencesByQualifier =
       new NonBlockingHashMap<>();
+  // qualifier -> content type -> snapshot, replaced as a whole on register/unregister
+  private final Map<String, Map<String, ServiceReferences>> snapshotsByQualifier =
+      new NonBlockingHashMap<>();
+  // endpoint id -> its service references, guarded by this
+  private final Map<String, List<ServiceReference>> serviceReferencesByEndpoint = new HashMap<>();
+  private long snapshotVersion; // guarded by this
 
   @Override
   public List<ServiceEndpoint> listServiceEndpoints() {
@@ -39,68 +47,125 @@ public List<ServiceReference> listServiceReferences() {
 
   @Override
   public List<ServiceReference> lookupService(ServiceMessage request) {
-    List<ServiceReference> list = serviceReferencesByQualifier.get(request.qualifier());
-    if (list == null || list.isEmpty()) {
-      return Collections.emptyList();
+    return lookupServiceReferences(request).asList();
+  }
+
+  @Override
+  public ServiceReferences lookupServiceReferences(ServiceMessage request) {
+    Map<String, ServiceReferences> snapshots = snapshotsByQualifier.get(request.qualifier());
+    if (snapshots == null) {
+      return ServiceReferences.EMPTY;
     }
-    String contentType = request.dataFormatOrDefault();
-    return list.stream()
-        .filter(sr -> sr.contentTypes().contains(contentType))
-        .collect(Collectors.toList());
+    ServiceReferences snapshot = snapshots.get(request.dataFormatOrDefault());
+    return snapshot != null ? snapshot : ServiceReferences.EMPTY;
   }
 
   @Override
-  public boolean registerService(ServiceEndpoint serviceEndpoint) {
+  public synchronized boolean registerService(ServiceEndpoint serviceEndpoint) {
     boolean success = serviceEndpoints.putIfAbsent(serviceEndpoint.id(), serviceEndpoint) == null;
     if (success) {
       LOGGER.debug("ServiceEndpoint registered: {}", serviceEndpoint);
-      serviceEndpoint
-          .serviceReferences()
-          .forEach(
-              sr -> {
-                populateServiceReferences(sr.qualifier(), sr);
-                populateServiceReferences(sr.oldQualifier(), sr);
-              });
+      List<ServiceReference> serviceReferences =
+          new ArrayList<>(serviceEndpoint.serviceReferences());
+      serviceReferencesByEndpoint.put(serviceEndpoint.id(), serviceReferences);
+
+      Map<String, List<ServiceReference>> added = groupByQualifier(serviceReferences);
+      added.forEach(
+          (qualifier, list) -> {
+            List<ServiceReference> current =
+                serviceReferencesByQualifier.getOrDefault(qualifier, Collections.emptyList());
+            List<ServiceReference> result = new ArrayList<>(current.size() + list.size());
+            result.addAll(current);
+            result.addAll(list);
+            serviceReferencesByQualifier.put(qualifier, Collections.unmodifiableList(result));
+          });
+      rebuildSnapshots(added.keySet());
     }
     return success;
   }
 
   @Override
-  public ServiceEndpoint unregisterService(String endpointId) {
+  public synchronized ServiceEndpoint unregisterService(String endpointId) {
     ServiceEndpoint serviceEndpoint = serviceEndpoints.remove(endpointId);
     if (serviceEndpoint != null) {
       LOGGER.debug("ServiceEndpoint unregistered: {}", serviceEndpoint);
+      List<ServiceReference> serviceReferences = serviceReferencesByEndpoint.remove(endpointId);
+      if (serviceReferences == null) {
+        return serviceEndpoint;
+      }
 
-      List<ServiceReference> serviceReferencesOfEndpoint =
-          serviceReferencesByQualifier.values().stream()
-              .flatMap(Collection::stream)
-              .filter(sr -> sr.endpointId().equals(endpointId))
-              .collect(Collectors.toList());
-
-      serviceReferencesOfEndpoint.forEach(
-          sr -> {
-            computeServiceReferences(sr.qualifier(), sr);
-            computeServiceReferences(sr.oldQualifier(), sr);
+      Map<String, List<ServiceReference>> removed = groupByQualifier(serviceReferences);
+      removed.forEach(
+          (qualifier, list) -> {
+            List<ServiceReference> current = serviceReferencesByQualifier.get(qualifier);
+            if (current == null) {
+              return;
+            }
+            List<ServiceReference> result = new ArrayList<>(current.size());
+            for (ServiceReference serviceReference : current) {
+              if (!list.contains(serviceReference)) {
+                result.add(serviceReference);
+              }
+            }
+            if (result.isEmpty()) {
+              serviceReferencesByQualifier.remove(qualifier);
+            } else {
+              serviceReferencesByQualifier.put(qualifier, Collections.unmodifiableList(result));
+            }
           });
+      rebuildSnapshots(removed.keySet());
     }
     return serviceEndpoint;
   }
 
-  private void populateServiceReferences(String qualifier, ServiceReference serviceReference) {
-    serviceReferencesByQualifier
-        .computeIfAbsent(qualifier, key -> new CopyOnWriteArrayList<>())
-        .add(serviceReference);
+  /**
+   * Groups service references by qualifier, each one goes under both its qualifier and old
+   * qualifier.
+   *
+   * @param serviceReferences service references of one endpoint
+   * @return service references by qualifier
+   */
+  private static Map<String, List<ServiceReference>> groupByQualifier(
+      List<ServiceReference> serviceReferences) {
+    Map<String, List<ServiceReference>> result = new HashMap<>();
+    for (ServiceReference serviceReference : serviceReferences) {
+      result
+          .computeIfAbsent(serviceReference.qualifier(), key -> new ArrayList<>(1))
+          .add(serviceReference);
+      result
+          .computeIfAbsent(serviceReference.oldQualifier(), key -> new ArrayList<>(1))
+          .add(serviceReference);
+    }
+    return result;
   }
 
-  private void computeServiceReferences(String qualifier, ServiceReference serviceReference) {
-    serviceReferencesByQualifier.compute(
-        qualifier,
-        (key, list) -> {
-          if (list == null || list.isEmpty()) {
-            return null;
-          }
-          list.remove(serviceReference);
-          return !list.isEmpty() ? list : null;
-        });
+  /**
+   * Replaces snapshots of given qualifiers with ones built from current service references. Must
+   * be called under lock, after service references of these qualifiers were changed.
+   *
+   * @param qualifiers changed qualifiers
+   */
+  private void rebuildSnapshots(Collection<String> qualifiers) {
+    long version = ++snapshotVersion;
+    for (String qualifier : qualifiers) {
+      List<ServiceReference> list = serviceReferencesByQualifier.get(qualifier);
+      if (list == null || list.isEmpty()) {
+        snapshotsByQualifier.remove(qualifier);
+        continue;
+      }
+      Map<String, List<ServiceReference>> byContentType = new HashMap<>();
+      for (ServiceReference serviceReference : list) {
+        for (String contentType : serviceReference.contentTypes()) {
+          byContentType
+              .computeIfAbsent(contentType, key -> new ArrayList<>())
+              .add(serviceReference);
+        }
+      }
+      Map<String, ServiceReferences> snapshots = new HashMap<>();
+      byContentType.forEach(
+          (contentType, serviceReferences) ->
+              snapshots.put(contentType, new ServiceReferences(version, serviceReferences)));
+      snapshotsByQualifier.put(qualifier, snapshots);
+    }
   }
 }
@@ -0,0 +1,134 @@
+package io.scalecube.services.routing;
+
+import io.scalecube.services.ServiceReference;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.registry.api.ServiceReferences;
+import io.scalecube.services.registry.api.ServiceRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Sticky router: requests with the same routing key go to the same service endpoint, as long as
+ * it stays in the registry. Endpoint is chosen by rendezvous (highest random weight) hashing of
+ * routing key and endpoint id, so when endpoint is added or removed, only keys which go to (or went
+ * to) that endpoint are moved, others keep their endpoints. Routing key is taken from request
+ * header or extracted from request data; request without key is routed randomly.
+ *
+ * <p>Routing key is hashed by its {@code toString()}, so that nodes in different JVMs route the
+ * same key alike, unlike {@code hashCode()} of enums or objects. Keys must have value based {@code
+ * toString()}, e.g. strings, numbers, enums or UUIDs.
+ *
+ * <p>Choice costs a hash per service reference, which is cheaper than ring lookup for any
+ * realistic number of endpoints, and needs no state to be rebuilt on registry changes.
+ */
+public class ConsistentHashServiceRouter implements Router {
+
+  /** Default header of routing key. */
+  public static final String ROUTING_KEY_HEADER = "routingKey";
+
+  private final Function<ServiceMessage, Object> keyExtractor;
+
+  /** Constructor, routing key is taken from {@link #ROUTING_KEY_HEADER} header. */
+  public ConsistentHashServiceRouter() {
+    this(ROUTING_KEY_HEADER);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param headerName header of routing key
+   */
+  public ConsistentHashServiceRouter(String headerName) {
+    Objects.requireNonNull(headerName, "headerName");
+    this.keyExtractor = request -> request.header(headerName);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param dataKeyExtractor extracts routing key from request data, returns {@code null} if there
+   *     is no key
+   * @param <T> type of request data
+   */
+  public <T> ConsistentHashServiceRouter(Function<? super T, ?> dataKeyExtractor) {
+    Objects.requireNonNull(dataKeyExtractor, "dataKeyExtractor");
+    this.keyExtractor =
+        request -> request.hasData() ? dataKeyExtractor.apply(request.<T>data()) : null;
+  }
+
+  @Override
+  public Optional<ServiceReference> route(ServiceRegistry serviceRegistry, ServiceMessage request) {
+    ServiceReferences serviceInstances = serviceRegistry.lookupServiceReferences(request);
+    int size = serviceInstances.size();
+    if (size == 0) {
+      return Optional.empty();
+    } else if (size == 1) {
+      return Optional.of(serviceInstances.get(0));
+    }
+    Object key = keyExtractor.apply(request);
+    if (key == null) {
+      return Optional.of(serviceInstances.get(ThreadLocalRandom.current().nextInt(size)));
+    }
+    int keyHash = hash(key.toString());
+    ServiceReference result = null;
+    long maxWeight = Long.MIN_VALUE;
+    for (int i = 0; i < size; i++) {
+      ServiceReference serviceReference = serviceInstances.get(i);
+      long weight = weight(keyHash, serviceReference.endpointId().hashCode());
+      if (result == null || weight > maxWeight) {
+        result = serviceReference;
+        maxWeight = weight;
+      }
+    }
+    return Optional.of(result);
+  }
+
+  private static int hash(String key) {
+    // murmur3 x86 32-bit over utf-8 bytes, with zero seed
+    byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+    int h = 0;
+    int i = 0;
+    for (; i + 4 <= bytes.length; i += 4) {
+      int k =
+          (bytes[i] & 0xFF)
+              | (bytes[i + 1] & 0xFF) << 8
+              | (bytes[i + 2] & 0xFF) << 16
+              | (bytes[i + 3] & 0xFF) << 24;
+      h ^= mixK(k);
+      h = Integer.rotateLeft(h, 13) * 5 + 0xe6546b64;
+    }
+    int remaining = bytes.length - i;
+    if (remaining > 0) {
+      int k = 0;
+      for (int j = remaining - 1; j >= 0; j--) {
+        k = k << 8 | (bytes[i + j] & 0xFF);
+      }
+      h ^= mixK(k);
+    }
+    h ^= bytes.length;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  private static int mixK(int k) {
+    return Integer.rotateLeft(k * 0xcc9e2d51, 15) * 0x1b873593;
+  }
+
+  private static long weight(int keyHash, int endpointHash) {
+    // murmur3 finalizer, spreads every input bit over the whole weight
+    long h = ((long) keyHash << 32) ^ (endpointHash & 0xFFFFFFFFL);
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
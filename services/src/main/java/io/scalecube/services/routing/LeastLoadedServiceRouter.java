@@ -0,0 +1,145 @@
+package io.scalecube.services.routing;
+
+import io.scalecube.services.ServiceReference;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.registry.api.ServiceReferences;
+import io.scalecube.services.registry.api.ServiceRegistry;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jctools.maps.NonBlockingHashMap;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Power of two choices router: picks two random service references, and routes to the less loaded
+ * one. Load of service endpoint is its peak EWMA latency times number of requests in-flight to it
+ * (both fed by service call), so that slow or stalled endpoint, e.g. one in GC pause, quickly gets
+ * less traffic, and gets it back once it recovers. Latency is tracked per service endpoint, i.e.
+ * across all its methods.
+ *
+ * <p>Endpoint without latency measured yet gets one request at a time, until the first response.
+ * Failed requests count as slow ones, so that failing endpoint isn't favored for failing fast.
+ */
+public class LeastLoadedServiceRouter implements LoadAwareRouter {
+
+  private static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(5);
+  private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long IDLE_EVICTION_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final Map<String, EndpointStats> statsByEndpoint = new NonBlockingHashMap<>();
+  private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+
+  @Override
+  public Optional<ServiceReference> route(ServiceRegistry serviceRegistry, ServiceMessage request) {
+    ServiceReferences serviceInstances = serviceRegistry.lookupServiceReferences(request);
+    int size = serviceInstances.size();
+    if (size == 0) {
+      return Optional.empty();
+    } else if (size == 1) {
+      return Optional.of(serviceInstances.get(0));
+    } else {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int i = random.nextInt(size);
+      int j = random.nextInt(size - 1);
+      if (j >= i) {
+        j++; // distinct from the first choice
+      }
+      ServiceReference first = serviceInstances.get(i);
+      ServiceReference second = serviceInstances.get(j);
+      long now = System.nanoTime();
+      evictIdleStats(now);
+      return Optional.of(cost(first, now) <= cost(second, now) ? first : second);
+    }
+  }
+
+  @Override
+  public void onRequestStart(ServiceReference serviceReference) {
+    stats(serviceReference).inFlight.incrementAndGet();
+  }
+
+  @Override
+  public void onRequestFinish(
+      ServiceReference serviceReference, long latencyNanos, SignalType signal) {
+    EndpointStats stats = stats(serviceReference);
+    stats.inFlight.decrementAndGet();
+    if (signal == SignalType.ON_COMPLETE) {
+      stats.record(latencyNanos, System.nanoTime());
+    } else if (signal == SignalType.ON_ERROR) {
+      stats.record(Math.max(latencyNanos, FAILURE_PENALTY_NANOS), System.nanoTime());
+    }
+  }
+
+  /**
+   * Returns load of service endpoint, for tests and metrics.
+   *
+   * @param serviceReference service reference
+   * @return load, {@code 0} for unknown endpoint
+   */
+  public double load(ServiceReference serviceReference) {
+    return cost(serviceReference, System.nanoTime());
+  }
+
+  private double cost(ServiceReference serviceReference, long now) {
+    EndpointStats stats = statsByEndpoint.get(serviceReference.endpointId());
+    if (stats == null) {
+      return 0;
+    }
+    int inFlight = Math.max(stats.inFlight.get(), 0);
+    double latency = stats.latency(now);
+    if (latency <= 0) {
+      // not measured yet, probe it with a single request
+      return inFlight == 0 ? 0 : Double.MAX_VALUE;
+    }
+    return latency * (inFlight + 1);
+  }
+
+  private EndpointStats stats(ServiceReference serviceReference) {
+    return statsByEndpoint.computeIfAbsent(
+        serviceReference.endpointId(), endpointId -> new EndpointStats());
+  }
+
+  private void evictIdleStats(long now) {
+    long last = lastEviction.get();
+    if (now - last < IDLE_EVICTION_NANOS || !lastEviction.compareAndSet(last, now)) {
+      return;
+    }
+    // stats of endpoints which left the cluster
+    statsByEndpoint
+        .values()
+        .removeIf(
+            stats -> stats.inFlight.get() <= 0 && now - stats.lastUpdate > IDLE_EVICTION_NANOS);
+  }
+
+  private static final class EndpointStats {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // updated racily, lost updates are fine for moving average
+    private volatile double latency;
+    private volatile long lastUpdate = System.nanoTime();
+
+    private void record(long latencyNanos, long now) {
+      double latency = this.latency;
+      if (latencyNanos > latency) {
+        this.latency = latencyNanos; // peak: jump up right away, decay with time
+      } else {
+        double weight = Math.exp(-(double) Math.max(now - lastUpdate, 0) / DECAY_NANOS);
+        this.latency = latency * weight + latencyNanos * (1 - weight);
+      }
+      lastUpdate = now;
+    }
+
+    private double latency(long now) {
+      double latency = this.latency;
+      long elapsed = now - lastUpdate;
+      if (latency <= 0 || elapsed <= 0) {
+        return latency;
+      }
+      // idle endpoint has its peak decay, so it gets traffic again after it recovers
+      return latency * Math.exp(-(double) elapsed / DECAY_NANOS);
+    }
+  }
+}
@@ -2,8 +2,8 @@
 
 import io.scalecube.services.ServiceReference;
 import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.registry.api.ServiceReferences;
 import io.scalecube.services.registry.api.ServiceRegistry;
-import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -11,7 +11,7 @@ public class RandomServiceRouter implements Router {
 
   @Override
   public Optional<ServiceReference> route(ServiceRegistry serviceRegistry, ServiceMessage request) {
-    List<ServiceReference> serviceInstances = serviceRegistry.lookupService(request);
+    ServiceReferences serviceInstances = serviceRegistry.lookupServiceReferences(request);
     if (serviceInstances.isEmpty()) {
       return Optional.empty();
     } else if (serviceInstances.size() == 1) {
@@ -0,0 +1,198 @@
+package io.scalecube.services.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.ServiceEndpoint;
+import io.scalecube.services.ServiceMethodDefinition;
+import io.scalecube.services.ServiceReference;
+import io.scalecube.services.ServiceRegistration;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.registry.api.ServiceReferences;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class ServiceRegistryImplTest extends BaseTest {
+
+  private static final String JSON = "application/json";
+  private static final String OCTET_STREAM = "application/octet-stream";
+  private static final String SOCKET_PATH_TAG = "rsocket.uds.path";
+
+  private static final ServiceMessage JSON_REQUEST =
+      ServiceMessage.builder().qualifier("ns", "hello").build();
+  private static final ServiceMessage OCTET_STREAM_REQUEST =
+      ServiceMessage.from(JSON_REQUEST).dataFormat(OCTET_STREAM).build();
+
+  private final ServiceRegistryImpl serviceRegistry = new ServiceRegistryImpl();
+
+  @Test
+  public void testLookupFiltersByContentType() {
+    serviceRegistry.registerService(serviceEndpoint("a", 4801, JSON));
+    serviceRegistry.registerService(serviceEndpoint("b", 4802, JSON, OCTET_STREAM));
+
+    assertEquals(2, serviceRegistry.lookupServiceReferences(JSON_REQUEST).size());
+    ServiceReferences octetStream = serviceRegistry.lookupServiceReferences(OCTET_STREAM_REQUEST);
+    assertEquals(1, octetStream.size());
+    assertEquals("b", octetStream.get(0).endpointId());
+    assertEquals(octetStream.asList(), serviceRegistry.lookupService(OCTET_STREAM_REQUEST));
+  }
+
+  @Test
+  public void testSnapshotIsSharedUntilRegistryChanges() {
+    serviceRegistry.registerService(serviceEndpoint("a", 4801, JSON));
+    ServiceReferences before = serviceRegistry.lookupServiceReferences(JSON_REQUEST);
+    assertSame(before, serviceRegistry.lookupServiceReferences(JSON_REQUEST));
+
+    serviceRegistry.registerService(serviceEndpoint("b", 4802, JSON));
+    ServiceReferences after = serviceRegistry.lookupServiceReferences(JSON_REQUEST);
+    assertNotEquals(before.version(), after.version());
+    assertEquals(1, before.size());
+    assertEquals(2, after.size());
+
+    serviceRegistry.unregisterService("a");
+    serviceRegistry.unregisterService("b");
+    assertTrue(serviceRegistry.lookupServiceReferences(JSON_REQUEST).isEmpty());
+    assertTrue(serviceRegistry.lookupService(JSON_REQUEST).isEmpty());
+  }
+
+  @Test
+  public void testUnregisterRemovesOnlyReferencesOfEndpoint() {
+    serviceRegistry.registerService(serviceEndpoint("a", 4801, JSON));
+    serviceRegistry.registerService(serviceEndpoint("b", 4802, JSON));
+    assertEquals(4, serviceRegistry.listServiceReferences().size()); // qualifier and old one
+
+    serviceRegistry.unregisterService("a");
+    ServiceReferences serviceReferences = serviceRegistry.lookupServiceReferences(JSON_REQUEST);
+    assertEquals(1, serviceReferences.size());
+    assertEquals("b", serviceReferences.get(0).endpointId());
+    assertEquals(2, serviceRegistry.listServiceReferences().size());
+
+    serviceRegistry.registerService(serviceEndpoint("a", 4801, JSON));
+    assertEquals(2, serviceRegistry.lookupServiceReferences(JSON_REQUEST).size());
+  }
+
+  @Test
+  public void testReferencesShareMetadataAcrossEndpoints() {
+    int numOfEndpoints = 1000;
+    int numOfMethods = 20;
+    for (int i = 0; i < numOfEndpoints; i++) {
+      serviceRegistry.registerService(deserializedServiceEndpoint("endpoint-" + i, numOfMethods));
+    }
+
+    List<ServiceReference> serviceReferences = serviceRegistry.listServiceReferences();
+    assertEquals(2 * numOfEndpoints * numOfMethods, serviceReferences.size());
+
+    // footprint of metadata doesn't grow with number of endpoints
+    Set<Object> qualifiers = Collections.newSetFromMap(new IdentityHashMap<>());
+    Set<Object> methodTags = Collections.newSetFromMap(new IdentityHashMap<>());
+    Set<Object> endpointTags = Collections.newSetFromMap(new IdentityHashMap<>());
+    Set<Object> contentTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (ServiceReference serviceReference : serviceReferences) {
+      qualifiers.add(serviceReference.qualifier());
+      qualifiers.add(serviceReference.oldQualifier());
+      methodTags.add(serviceReference.methodTags());
+      endpointTags.add(serviceReference.endpointTags());
+      contentTypes.add(serviceReference.contentTypes());
+    }
+    assertEquals(2 * numOfMethods, qualifiers.size());
+    assertEquals(numOfMethods, methodTags.size());
+    assertEquals(numOfEndpoints, endpointTags.size()); // not copied per method
+    assertEquals(1, contentTypes.size());
+
+    ServiceMessage request = ServiceMessage.builder().qualifier("ns", "method-0").build();
+    ServiceReferences references = serviceRegistry.lookupServiceReferences(request);
+    assertEquals(numOfEndpoints, references.size());
+    for (int i = 0; i < references.size(); i++) {
+      Map<String, String> tags = references.get(i).tags();
+      assertEquals(3, tags.size());
+      assertEquals("method-0", tags.get("method"));
+      assertEquals("1.0", tags.get("version"));
+      assertEquals(socketPath(references.get(i).endpointId()), tags.get(SOCKET_PATH_TAG));
+    }
+  }
+
+  @Test
+  public void testMethodTagsOverrideEndpointTags() {
+    Map<String, String> methodTags = new HashMap<>();
+    methodTags.put("version", "2.0");
+    methodTags.put("nullable", null);
+    Map<String, String> endpointTags = new HashMap<>();
+    endpointTags.put("version", "1.0");
+    endpointTags.put("nullable", "endpoint");
+    endpointTags.put("zone", "a");
+
+    ServiceReference serviceReference =
+        new ServiceReference(
+            new ServiceMethodDefinition("hello", methodTags, false),
+            new ServiceRegistration("ns", Collections.emptyMap(), Collections.emptyList()),
+            ServiceEndpoint.builder()
+                .id("a")
+                .address(Address.create("localhost", 4801))
+                .tags(endpointTags)
+                .build());
+
+    Map<String, String> expected = new HashMap<>(endpointTags);
+    expected.putAll(methodTags);
+    assertEquals(expected, serviceReference.tags());
+    assertEquals("2.0", serviceReference.tags().get("version"));
+    assertNull(serviceReference.tags().get("nullable"));
+    assertTrue(serviceReference.tags().containsKey("zone"));
+  }
+
+  private static String socketPath(String endpointId) {
+    return "/var/run/scalecube/" + endpointId + ".sock";
+  }
+
+  private static ServiceEndpoint serviceEndpoint(String id, int port, String... contentTypes) {
+    return ServiceEndpoint.builder()
+        .id(id)
+        .address(Address.create("localhost", port))
+        .contentTypes(new HashSet<>(Arrays.asList(contentTypes)))
+        .serviceRegistrations(
+            Collections.singletonList(
+                new ServiceRegistration(
+                    "ns",
+                    Collections.emptyMap(),
+                    Collections.singletonList(new ServiceMethodDefinition("hello")))))
+        .build();
+  }
+
+  /**
+   * Builds endpoint whose strings and collections are separate copies, like ones of endpoint
+   * received from another node.
+   */
+  private static ServiceEndpoint deserializedServiceEndpoint(String id, int numOfMethods) {
+    List<ServiceMethodDefinition> methods = new ArrayList<>();
+    for (int i = 0; i < numOfMethods; i++) {
+      Map<String, String> tags = new HashMap<>();
+      tags.put(new String("method"), "method-" + i);
+      methods.add(new ServiceMethodDefinition("method-" + i, tags, false));
+    }
+    // tags of server transport are unique per node
+    Map<String, String> tags = new HashMap<>();
+    tags.put(new String("version"), new String("1.0"));
+    tags.put(SOCKET_PATH_TAG, socketPath(id));
+    return ServiceEndpoint.builder()
+        .id(id)
+        .address(Address.create("localhost", 4801))
+        .contentTypes(Collections.singleton(new String(JSON)))
+        .tags(tags)
+        .serviceRegistrations(
+            Collections.singletonList(
+                new ServiceRegistration(new String("ns"), Collections.emptyMap(), methods)))
+        .build();
+  }
+}
@@ -0,0 +1,154 @@
+package io.scalecube.services.routings;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.ServiceEndpoint;
+import io.scalecube.services.ServiceMethodDefinition;
+import io.scalecube.services.ServiceReference;
+import io.scalecube.services.ServiceRegistration;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.registry.api.ServiceReferences;
+import io.scalecube.services.registry.api.ServiceRegistry;
+import io.scalecube.services.routing.ConsistentHashServiceRouter;
+import io.scalecube.services.routing.Router;
+import io.scalecube.services.sut.GreetingRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class ConsistentHashServiceRouterTest extends BaseTest {
+
+  private static final int NUM_OF_KEYS = 10_000;
+
+  @Test
+  public void testSameKeyGoesToSameEndpoint() {
+    Router router = new ConsistentHashServiceRouter();
+    ServiceRegistry serviceRegistry = serviceRegistry(serviceReferences(5));
+
+    for (int i = 0; i < 100; i++) {
+      ServiceReference first = route(router, serviceRegistry, "instrument-" + i);
+      for (int j = 0; j < 10; j++) {
+        assertEquals(first, route(router, serviceRegistry, "instrument-" + i));
+      }
+    }
+  }
+
+  @Test
+  public void testKeysAreSpreadEvenly() {
+    Router router = new ConsistentHashServiceRouter();
+    List<ServiceReference> serviceReferences = serviceReferences(5);
+    ServiceRegistry serviceRegistry = serviceRegistry(serviceReferences);
+
+    Map<ServiceReference, Integer> counts = new HashMap<>();
+    for (int i = 0; i < NUM_OF_KEYS; i++) {
+      counts.merge(route(router, serviceRegistry, "instrument-" + i), 1, Integer::sum);
+    }
+
+    int expected = NUM_OF_KEYS / serviceReferences.size();
+    for (ServiceReference serviceReference : serviceReferences) {
+      int count = counts.getOrDefault(serviceReference, 0);
+      assertTrue(Math.abs(count - expected) < expected / 5, "Uneven spread: " + counts.values());
+    }
+  }
+
+  @Test
+  public void testOnlyKeysOfRemovedEndpointMove() {
+    Router router = new ConsistentHashServiceRouter();
+    List<ServiceReference> serviceReferences = serviceReferences(5);
+    ServiceRegistry before = serviceRegistry(serviceReferences);
+    ServiceReference removed = serviceReferences.get(2);
+    List<ServiceReference> remaining = new ArrayList<>(serviceReferences);
+    remaining.remove(removed);
+    ServiceRegistry after = serviceRegistry(remaining);
+
+    for (int i = 0; i < NUM_OF_KEYS; i++) {
+      String key = "instrument-" + i;
+      ServiceReference routedBefore = route(router, before, key);
+      if (!routedBefore.equals(removed)) {
+        assertEquals(routedBefore, route(router, after, key));
+      }
+    }
+  }
+
+  @Test
+  public void testRoutingKeyFromData() {
+    Router router = new ConsistentHashServiceRouter((GreetingRequest request) -> request.getName());
+    ServiceRegistry serviceRegistry = serviceRegistry(serviceReferences(5));
+
+    ServiceMessage request =
+        ServiceMessage.builder().qualifier("ns", "dummy").data(new GreetingRequest("joe")).build();
+    ServiceReference first = router.route(serviceRegistry, request).orElse(null);
+
+    assertEquals(
+        first,
+        router
+            .route(
+                serviceRegistry,
+                ServiceMessage.from(request).data(new GreetingRequest("joe")).build())
+            .orElse(null));
+  }
+
+  @Test
+  public void testKeyIsHashedByStringRepresentation() {
+    // enum hashCode differs between jvms, its name doesn't
+    Router dataRouter =
+        new ConsistentHashServiceRouter(
+            (GreetingRequest request) -> TimeUnit.valueOf(request.getName()));
+    Router headerRouter = new ConsistentHashServiceRouter();
+    ServiceRegistry serviceRegistry = serviceRegistry(serviceReferences(5));
+
+    for (TimeUnit timeUnit : TimeUnit.values()) {
+      ServiceMessage request =
+          ServiceMessage.builder()
+              .qualifier("ns", "dummy")
+              .data(new GreetingRequest(timeUnit.name()))
+              .build();
+      assertEquals(
+          route(headerRouter, serviceRegistry, timeUnit.name()),
+          dataRouter.route(serviceRegistry, request).orElse(null));
+    }
+  }
+
+  private static ServiceReference route(
+      Router router, ServiceRegistry serviceRegistry, String routingKey) {
+    ServiceMessage request =
+        ServiceMessage.builder()
+            .qualifier("ns", "dummy")
+            .header(ConsistentHashServiceRouter.ROUTING_KEY_HEADER, routingKey)
+            .build();
+    return router.route(serviceRegistry, request).orElse(null);
+  }
+
+  private static ServiceRegistry serviceRegistry(List<ServiceReference> serviceReferences) {
+    ServiceRegistry serviceRegistry = mock(ServiceRegistry.class);
+    when(serviceRegistry.lookupServiceReferences(any()))
+        .thenReturn(new ServiceReferences(1, serviceReferences));
+    return serviceRegistry;
+  }
+
+  private static List<ServiceReference> serviceReferences(int count) {
+    List<ServiceReference> serviceReferences = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      serviceReferences.add(
+          new ServiceReference(
+              new ServiceMethodDefinition("dummy"),
+              new ServiceRegistration("ns", Collections.emptyMap(), Collections.emptyList()),
+              ServiceEndpoint.builder()
+                  .id(UUID.randomUUID().toString())
+                  .address(Address.create("localhost", 4801 + i))
+                  .build()));
+    }
+    return serviceReferences;
+  }
+}
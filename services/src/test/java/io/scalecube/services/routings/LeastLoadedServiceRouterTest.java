@@ -0,0 +1,96 @@
+package io.scalecube.services.routings;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.ServiceEndpoint;
+import io.scalecube.services.ServiceMethodDefinition;
+import io.scalecube.services.ServiceReference;
+import io.scalecube.services.ServiceRegistration;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.registry.api.ServiceReferences;
+import io.scalecube.services.registry.api.ServiceRegistry;
+import io.scalecube.services.routing.LeastLoadedServiceRouter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.SignalType;
+
+public class LeastLoadedServiceRouterTest extends BaseTest {
+
+  private static final ServiceMessage REQUEST =
+      ServiceMessage.builder().qualifier("ns", "dummy").build();
+
+  private final LeastLoadedServiceRouter router = new LeastLoadedServiceRouter();
+  private final ServiceReference fast = serviceReference(4801);
+  private final ServiceReference slow = serviceReference(4802);
+  private ServiceRegistry serviceRegistry;
+
+  @BeforeEach
+  public void setUp() {
+    serviceRegistry = mock(ServiceRegistry.class);
+    when(serviceRegistry.lookupServiceReferences(any()))
+        .thenReturn(new ServiceReferences(1, Arrays.asList(fast, slow)));
+  }
+
+  @Test
+  public void testSlowEndpointIsAvoided() {
+    complete(fast, TimeUnit.MILLISECONDS.toNanos(1));
+    complete(slow, TimeUnit.MILLISECONDS.toNanos(100));
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(fast, router.route(serviceRegistry, REQUEST).orElse(null));
+    }
+  }
+
+  @Test
+  public void testLoadedEndpointIsAvoided() {
+    complete(fast, TimeUnit.MILLISECONDS.toNanos(1));
+    complete(slow, TimeUnit.MILLISECONDS.toNanos(10));
+    for (int i = 0; i < 100; i++) {
+      router.onRequestStart(fast);
+    }
+
+    assertEquals(slow, router.route(serviceRegistry, REQUEST).orElse(null));
+  }
+
+  @Test
+  public void testFailingEndpointIsAvoided() {
+    complete(slow, TimeUnit.MILLISECONDS.toNanos(10));
+    router.onRequestStart(fast);
+    router.onRequestFinish(fast, TimeUnit.MICROSECONDS.toNanos(1), SignalType.ON_ERROR);
+
+    assertEquals(slow, router.route(serviceRegistry, REQUEST).orElse(null));
+  }
+
+  @Test
+  public void testUnmeasuredEndpointIsProbedOneRequestAtTime() {
+    complete(slow, TimeUnit.MILLISECONDS.toNanos(10));
+
+    assertEquals(fast, router.route(serviceRegistry, REQUEST).orElse(null));
+    router.onRequestStart(fast);
+    assertEquals(slow, router.route(serviceRegistry, REQUEST).orElse(null));
+  }
+
+  private void complete(ServiceReference serviceReference, long latencyNanos) {
+    router.onRequestStart(serviceReference);
+    router.onRequestFinish(serviceReference, latencyNanos, SignalType.ON_COMPLETE);
+  }
+
+  private static ServiceReference serviceReference(int port) {
+    return new ServiceReference(
+        new ServiceMethodDefinition("dummy"),
+        new ServiceRegistration("ns", Collections.emptyMap(), Collections.emptyList()),
+        ServiceEndpoint.builder()
+            .id(UUID.randomUUID().toString())
+            .address(Address.create("localhost", port))
+            .build());
+  }
+}
@@ -0,0 +1,148 @@
+package io.scalecube.services.transport.local;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.ServiceInfo;
+import io.scalecube.services.discovery.ScalecubeServiceDiscovery;
+import io.scalecube.services.exceptions.UnauthorizedException;
+import io.scalecube.services.sut.GreetingRequest;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.sut.security.SecuredService;
+import io.scalecube.services.sut.security.SecuredServiceImpl;
+import io.scalecube.services.sut.security.UserProfile;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class LocalServiceTransportTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private static final Map<String, String> CREDENTIALS = Collections.singletonMap("token", "42");
+
+  private static Microservices gateway;
+  private static Microservices provider;
+
+  @BeforeAll
+  public static void setUp() {
+    StepVerifier.setDefaultTimeout(TIMEOUT);
+
+    gateway =
+        Microservices.builder()
+            .discovery("gateway", ScalecubeServiceDiscovery::new)
+            .transport(
+                () ->
+                    new LocalServiceTransport()
+                        .credentialsSupplier(serviceReference -> Mono.just(CREDENTIALS)))
+            .startAwait();
+
+    final Address gatewayAddress = gateway.discovery("gateway").address();
+
+    provider =
+        Microservices.builder()
+            .discovery(
+                "provider",
+                serviceEndpoint ->
+                    new ScalecubeServiceDiscovery(serviceEndpoint)
+                        .membership(cfg -> cfg.seedMembers(gatewayAddress)))
+            .transport(
+                () ->
+                    new LocalServiceTransport()
+                        .authenticator(LocalServiceTransportTest::authenticate))
+            .services(new GreetingServiceImpl())
+            .services(
+                ServiceInfo.fromServiceInstance(new SecuredServiceImpl())
+                    .principalMapper(authData -> new UserProfile(authData.toString(), "ADMIN"))
+                    .build())
+            .startAwait();
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    try {
+      gateway.shutdown().block();
+    } catch (Exception ignore) {
+      // no-op
+    }
+    try {
+      provider.shutdown().block();
+    } catch (Exception ignore) {
+      // no-op
+    }
+  }
+
+  @Test
+  public void testRequestResponse() {
+    StepVerifier.create(
+            gateway.call().api(GreetingService.class).greetingRequest(new GreetingRequest("joe")))
+        .assertNext(response -> assertEquals(" hello to: joe", response.getResult()))
+        .verifyComplete();
+  }
+
+  @Test
+  public void testRequestStream() {
+    StepVerifier.create(gateway.call().api(GreetingService.class).manyStream(100L))
+        .expectNextCount(100)
+        .verifyComplete();
+  }
+
+  @Test
+  public void testRequestChannel() {
+    Flux<GreetingRequest> requests = Flux.range(0, 10).map(i -> new GreetingRequest("joe-" + i));
+    StepVerifier.create(gateway.call().api(GreetingService.class).bidiGreeting(requests))
+        .expectNextCount(10)
+        .verifyComplete();
+  }
+
+  @Test
+  public void testErrorResponse() {
+    GreetingRequest request = new GreetingRequest("joe");
+    StepVerifier.create(gateway.call().api(GreetingService.class).failingRequest(request))
+        .expectErrorMessage(request.toString())
+        .verify();
+  }
+
+  @Test
+  public void testAuthenticatedCall() {
+    StepVerifier.create(gateway.call().api(SecuredService.class).helloWithPrincipal())
+        .assertNext(response -> assertEquals("Hello, user-42", response))
+        .verifyComplete();
+  }
+
+  @Test
+  public void testUnauthenticatedCall() {
+    Microservices caller =
+        Microservices.builder()
+            .discovery(
+                "caller",
+                serviceEndpoint ->
+                    new ScalecubeServiceDiscovery(serviceEndpoint)
+                        .membership(
+                            cfg -> cfg.seedMembers(gateway.discovery("gateway").address())))
+            .transport(LocalServiceTransport::new)
+            .startAwait();
+    try {
+      StepVerifier.create(caller.call().api(SecuredService.class).helloWithPrincipal())
+          .expectError(UnauthorizedException.class)
+          .verify();
+    } finally {
+      caller.shutdown().block(TIMEOUT);
+    }
+  }
+
+  private static Mono<String> authenticate(Map<String, String> credentials) {
+    return "42".equals(credentials.get("token"))
+        ? Mono.just("user-42")
+        : Mono.error(new UnauthorizedException("Authentication failed"));
+  }
+}
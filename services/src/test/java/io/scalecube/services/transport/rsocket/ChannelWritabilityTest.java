@@ -0,0 +1,135 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.annotations.Service;
+import io.scalecube.services.annotations.ServiceMethod;
+import io.scalecube.services.discovery.ScalecubeServiceDiscovery;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class ChannelWritabilityTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  @Test
+  public void testStreamOverSmallWriteBuffer() {
+    SocketBufferOptions bufferOptions =
+        new SocketBufferOptions()
+            .sendBufferSize(8 * 1024)
+            .receiveBufferSize(8 * 1024)
+            .writeBufferWaterMark(1024, 4 * 1024);
+
+    Microservices gateway =
+        Microservices.builder()
+            .discovery("gateway", ScalecubeServiceDiscovery::new)
+            .transport(
+                () ->
+                    new RSocketServiceTransport()
+                        .clientTransportFactory(
+                            RSocketClientTransportFactory.tcp(false, bufferOptions)))
+            .startAwait();
+
+    final Address gatewayAddress = gateway.discovery("gateway").address();
+
+    Microservices provider =
+        Microservices.builder()
+            .discovery(
+                "provider",
+                serviceEndpoint ->
+                    new ScalecubeServiceDiscovery(serviceEndpoint)
+                        .membership(cfg -> cfg.seedMembers(gatewayAddress)))
+            .transport(
+                () ->
+                    new RSocketServiceTransport()
+                        .serverTransportFactory(
+                            RSocketServerTransportFactory.tcp(0, bufferOptions)))
+            .services(new GreetingServiceImpl())
+            .startAwait();
+
+    try {
+      long count = 100_000;
+      StepVerifier.create(gateway.call().api(GreetingService.class).manyStream(count))
+          .expectNextCount(count)
+          .expectComplete()
+          .verify(TIMEOUT);
+    } finally {
+      gateway.shutdown().block(TIMEOUT);
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void testStreamIsGatedOverDefaultTransport() {
+    Microservices gateway =
+        Microservices.builder()
+            .discovery("gateway", ScalecubeServiceDiscovery::new)
+            .transport(RSocketServiceTransport::new)
+            .startAwait();
+
+    final Address gatewayAddress = gateway.discovery("gateway").address();
+
+    StreamServiceImpl streamService = new StreamServiceImpl();
+    Microservices provider =
+        Microservices.builder()
+            .discovery(
+                "provider",
+                serviceEndpoint ->
+                    new ScalecubeServiceDiscovery(serviceEndpoint)
+                        .membership(cfg -> cfg.seedMembers(gatewayAddress)))
+            .transport(RSocketServiceTransport::new)
+            .services(streamService)
+            .startAwait();
+
+    try {
+      long count = 1000;
+      StepVerifier.create(gateway.call().api(StreamService.class).stream(count))
+          .expectNextCount(count)
+          .expectComplete()
+          .verify(TIMEOUT);
+      // requester asks for everything at once, responder stream is requested in batches
+      assertTrue(streamService.maxRequest.get() > 0);
+      assertTrue(
+          streamService.maxRequest.get() <= ChannelWritability.BATCH_SIZE,
+          "Max request: " + streamService.maxRequest.get());
+    } finally {
+      gateway.shutdown().block(TIMEOUT);
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void testInvalidWriteBufferWaterMark() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SocketBufferOptions().writeBufferWaterMark(64 * 1024, 32 * 1024));
+  }
+
+  @Service("writability")
+  public interface StreamService {
+
+    @ServiceMethod
+    Flux<Long> stream(Long count);
+  }
+
+  public static class StreamServiceImpl implements StreamService {
+
+    private final AtomicLong maxRequest = new AtomicLong();
+
+    @Override
+    public Flux<Long> stream(Long count) {
+      return Flux.range(0, count.intValue())
+          .map(Integer::longValue)
+          .doOnRequest(n -> maxRequest.accumulateAndGet(n, Math::max));
+    }
+  }
+}
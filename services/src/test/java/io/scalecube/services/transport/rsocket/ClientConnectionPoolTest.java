@@ -0,0 +1,126 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.rsocket.RSocket;
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+public class ClientConnectionPoolTest extends BaseTest {
+
+  private static final Address ADDRESS = Address.create("localhost", 4801);
+
+  private final List<MonoProcessor<Void>> closeSignals = new ArrayList<>();
+  private final List<RSocket> rsockets = new ArrayList<>();
+  private final AtomicInteger connects = new AtomicInteger();
+
+  @Test
+  public void testIdleConnectionIsReused() {
+    ClientConnectionPool pool = new ClientConnectionPool(4);
+
+    ClientConnection first = pool.select(ADDRESS, this::connect).block();
+    ClientConnection second = pool.select(ADDRESS, this::connect).block();
+
+    assertSame(first, second);
+    assertEquals(1, connects.get());
+  }
+
+  @Test
+  public void testBusyConnectionsGrowUpToLimit() {
+    ClientConnectionPool pool = new ClientConnectionPool(2);
+
+    ClientConnection first = pool.select(ADDRESS, this::connect).block();
+    first.acquire();
+    ClientConnection second = pool.select(ADDRESS, this::connect).block();
+    assertNotSame(first, second);
+
+    second.acquire();
+    second.acquire();
+    ClientConnection third = pool.select(ADDRESS, this::connect).block();
+
+    assertSame(first, third, "least outstanding connection is expected");
+    assertEquals(2, connects.get());
+  }
+
+  @Test
+  public void testClosedConnectionIsReplaced() {
+    ClientConnectionPool pool = new ClientConnectionPool(1);
+
+    ClientConnection first = pool.select(ADDRESS, this::connect).block();
+    closeSignals.get(0).onComplete();
+    ClientConnection second = pool.select(ADDRESS, this::connect).block();
+
+    assertNotSame(first, second);
+    assertEquals(2, connects.get());
+  }
+
+  @Test
+  public void testFailedConnectIsNotCached() {
+    ClientConnectionPool pool = new ClientConnectionPool(1);
+
+    Supplier<Mono<ClientConnection>> failing =
+        () -> Mono.error(new IllegalStateException("connect failed"));
+    StepVerifier.create(pool.select(ADDRESS, failing))
+        .expectErrorMessage("connect failed")
+        .verify();
+
+    StepVerifier.create(pool.select(ADDRESS, this::connect)).expectNextCount(1).verifyComplete();
+    assertEquals(1, connects.get());
+  }
+
+  @Test
+  public void testUnavailableConnectionGoesLast() {
+    ClientConnectionPool pool = new ClientConnectionPool(2);
+
+    ClientConnection first = pool.select(ADDRESS, this::connect).block();
+    first.acquire();
+    ClientConnection second = pool.select(ADDRESS, this::connect).block();
+    second.acquire();
+    second.acquire();
+
+    when(rsockets.get(0).availability()).thenReturn(0.0); // e.g. out of lease
+    assertSame(second, pool.select(ADDRESS, this::connect).block());
+
+    when(rsockets.get(1).availability()).thenReturn(0.0);
+    assertSame(first, pool.select(ADDRESS, this::connect).block());
+    assertEquals(2, connects.get());
+  }
+
+  @Test
+  public void testUnavailableConnectionDoesNotGrowPool() {
+    ClientConnectionPool pool = new ClientConnectionPool(2);
+
+    ClientConnection first = pool.select(ADDRESS, this::connect).block();
+    first.acquire();
+    when(rsockets.get(0).availability()).thenReturn(0.0);
+
+    assertSame(first, pool.select(ADDRESS, this::connect).block());
+    assertEquals(1, connects.get());
+  }
+
+  private Mono<ClientConnection> connect() {
+    return Mono.fromSupplier(
+        () -> {
+          connects.incrementAndGet();
+          MonoProcessor<Void> onClose = MonoProcessor.create();
+          closeSignals.add(onClose);
+          RSocket rsocket = mock(RSocket.class);
+          when(rsocket.onClose()).thenReturn(onClose);
+          when(rsocket.availability()).thenReturn(1.0);
+          rsockets.add(rsocket);
+          return new ClientConnection(rsocket, MethodIdTable.NOT_NEGOTIATED);
+        });
+  }
+}
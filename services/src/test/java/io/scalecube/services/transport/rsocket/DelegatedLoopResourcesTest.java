@@ -0,0 +1,74 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.scalecube.services.BaseTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.LoopResources;
+
+public class DelegatedLoopResourcesTest extends BaseTest {
+
+  private EventLoopGroup eventLoopGroup;
+  private DelegatedLoopResources loopResources;
+
+  @BeforeEach
+  public void setUp() {
+    eventLoopGroup = LoopResources.colocate(new NioEventLoopGroup(2));
+    loopResources = DelegatedLoopResources.newClientLoopResources(eventLoopGroup);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    eventLoopGroup.shutdownGracefully().syncUninterruptibly();
+  }
+
+  @Test
+  public void testCurrentEventLoopOfWorkerThread() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      EventLoop eventLoop = eventLoopGroup.next();
+      EventLoop current = eventLoop.submit(loopResources::currentEventLoop).get();
+      assertSame(eventLoop, current);
+    }
+  }
+
+  @Test
+  public void testCurrentEventLoopOfForeignThread() {
+    assertNull(loopResources.currentEventLoop());
+    assertNull(loopResources.currentEventLoop()); // cached
+  }
+
+  @Test
+  public void testCurrentEventLoopIsResolvedPerInstance() throws Exception {
+    EventLoopGroup otherGroup = new NioEventLoopGroup(1);
+    try {
+      DelegatedLoopResources otherResources =
+          DelegatedLoopResources.newClientLoopResources(otherGroup);
+      EventLoop eventLoop = eventLoopGroup.next();
+      eventLoop
+          .submit(
+              () -> {
+                assertSame(eventLoop, loopResources.currentEventLoop());
+                // worker of this group is foreign to other loop resources
+                assertNull(otherResources.currentEventLoop());
+                assertSame(eventLoop, loopResources.currentEventLoop());
+              })
+          .get();
+    } finally {
+      otherGroup.shutdownGracefully().syncUninterruptibly();
+    }
+  }
+
+  @Test
+  public void testColocatedConnectFromEventLoop() throws Exception {
+    EventLoop eventLoop = eventLoopGroup.next();
+    EventLoopGroup onClient = loopResources.onClient(false);
+    // colocated group hands out caller's own event loop, which is what affine connections rely on
+    assertSame(eventLoop, eventLoop.submit(() -> onClient.next()).get());
+  }
+}
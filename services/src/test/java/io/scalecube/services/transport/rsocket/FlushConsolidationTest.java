@@ -0,0 +1,51 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.scalecube.services.BaseTest;
+import org.junit.jupiter.api.Test;
+
+public class FlushConsolidationTest extends BaseTest {
+
+  @Test
+  public void testFlushAfterMaxFlushes() {
+    EmbeddedChannel channel = new EmbeddedChannel(new FlushConsolidation(3, 0));
+
+    channel.writeAndFlush("a");
+    channel.writeAndFlush("b");
+    assertEquals(0, channel.outboundMessages().size());
+
+    channel.writeAndFlush("c");
+    assertEquals(3, channel.outboundMessages().size());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void testFlushWhenEventLoopTaskIsDone() {
+    EmbeddedChannel channel = new EmbeddedChannel(new FlushConsolidation(100, 0));
+
+    channel.writeAndFlush("a");
+    channel.writeAndFlush("b");
+    assertEquals(0, channel.outboundMessages().size());
+
+    channel.runPendingTasks();
+    assertEquals(2, channel.outboundMessages().size());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void testFlushWhenReadCompletes() {
+    EmbeddedChannel channel = new EmbeddedChannel(new FlushConsolidation(100, 0));
+
+    channel.pipeline().fireChannelRead("request");
+    channel.writeAndFlush("response");
+    channel.runPendingTasks();
+    assertEquals(0, channel.outboundMessages().size(), "flush is postponed while reading");
+
+    channel.pipeline().fireChannelReadComplete();
+    channel.runPendingTasks();
+    assertEquals(1, channel.outboundMessages().size());
+    channel.finishAndReleaseAll();
+  }
+}
@@ -0,0 +1,81 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.discovery.ScalecubeServiceDiscovery;
+import io.scalecube.services.sut.GreetingRequest;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+public class LatencyModeTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Test
+  public void testServiceCallInLatencyMode() {
+    SocketBufferOptions bufferOptions = new SocketBufferOptions().busyPoll(50);
+
+    Microservices gateway =
+        Microservices.builder()
+            .discovery("gateway", ScalecubeServiceDiscovery::new)
+            .transport(
+                () ->
+                    new RSocketServiceTransport()
+                        .numOfWorkers(1)
+                        .busyWait(true)
+                        .ioRatio(100)
+                        .clientTransportFactory(
+                            RSocketClientTransportFactory.tcp(false, bufferOptions)))
+            .startAwait();
+
+    final Address gatewayAddress = gateway.discovery("gateway").address();
+
+    Microservices provider =
+        Microservices.builder()
+            .discovery(
+                "provider",
+                serviceEndpoint ->
+                    new ScalecubeServiceDiscovery(serviceEndpoint)
+                        .membership(cfg -> cfg.seedMembers(gatewayAddress)))
+            .transport(
+                () ->
+                    new RSocketServiceTransport()
+                        .numOfWorkers(1)
+                        .busyWait(true)
+                        .numOfServiceWorkers(2)
+                        .serverTransportFactory(
+                            RSocketServerTransportFactory.tcp(0, bufferOptions)))
+            .services(new GreetingServiceImpl())
+            .startAwait();
+
+    try {
+      GreetingService service = gateway.call().api(GreetingService.class);
+
+      StepVerifier.create(service.greetingRequest(new GreetingRequest("joe")))
+          .assertNext(response -> assertEquals(" hello to: joe", response.getResult()))
+          .expectComplete()
+          .verify(TIMEOUT);
+
+      StepVerifier.create(service.manyStream(1000L))
+          .expectNextCount(1000)
+          .expectComplete()
+          .verify(TIMEOUT);
+    } finally {
+      gateway.shutdown().block(TIMEOUT);
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void testInvalidIoRatio() {
+    assertThrows(IllegalArgumentException.class, () -> new RSocketServiceTransport().ioRatio(0));
+    assertThrows(IllegalArgumentException.class, () -> new RSocketServiceTransport().ioRatio(101));
+  }
+}
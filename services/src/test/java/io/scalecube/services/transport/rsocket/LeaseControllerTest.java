@@ -0,0 +1,109 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.rsocket.lease.LeaseStats.EventType;
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.discovery.ScalecubeServiceDiscovery;
+import io.scalecube.services.sut.GreetingRequest;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+public class LeaseControllerTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final long INTERVAL_NANOS = LeaseController.LEASE_INTERVAL.toNanos();
+
+  @Test
+  public void testLimitShrinksAsLatencyGrows() {
+    LeaseController controller = new LeaseController();
+    long now = System.nanoTime();
+    for (int i = 0; i < 100; i++) {
+      controller.record(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    controller.updateLimit(now += INTERVAL_NANOS);
+    int limit = controller.limit();
+
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j < 100; j++) {
+        controller.record(TimeUnit.MILLISECONDS.toNanos(10)); // requests are queueing up
+      }
+      controller.updateLimit(now += INTERVAL_NANOS);
+    }
+
+    assertTrue(controller.limit() < limit, "limit is expected to shrink: " + controller.limit());
+  }
+
+  @Test
+  public void testLimitIsNotUpdatedWithinInterval() {
+    LeaseController controller = new LeaseController();
+    long now = System.nanoTime();
+    controller.record(TimeUnit.MILLISECONDS.toNanos(1));
+    controller.record(TimeUnit.MILLISECONDS.toNanos(100));
+    controller.updateLimit(now += INTERVAL_NANOS);
+    int limit = controller.limit();
+
+    controller.record(TimeUnit.MILLISECONDS.toNanos(100));
+    controller.updateLimit(now + INTERVAL_NANOS / 2);
+
+    assertEquals(limit, controller.limit());
+  }
+
+  @Test
+  public void testLeaseIsSharedByDemand() {
+    LeaseController controller = new LeaseController();
+    LeaseController.ConnectionStats busy = new LeaseController.ConnectionStats();
+    LeaseController.ConnectionStats idle = new LeaseController.ConnectionStats();
+    for (int i = 0; i < 100; i++) {
+      busy.onEvent(EventType.ACCEPT);
+    }
+
+    int busyLease = controller.nextLease(busy);
+    int idleLease = controller.nextLease(idle);
+
+    assertTrue(idleLease > 0, "idle connection must be able to send requests");
+    assertTrue(busyLease > idleLease, "busy: " + busyLease + ", idle: " + idleLease);
+  }
+
+  @Test
+  public void testServiceCallWithLease() {
+    Microservices gateway =
+        Microservices.builder()
+            .discovery("gateway", ScalecubeServiceDiscovery::new)
+            .transport(() -> new RSocketServiceTransport().lease(true))
+            .startAwait();
+
+    final Address gatewayAddress = gateway.discovery("gateway").address();
+
+    Microservices provider =
+        Microservices.builder()
+            .discovery(
+                "provider",
+                serviceEndpoint ->
+                    new ScalecubeServiceDiscovery(serviceEndpoint)
+                        .membership(cfg -> cfg.seedMembers(gatewayAddress)))
+            .transport(() -> new RSocketServiceTransport().lease(true))
+            .services(new GreetingServiceImpl())
+            .startAwait();
+
+    try {
+      assertTrue(LeaseController.isLeaseAdvertised(provider.serviceEndpoint().tags()));
+
+      StepVerifier.create(
+              gateway.call().api(GreetingService.class).greetingRequest(new GreetingRequest("joe")))
+          .assertNext(response -> assertEquals(" hello to: joe", response.getResult()))
+          .expectComplete()
+          .verify(TIMEOUT);
+    } finally {
+      gateway.shutdown().block(TIMEOUT);
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.rsocket.ConnectionSetupPayload;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.exceptions.ApplicationErrorException;
+import io.rsocket.util.ByteBufPayload;
+import io.rsocket.util.RSocketProxy;
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.ServiceInfo;
+import io.scalecube.services.api.Qualifier;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.exceptions.DefaultErrorMapper;
+import io.scalecube.services.exceptions.MessageCodecException;
+import io.scalecube.services.exceptions.ServiceUnavailableException;
+import io.scalecube.services.methods.ServiceMethodRegistryImpl;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.transport.api.ServiceMessageCodec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class MethodIdNegotiationTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(3);
+  private static final Address ADDRESS = Address.create("localhost", 4801);
+  private static final String QUALIFIER =
+      Qualifier.asString(GreetingService.SERVICE_NAME, "greeting");
+
+  private final ServiceMessageCodec codec = new ServiceMessageCodec();
+  private final List<byte[]> sentMetadata = new ArrayList<>();
+  private ServiceMethodRegistryImpl methodRegistry;
+  private RSocket server;
+  private RSocketClientTransport clientTransport;
+
+  @BeforeEach
+  public void setUp() {
+    methodRegistry = new ServiceMethodRegistryImpl();
+    methodRegistry.registerService(
+        ServiceInfo.fromServiceInstance(new GreetingServiceImpl())
+            .errorMapper(DefaultErrorMapper.INSTANCE)
+            .dataDecoder(ServiceMessageCodec::decodeData)
+            .build());
+
+    ConnectionSetupPayload setupPayload = mock(ConnectionSetupPayload.class);
+    when(setupPayload.data()).thenReturn(Unpooled.EMPTY_BUFFER);
+    RSocket acceptedServer =
+        new RSocketServiceAcceptor(
+                new JdkConnectionSetupCodec(), null, null, null, methodRegistry)
+            .accept(setupPayload, mock(RSocket.class))
+            .block(TIMEOUT);
+
+    // server as seen over the wire, records request metadata
+    server =
+        new RSocketProxy(acceptedServer) {
+          @Override
+          public Mono<Payload> requestResponse(Payload payload) {
+            sentMetadata.add(ByteBufUtil.getBytes(payload.sliceMetadata()));
+            return super.requestResponse(payload);
+          }
+        };
+
+    // connections are given to the transport directly, factory isn't used
+    clientTransport =
+        new RSocketClientTransport(
+            null,
+            new JdkConnectionSetupCodec(),
+            null,
+            null,
+            mock(RSocketClientTransportFactory.class));
+  }
+
+  @Test
+  public void testNegotiationRoundTrip() {
+    ClientConnection connection =
+        clientTransport.negotiateMethodIds(ADDRESS, server).block(TIMEOUT);
+
+    assertTrue(connection.methodIds().isNegotiated());
+    assertEquals(
+        (int) methodRegistry.methodIds().get(QUALIFIER),
+        connection.methodIds().methodId(QUALIFIER));
+
+    sentMetadata.clear();
+    StepVerifier.create(
+            RSocketClientChannel.create(Mono.just(connection), codec)
+                .requestResponse(greeting(), String.class))
+        .assertNext(response -> assertEquals(" hello to: joe", response.data()))
+        .expectComplete()
+        .verify(TIMEOUT);
+    // request carried method id prefix instead of qualifier header
+    assertEquals(
+        (int) methodRegistry.methodIds().get(QUALIFIER),
+        MethodIdTable.readMethodId(Unpooled.wrappedBuffer(sentMetadata.get(0))));
+  }
+
+  @Test
+  public void testFallbackToQualifierFrames() {
+    RSocket legacyServer = mock(RSocket.class);
+    when(legacyServer.requestResponse(any()))
+        .thenReturn(Mono.error(new ApplicationErrorException("No service invoker found")));
+
+    ClientConnection connection =
+        clientTransport.negotiateMethodIds(ADDRESS, legacyServer).block(TIMEOUT);
+    assertFalse(connection.methodIds().isNegotiated());
+
+    // server which didn't negotiate reads qualifier from headers
+    StepVerifier.create(
+            RSocketClientChannel.create(
+                    Mono.just(new ClientConnection(server, connection.methodIds())), codec)
+                .requestResponse(greeting(), String.class))
+        .assertNext(response -> assertEquals(" hello to: joe", response.data()))
+        .expectComplete()
+        .verify(TIMEOUT);
+  }
+
+  @Test
+  public void testMalformedReplyFailsNegotiation() {
+    RSocket brokenServer = mock(RSocket.class);
+    when(brokenServer.requestResponse(any()))
+        .thenAnswer(
+            invocation ->
+                Mono.just(
+                    codec.encodeAndTransform(
+                        ServiceMessage.builder()
+                            .qualifier(MethodIdTable.QUALIFIER)
+                            .data(Unpooled.wrappedBuffer(new byte[] {(byte) 0xff}))
+                            .build(),
+                        ByteBufPayload::create)));
+
+    StepVerifier.create(clientTransport.negotiateMethodIds(ADDRESS, brokenServer))
+        .expectError(MessageCodecException.class)
+        .verify(TIMEOUT);
+    verify(brokenServer).dispose();
+  }
+
+  @Test
+  public void testStuckReplyFailsNegotiation() {
+    RSocket stuckServer = mock(RSocket.class);
+    when(stuckServer.requestResponse(any())).thenReturn(Mono.never());
+
+    StepVerifier.withVirtualTime(() -> clientTransport.negotiateMethodIds(ADDRESS, stuckServer))
+        .thenAwait(Duration.ofMinutes(1))
+        .expectError(TimeoutException.class)
+        .verify(TIMEOUT);
+    verify(stuckServer).dispose();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {999, Integer.MAX_VALUE - 1, -2})
+  public void testUnknownMethodIdYieldsError(int methodId) {
+    clientTransport.negotiateMethodIds(ADDRESS, server).block(TIMEOUT);
+
+    Payload request =
+        codec.encodeAndTransform(
+            ServiceMessage.builder().data("joe").build(),
+            (data, headers) ->
+                ByteBufPayload.create(
+                    data, MethodIdTable.encodeMetadata(codec.allocator(), methodId, headers)));
+
+    StepVerifier.create(server.requestResponse(request))
+        .expectError(ServiceUnavailableException.class)
+        .verify(TIMEOUT);
+  }
+
+  private static ServiceMessage greeting() {
+    return ServiceMessage.builder().qualifier(QUALIFIER).data("joe").build();
+  }
+}
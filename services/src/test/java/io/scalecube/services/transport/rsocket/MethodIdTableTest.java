@@ -0,0 +1,88 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.exceptions.MessageCodecException;
+import io.scalecube.services.transport.api.VarIntUtil;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class MethodIdTableTest extends BaseTest {
+
+  @Test
+  public void testEncodeDecode() {
+    Map<String, Integer> methodIds = new HashMap<>();
+    methodIds.put("v1/greetings/greeting", 0);
+    methodIds.put("v1/greetings/greetingPojo", 1);
+    methodIds.put("v1/gr\u00fc\u00dfe/hallo", 300); // multi-byte utf-8 and varint
+
+    ByteBuf buffer = MethodIdTable.encode(ByteBufAllocator.DEFAULT, methodIds);
+    final MethodIdTable table;
+    try {
+      table = MethodIdTable.decode(buffer);
+      assertFalse(buffer.isReadable());
+    } finally {
+      buffer.release();
+    }
+
+    assertTrue(table.isNegotiated());
+    methodIds.forEach(
+        (qualifier, methodId) -> assertEquals((int) methodId, table.methodId(qualifier)));
+    assertEquals(-1, table.methodId("v1/greetings/unknown"));
+    assertEquals(-1, table.methodId(null));
+  }
+
+  @Test
+  public void testNotNegotiated() {
+    assertFalse(MethodIdTable.NOT_NEGOTIATED.isNegotiated());
+    assertEquals(-1, MethodIdTable.NOT_NEGOTIATED.methodId("v1/greetings/greeting"));
+  }
+
+  @Test
+  public void testDecodeTruncatedTable() {
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      VarIntUtil.writeVarInt(buffer, 2); // two entries announced, none written
+      assertThrows(MessageCodecException.class, () -> MethodIdTable.decode(buffer));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  public void testMetadataLayout() {
+    ByteBuf headers = Unpooled.copiedBuffer("headers", StandardCharsets.UTF_8);
+    ByteBuf metadata = MethodIdTable.encodeMetadata(ByteBufAllocator.DEFAULT, 200, headers);
+    try {
+      assertEquals(0, headers.refCnt());
+      assertEquals(VarIntUtil.varIntSize(201) + "headers".length(), metadata.readableBytes());
+      assertEquals(201, VarIntUtil.readVarInt(metadata.duplicate()));
+      assertEquals(200, MethodIdTable.readMethodId(metadata));
+      assertEquals("headers", metadata.toString(StandardCharsets.UTF_8));
+    } finally {
+      metadata.release();
+    }
+  }
+
+  @Test
+  public void testMetadataLayoutWithoutMethodId() {
+    ByteBuf headers = Unpooled.copiedBuffer("headers", StandardCharsets.UTF_8);
+    ByteBuf metadata = MethodIdTable.encodeMetadata(ByteBufAllocator.DEFAULT, -1, headers);
+    try {
+      assertEquals(0, metadata.getByte(0)); // "qualifier is in headers"
+      assertEquals(-1, MethodIdTable.readMethodId(metadata));
+      assertEquals("headers", metadata.toString(StandardCharsets.UTF_8));
+    } finally {
+      metadata.release();
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.netty.buffer.AbstractByteBufAllocator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.rsocket.transport.netty.client.TcpClientTransport;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.discovery.ScalecubeServiceDiscovery;
+import io.scalecube.services.sut.GreetingRequest;
+import io.scalecube.services.sut.GreetingResponse;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpClient;
+import reactor.netty.tcp.TcpServer;
+import reactor.test.StepVerifier;
+
+/**
+ * Checks ref-count ownership of inbound frames in zero-copy mode. Channels of both sides allocate
+ * from tracking allocator, and after each test every allocated buffer must be fully released.
+ */
+public class RSocketZeroCopyLeakTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private static final TrackingByteBufAllocator ALLOCATOR = new TrackingByteBufAllocator();
+
+  private static Microservices gateway;
+  private static Microservices provider;
+
+  @BeforeAll
+  public static void setUp() {
+    gateway =
+        Microservices.builder()
+            .discovery("gateway", ScalecubeServiceDiscovery::new)
+            .transport(RSocketZeroCopyLeakTest::zeroCopyTransport)
+            .startAwait();
+
+    final Address gatewayAddress = gateway.discovery("gateway").address();
+
+    provider =
+        Microservices.builder()
+            .discovery(
+                "provider",
+                serviceEndpoint ->
+                    new ScalecubeServiceDiscovery(serviceEndpoint)
+                        .membership(cfg -> cfg.seedMembers(gatewayAddress)))
+            .transport(RSocketZeroCopyLeakTest::zeroCopyTransport)
+            .services(new GreetingServiceImpl())
+            .startAwait();
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    try {
+      gateway.shutdown().block();
+    } catch (Exception ignore) {
+      // no-op
+    }
+    try {
+      provider.shutdown().block();
+    } catch (Exception ignore) {
+      // no-op
+    }
+  }
+
+  @AfterEach
+  public void assertNoLeaks() throws InterruptedException {
+    // frames of just completed calls might still be in flight
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    List<ByteBuf> unreleased = ALLOCATOR.unreleased();
+    while (!unreleased.isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+      unreleased = ALLOCATOR.unreleased();
+    }
+    assertEquals(0, unreleased.size(), "Unreleased buffers: " + unreleased);
+  }
+
+  @Test
+  public void testRequestResponse() {
+    GreetingService service = gateway.call().api(GreetingService.class);
+    for (int i = 0; i < 100; i++) {
+      GreetingResponse response =
+          service.greetingRequest(new GreetingRequest("joe-" + i)).block(TIMEOUT);
+      assertEquals(" hello to: joe-" + i, response.getResult());
+    }
+  }
+
+  @Test
+  public void testRequestResponseWithoutData() {
+    GreetingService service = gateway.call().api(GreetingService.class);
+    for (int i = 0; i < 100; i++) {
+      assertEquals("hello unknown", service.greetingNoParams().block(TIMEOUT));
+    }
+  }
+
+  @Test
+  public void testVoidResponse() {
+    GreetingService service = gateway.call().api(GreetingService.class);
+    for (int i = 0; i < 100; i++) {
+      service.greetingVoid(new GreetingRequest("joe-" + i)).block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void testErrorResponse() {
+    GreetingService service = gateway.call().api(GreetingService.class);
+    for (int i = 0; i < 100; i++) {
+      GreetingRequest request = new GreetingRequest("joe-" + i);
+      StepVerifier.create(service.failingRequest(request))
+          .expectErrorMessage(request.toString())
+          .verify(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void testRequestStream() {
+    GreetingService service = gateway.call().api(GreetingService.class);
+    StepVerifier.create(service.manyStream(1000L)).expectNextCount(1000).verifyComplete();
+  }
+
+  @Test
+  public void testRequestStreamCancelled() {
+    GreetingService service = gateway.call().api(GreetingService.class);
+    StepVerifier.create(service.manyStream(100_000L).take(10))
+        .expectNextCount(10)
+        .verifyComplete();
+  }
+
+  @Test
+  public void testRequestChannel() {
+    GreetingService service = gateway.call().api(GreetingService.class);
+    Flux<GreetingRequest> requests = Flux.range(0, 100).map(i -> new GreetingRequest("joe-" + i));
+    StepVerifier.create(service.bidiGreeting(requests)).expectNextCount(100).verifyComplete();
+  }
+
+  private static RSocketServiceTransport zeroCopyTransport() {
+    return new RSocketServiceTransport()
+        .zeroCopy(true)
+        .serverTransportFactory(RSocketZeroCopyLeakTest::serverTransportFactory)
+        .clientTransportFactory(RSocketZeroCopyLeakTest::clientTransportFactory);
+  }
+
+  private static RSocketServerTransportFactory serverTransportFactory(
+      LoopResources loopResources) {
+    return () ->
+        TcpServerTransport.create(
+            TcpServer.create()
+                .runOn(loopResources)
+                .bindAddress(() -> new InetSocketAddress(0))
+                .option(ChannelOption.ALLOCATOR, ALLOCATOR)
+                .doOnConnection(ChannelWritability::install));
+  }
+
+  private static RSocketClientTransportFactory clientTransportFactory(
+      LoopResources loopResources) {
+    return address ->
+        TcpClientTransport.create(
+            TcpClient.newConnection()
+                .runOn(loopResources)
+                .host(address.host())
+                .port(address.port())
+                .option(ChannelOption.ALLOCATOR, ALLOCATOR));
+  }
+
+  /** Allocator which remembers every buffer it allocated. */
+  private static class TrackingByteBufAllocator extends AbstractByteBufAllocator {
+
+    private final ByteBufAllocator delegate = new UnpooledByteBufAllocator(false);
+    private final Queue<ByteBuf> buffers = new ConcurrentLinkedQueue<>();
+
+    private TrackingByteBufAllocator() {
+      super(false);
+    }
+
+    List<ByteBuf> unreleased() {
+      buffers.removeIf(buffer -> buffer.refCnt() == 0);
+      return buffers.stream().filter(buffer -> buffer.refCnt() > 0).collect(Collectors.toList());
+    }
+
+    @Override
+    protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+      return track(delegate.heapBuffer(initialCapacity, maxCapacity));
+    }
+
+    @Override
+    protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+      return track(delegate.directBuffer(initialCapacity, maxCapacity));
+    }
+
+    @Override
+    public boolean isDirectBufferPooled() {
+      return false;
+    }
+
+    private ByteBuf track(ByteBuf buffer) {
+      buffers.add(buffer);
+      return buffer;
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.rsocket.DuplexConnection;
+import io.rsocket.transport.ClientTransport;
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.discovery.ScalecubeServiceDiscovery;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+public class ResumeTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration SESSION_DURATION = Duration.ofSeconds(30);
+
+  @Test
+  public void testStreamSurvivesConnectionDrop() {
+    List<DuplexConnection> connections = new CopyOnWriteArrayList<>();
+
+    Microservices gateway =
+        Microservices.builder()
+            .discovery("gateway", ScalecubeServiceDiscovery::new)
+            .transport(
+                () ->
+                    new RSocketServiceTransport()
+                        .resumeSessionDuration(SESSION_DURATION)
+                        .clientTransportFactory(
+                            loopResources -> {
+                              RSocketClientTransportFactory tcp =
+                                  RSocketClientTransportFactory.tcp().apply(loopResources);
+                              return address -> {
+                                ClientTransport transport = tcp.clientTransport(address);
+                                return () -> transport.connect().doOnNext(connections::add);
+                              };
+                            }))
+            .startAwait();
+
+    final Address gatewayAddress = gateway.discovery("gateway").address();
+
+    Microservices provider =
+        Microservices.builder()
+            .discovery(
+                "provider",
+                serviceEndpoint ->
+                    new ScalecubeServiceDiscovery(serviceEndpoint)
+                        .membership(cfg -> cfg.seedMembers(gatewayAddress)))
+            .transport(() -> new RSocketServiceTransport().resumeSessionDuration(SESSION_DURATION))
+            .services(new GreetingServiceImpl())
+            .startAwait();
+
+    try {
+      StepVerifier.create(gateway.call().api(GreetingService.class).manyStream(10L), 1)
+          .expectNext(0L)
+          .then(() -> connections.forEach(DuplexConnection::dispose))
+          .thenRequest(9)
+          .expectNext(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L)
+          .expectComplete()
+          .verify(TIMEOUT);
+
+      assertEquals(2, connections.size(), "connection is expected to be resumed");
+    } finally {
+      gateway.shutdown().block(TIMEOUT);
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+}
@@ -0,0 +1,243 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.discovery.ScalecubeServiceDiscovery;
+import io.scalecube.services.sut.GreetingRequest;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class SharedMemoryTransportTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Test
+  public void testRingBufferWrapsAround() throws Exception {
+    Path file = Files.createTempDirectory("shm").resolve("ring");
+    SharedMemoryRingBuffer producer = SharedMemoryRingBuffer.create(file, 256);
+    SharedMemoryRingBuffer consumer = SharedMemoryRingBuffer.open(file);
+    try {
+      List<String> received = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        // varying lengths, so that records don't fit till the end of ring and get padded
+        String message = String.join("", Collections.nCopies(i % 7 + 1, "message-" + i));
+        assertTrue(producer.write(Unpooled.copiedBuffer(message, StandardCharsets.UTF_8)));
+        producer.publish();
+        assertEquals(1, consumer.read(ByteBufAllocator.DEFAULT, frame -> received.add(of(frame))));
+        assertEquals(message, received.get(i));
+      }
+    } finally {
+      producer.unmap();
+      consumer.unmap();
+    }
+  }
+
+  @Test
+  public void testRingBufferFull() throws Exception {
+    Path file = Files.createTempDirectory("shm").resolve("ring");
+    SharedMemoryRingBuffer producer = SharedMemoryRingBuffer.create(file, 256);
+    SharedMemoryRingBuffer consumer = SharedMemoryRingBuffer.open(file);
+    try {
+      ByteBuf frame = Unpooled.wrappedBuffer(new byte[60]); // 64 bytes record
+      for (int i = 0; i < 4; i++) {
+        assertTrue(producer.write(frame));
+      }
+      assertFalse(producer.write(frame));
+      producer.publish();
+      assertEquals(4, consumer.read(ByteBufAllocator.DEFAULT, ByteBuf::release));
+      assertTrue(producer.write(frame));
+    } finally {
+      producer.unmap();
+      consumer.unmap();
+    }
+  }
+
+  @Test
+  public void testRingBufferFramesAreVisibleOncePublished() throws Exception {
+    Path file = Files.createTempDirectory("shm").resolve("ring");
+    SharedMemoryRingBuffer producer = SharedMemoryRingBuffer.create(file, 256);
+    SharedMemoryRingBuffer consumer = SharedMemoryRingBuffer.open(file);
+    try {
+      ByteBuf frame = Unpooled.wrappedBuffer(new byte[8]);
+      assertTrue(producer.write(frame));
+      assertTrue(producer.write(frame));
+      assertEquals(0, consumer.read(ByteBufAllocator.DEFAULT, ByteBuf::release));
+      producer.publish();
+      assertEquals(2, consumer.read(ByteBufAllocator.DEFAULT, ByteBuf::release));
+    } finally {
+      producer.unmap();
+      consumer.unmap();
+    }
+  }
+
+  @Test
+  public void testSendIsBackpressuredByRing() throws Exception {
+    Path directory = Files.createTempDirectory("shm");
+    Path inboundFile = directory.resolve("inbound");
+    Path outboundFile = directory.resolve("outbound");
+    SharedMemoryDuplexConnection connection =
+        new SharedMemoryDuplexConnection(
+            "test",
+            new SharedMemoryPoller("test", new SharedMemoryIdleOptions()),
+            null,
+            null,
+            SharedMemoryRingBuffer.create(inboundFile, 256),
+            SharedMemoryRingBuffer.create(outboundFile, 256),
+            inboundFile,
+            outboundFile);
+    SharedMemoryRingBuffer consumer = SharedMemoryRingBuffer.open(outboundFile);
+    try {
+      int numOfFrames = 10 * SharedMemoryDuplexConnection.MAX_OUTBOUND_FRAMES;
+      AtomicInteger emitted = new AtomicInteger();
+      connection
+          .send(
+              Flux.range(0, numOfFrames)
+                  .map(i -> Unpooled.wrappedBuffer(new byte[60]))
+                  .doOnNext(frame -> emitted.incrementAndGet()))
+          .subscribe();
+
+      // ring takes 4 frames and nobody reads it, so no more than first batch is requested
+      TimeUnit.MILLISECONDS.sleep(100);
+      assertEquals(SharedMemoryDuplexConnection.MAX_OUTBOUND_FRAMES, emitted.get());
+
+      int received = 0;
+      long deadline = System.nanoTime() + TIMEOUT.toNanos();
+      while (received < numOfFrames && System.nanoTime() < deadline) {
+        received += consumer.read(ByteBufAllocator.DEFAULT, ByteBuf::release);
+      }
+      assertEquals(numOfFrames, received);
+      assertEquals(numOfFrames, emitted.get());
+    } finally {
+      connection.dispose();
+      consumer.unmap();
+    }
+  }
+
+  @Test
+  public void testServiceCallOverSharedMemory() throws Exception {
+    Path directory = Files.createTempDirectory("shm");
+    Microservices gateway = gateway(directory);
+    Microservices provider = provider(directory, gateway);
+
+    try {
+      String providerDirectory =
+          provider.serviceEndpoint().tags().get(SharedMemoryServerTransport.DIRECTORY_TAG);
+      assertNotNull(providerDirectory);
+
+      StepVerifier.create(
+              gateway.call().api(GreetingService.class).greetingRequest(new GreetingRequest("joe")))
+          .assertNext(response -> assertEquals(" hello to: joe", response.getResult()))
+          .expectComplete()
+          .verify(TIMEOUT);
+
+      try (Stream<Path> files = Files.list(Paths.get(providerDirectory))) {
+        assertTrue(files.anyMatch(file -> file.toString().endsWith(".c2s")));
+      }
+    } finally {
+      gateway.shutdown().block(TIMEOUT);
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void testPayloadLargerThanRing() throws Exception {
+    Path directory = Files.createTempDirectory("shm");
+    Microservices gateway = gateway(directory);
+    Microservices provider = provider(directory, gateway);
+
+    try {
+      char[] chars = new char[SharedMemoryRingBuffer.DEFAULT_CAPACITY + 1024];
+      Arrays.fill(chars, 'a');
+      String name = new String(chars);
+
+      // request and response both span several ring lengths, and go as fragments
+      StepVerifier.create(gateway.call().api(GreetingService.class).greeting(name))
+          .assertNext(response -> assertEquals(" hello to: " + name, response))
+          .expectComplete()
+          .verify(TIMEOUT);
+    } finally {
+      gateway.shutdown().block(TIMEOUT);
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void testStaleDirectoryIsDeletedOnStart() throws Exception {
+    Path directory = Files.createTempDirectory("shm");
+    FileTime longAgo = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+
+    // owner lock which nobody holds, like the one of crashed server
+    Path staleDirectory = Files.createDirectory(directory.resolve("scalecube-stale"));
+    Files.createFile(staleDirectory.resolve(SharedMemoryServerTransport.OWNER_LOCK));
+    Files.createFile(
+        staleDirectory.resolve("client" + SharedMemoryServerTransport.CLIENT_TO_SERVER_SUFFIX));
+    Files.setLastModifiedTime(staleDirectory, longAgo);
+
+    Path liveDirectory = Files.createDirectory(directory.resolve("scalecube-live"));
+    SharedMemoryLock liveLock =
+        SharedMemoryLock.create(liveDirectory.resolve(SharedMemoryServerTransport.OWNER_LOCK));
+    Files.setLastModifiedTime(liveDirectory, longAgo);
+
+    Microservices gateway = gateway(directory);
+    try {
+      assertFalse(Files.exists(staleDirectory));
+      assertTrue(Files.exists(liveDirectory));
+    } finally {
+      gateway.shutdown().block(TIMEOUT);
+      liveLock.close();
+    }
+  }
+
+  private static Microservices gateway(Path directory) {
+    return Microservices.builder()
+        .discovery("gateway", ScalecubeServiceDiscovery::new)
+        .transport(() -> new RSocketServiceTransport().sharedMemoryDirectory(directory))
+        .startAwait();
+  }
+
+  private static Microservices provider(Path directory, Microservices gateway) {
+    final Address gatewayAddress = gateway.discovery("gateway").address();
+    return Microservices.builder()
+        .discovery(
+            "provider",
+            serviceEndpoint ->
+                new ScalecubeServiceDiscovery(serviceEndpoint)
+                    .membership(cfg -> cfg.seedMembers(gatewayAddress)))
+        .transport(() -> new RSocketServiceTransport().sharedMemoryDirectory(directory))
+        .services(new GreetingServiceImpl())
+        .startAwait();
+  }
+
+  private static String of(ByteBuf frame) {
+    try {
+      return frame.toString(StandardCharsets.UTF_8);
+    } finally {
+      frame.release();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.netty.channel.epoll.Epoll;
+import io.scalecube.net.Address;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.discovery.ScalecubeServiceDiscovery;
+import io.scalecube.services.sut.GreetingRequest;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+public class UnixDomainSocketTransportTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Test
+  public void testServiceCallOverUnixDomainSocket() throws Exception {
+    assumeTrue(Epoll.isAvailable(), "epoll is not available");
+
+    Path directory = Files.createTempDirectory("uds");
+
+    Microservices gateway =
+        Microservices.builder()
+            .discovery("gateway", ScalecubeServiceDiscovery::new)
+            .transport(() -> new RSocketServiceTransport().unixDomainSocketDirectory(directory))
+            .startAwait();
+
+    final Address gatewayAddress = gateway.discovery("gateway").address();
+
+    Microservices provider =
+        Microservices.builder()
+            .discovery(
+                "provider",
+                serviceEndpoint ->
+                    new ScalecubeServiceDiscovery(serviceEndpoint)
+                        .membership(cfg -> cfg.seedMembers(gatewayAddress)))
+            .transport(() -> new RSocketServiceTransport().unixDomainSocketDirectory(directory))
+            .services(new GreetingServiceImpl())
+            .startAwait();
+
+    try {
+      String socketPath =
+          provider.serviceEndpoint().tags().get(RSocketServerTransport.UNIX_DOMAIN_SOCKET_TAG);
+      assertNotNull(socketPath);
+      assertTrue(Files.exists(Paths.get(socketPath)));
+
+      StepVerifier.create(
+              gateway.call().api(GreetingService.class).greetingRequest(new GreetingRequest("joe")))
+          .assertNext(response -> assertEquals(" hello to: joe", response.getResult()))
+          .expectComplete()
+          .verify(TIMEOUT);
+    } finally {
+      gateway.shutdown().block(TIMEOUT);
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+}